@@ -1,6 +1,7 @@
 package com.bit.solana.account.impl;
 
 import com.bit.solana.common.BlockHash;
+import com.bit.solana.common.Key32;
 import com.bit.solana.common.PubkeyHash;
 import com.bit.solana.result.Result;
 import com.bit.solana.account.AccountService;
@@ -44,7 +45,7 @@ public class AccountServiceImpl implements AccountService {
     /**
      * 账户缓存 先查询缓存再查数据库  公钥 - > 账户具体信息
      */
-    private LoadingCache<byte[], Account> accountCache;
+    private LoadingCache<Key32, Account> accountCache;
 
     @PostConstruct
     public void init() {
@@ -52,10 +53,10 @@ public class AccountServiceImpl implements AccountService {
                 .maximumSize(2000)  // 最大缓存
                 .expireAfterWrite(10, TimeUnit.MINUTES)  // 10分钟过期
                 .recordStats()  // 记录缓存统计（命中率等）
-                .removalListener((RemovalListener<byte[], Account>) (hash, Account, cause) ->
+                .removalListener((RemovalListener<Key32, Account>) (hash, Account, cause) ->
                         log.debug("Block cache removed: hash={}, cause={}", hash, cause)
                 )
-                .build(this::getAccountByHash);// 缓存未命中时从数据源加载
+                .build(key -> getAccountByHash(key.toBytes()));// 缓存未命中时从数据源加载
     }
 
 
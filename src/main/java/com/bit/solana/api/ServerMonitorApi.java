@@ -1,6 +1,10 @@
 package com.bit.solana.api;
 
+import com.bit.solana.monitor.ServerMonitor;
+import com.bit.solana.monitor.impl.dto.DbMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -9,6 +13,14 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/monitor/server")
 public class ServerMonitorApi {
 
+    @Autowired
+    private ServerMonitor serverMonitor;
 
-
+    /**
+     * 获取数据库监控数据
+     */
+    @GetMapping("/db")
+    public DbMetrics getDb() {
+        return serverMonitor.getDbMetrics();
+    }
 }
@@ -3,6 +3,7 @@ package com.bit.solana.blockchain;
 import com.bit.solana.result.Result;
 import com.bit.solana.structure.block.Block;
 import com.bit.solana.structure.tx.Transaction;
+import io.netty.buffer.ByteBuf;
 
 /**
  * 从代码片段看，BlockChain接口定义了区块链的基础能力（交易验证、区块生成等），BlockChainImpl作为其实现类，应聚焦于：
@@ -19,6 +20,11 @@ public interface BlockChain {
 
     Transaction getTransactionByTxHash(byte[] hash);
 
+    /**
+     * 按高度读取序列化的区块记录（向其他节点同步区块，调用方负责释放）
+     */
+    ByteBuf getRawBlockByHeight(long height);
+
     Result processBlock(Block block);
 
     Block getLatestBlock();
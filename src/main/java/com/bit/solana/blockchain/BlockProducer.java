@@ -1,6 +1,7 @@
 package com.bit.solana.blockchain;
 
 import com.bit.solana.common.BlockHash;
+import com.bit.solana.common.ByteHash32;
 import com.bit.solana.common.PoHHash;
 import com.bit.solana.common.TransactionHash;
 import com.bit.solana.structure.poh.POHRecord;
@@ -8,6 +9,7 @@ import com.bit.solana.poh.POHService;
 import com.bit.solana.structure.block.Block;
 import com.bit.solana.structure.block.BlockBody;
 import com.bit.solana.structure.block.BlockHeader;
+import com.bit.solana.structure.account.AccountMeta;
 import com.bit.solana.structure.bloom.AccountConflictBloom;
 import com.bit.solana.structure.tx.Transaction;
 import com.bit.solana.txpool.TxPool;
@@ -19,6 +21,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
@@ -59,6 +63,8 @@ import java.util.stream.Collectors;
 public class BlockProducer {
     // 固定出块间隔：500ms
     private static final long BLOCK_INTERVAL_MS = 500;
+    // 每次从交易池取出的候选交易数（1.4MB / 最小交易约100字节）
+    private static final int CANDIDATE_COUNT = 1 << 14;
     @Autowired
     private BlockChain blockChain; // 依赖区块链核心接口
     @Autowired
@@ -95,9 +101,10 @@ public class BlockProducer {
      */
     private void produceBlock() {
         try {
-            // 1. 从交易池提取交易（按TPS目标计算：1万TPS / 2区块/秒 = 5000笔/区块）
-            int maxTxPerBlock = 5000; // 技术.txt约束：每个区块至少5000笔
-            List<Transaction> pendingTxs = txPool.getPendingTransactions(maxTxPerBlock);
+            // 1. 从交易池提取候选交易，按每字节手续费装箱，填满区块体字节上限
+            // （按TPS目标计算：1万TPS / 2区块/秒 = 5000笔/区块，平均256字节时约1.3MB）
+            List<Transaction> candidates = txPool.getPendingTransactions(CANDIDATE_COUNT);
+            List<Transaction> pendingTxs = packTransactions(candidates, BlockBody.MAX_BODY_SIZE, TxUtils.MAX_BLOCK_COMPUTE_UNITS);
 
             // 2. 生成区块头（包含POH时序、前序区块哈希等）
             BlockHeader header = createBlockHeader();
@@ -117,7 +124,7 @@ public class BlockProducer {
 
             // 6. 移除已打包交易（避免重复处理）
             List<String> txIds = pendingTxs.stream()
-                    .map(tx -> tx.getTransactionHash().toString())
+                    .map(Transaction::getTxIdStr)
                     .collect(Collectors.toList());
             txPool.removeProcessedTransactions(txIds);
 
@@ -126,6 +133,50 @@ public class BlockProducer {
         }
     }
 
+    /**
+     * 背包式装箱：每笔交易占用 序列化大小 + 交易哈希(32字节) 以及估算的计算单元，价值为手续费
+     * 按优先级（每字节/每计算单元手续费，以较紧的资源为准）从高到低放入，放不下的跳过、继续尝试后面更小的交易，
+     * 剩余空间放不下最小的候选时结束
+     * @return 选中的交易（按优先级降序）
+     */
+    static List<Transaction> packTransactions(List<Transaction> candidates, long maxBodySize, long maxComputeUnits) {
+        List<PackItem> items = new ArrayList<>(candidates.size());
+        long minCost = Long.MAX_VALUE;
+        for (Transaction tx : candidates) {
+            PackItem item = new PackItem(tx, packedSize(tx), TxUtils.estimateComputeUnits(tx), TxUtils.priority(tx));
+            items.add(item);
+            minCost = Math.min(minCost, item.cost());
+        }
+        items.sort(Comparator.comparingDouble(PackItem::priority).reversed());
+
+        List<Transaction> selected = new ArrayList<>();
+        long remaining = maxBodySize;
+        long remainingUnits = maxComputeUnits;
+        for (PackItem item : items) {
+            if (remaining < minCost) {
+                break;
+            }
+            if (item.cost() <= remaining && item.computeUnits() <= remainingUnits) {
+                selected.add(item.tx());
+                remaining -= item.cost();
+                remainingUnits -= item.computeUnits();
+            }
+        }
+        log.debug("区块装箱: 候选{}笔 选中{}笔 {}/{}字节 {}/{}CU", candidates.size(), selected.size(),
+                maxBodySize - remaining, maxBodySize, maxComputeUnits - remainingUnits, maxComputeUnits);
+        return selected;
+    }
+
+    /**
+     * 交易在区块体中占用的字节数
+     */
+    private static long packedSize(Transaction tx) {
+        return TxUtils.getSerializedSize(tx) + ByteHash32.HASH_LENGTH;
+    }
+
+    private record PackItem(Transaction tx, long cost, long computeUnits, double priority) {
+    }
+
     /**
      * 创建区块头（结合POH时序）
      */
@@ -173,12 +224,19 @@ public class BlockProducer {
     private long calculateBodySize(List<Transaction> transactions, List<TransactionHash> txHashes) {
         // 实际实现需序列化交易和哈希并计算总字节数
         return transactions.stream().mapToLong(TxUtils::getSerializedSize).sum()
-                + txHashes.stream().mapToLong(hash -> hash.getBytes().length).sum();
+                + (long) txHashes.size() * ByteHash32.HASH_LENGTH;
     }
 
     private AccountConflictBloom buildAccountConflictBloom(List<Transaction> transactions) {
         AccountConflictBloom bloom = AccountConflictBloom.createEmpty();
-        transactions.forEach(tx -> tx.getAccounts().forEach(account -> bloom.add(account.getPublicKey())));
+        // 只记录可写账户（只读账户之间不冲突）；直接使用公钥，不拷贝数组
+        for (Transaction tx : transactions) {
+            for (AccountMeta account : tx.getAccounts()) {
+                if (account.isWritable()) {
+                    bloom.add(account.getPubkey());
+                }
+            }
+        }
         return bloom;
     }
 
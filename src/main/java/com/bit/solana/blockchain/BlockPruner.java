@@ -0,0 +1,70 @@
+package com.bit.solana.blockchain;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 账本裁剪：后台删除指定高度以下的区块及其索引（删除逻辑见 BlockStore.pruneBelow）
+ * 单线程执行，前台读写不受影响
+ */
+@Slf4j
+@Component
+public class BlockPruner {
+    @Autowired
+    private BlockStore blockStore;
+
+    private final ExecutorService pruneExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "block-pruner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 已裁剪到的高度（不包含），低于该高度的区块已删除
+    private final AtomicLong prunedHeight = new AtomicLong(0);
+
+    /**
+     * 异步裁剪高度 H 以下的所有区块
+     * @param height 保留的最低高度（不包含在删除范围内）
+     */
+    public CompletableFuture<Void> pruneBelow(long height) {
+        if (height <= 0) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("裁剪高度必须大于0"));
+        }
+        return CompletableFuture.runAsync(() -> {
+            long current = prunedHeight.get();
+            if (height <= current) {
+                log.debug("高度{}以下的区块已裁剪，跳过", current);
+                return;
+            }
+            long begin = System.currentTimeMillis();
+            long removed = blockStore.pruneBelow(height);
+            prunedHeight.set(height);
+            log.info("已裁剪高度{}以下的{}个区块，耗时{}ms", height, removed, System.currentTimeMillis() - begin);
+        }, pruneExecutor);
+    }
+
+    public long getPrunedHeight() {
+        return prunedHeight.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pruneExecutor.shutdown();
+        try {
+            if (!pruneExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                pruneExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pruneExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
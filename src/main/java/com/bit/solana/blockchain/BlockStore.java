@@ -0,0 +1,311 @@
+package com.bit.solana.blockchain;
+
+import com.bit.solana.config.SystemConfig;
+import com.bit.solana.database.DataBase;
+import com.bit.solana.database.TypedTable;
+import com.bit.solana.database.codec.Codecs;
+import com.bit.solana.database.ledger.BlockStorageMode;
+import com.bit.solana.database.ledger.LedgerSegmentStore;
+import com.bit.solana.database.rocksDb.RocksDb;
+import com.bit.solana.database.rocksDb.TableEnum;
+import com.bit.solana.structure.block.Block;
+import com.bit.solana.structure.tx.Transaction;
+import com.bit.solana.util.ByteUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 区块持久化布局
+ * BLOCK        区块哈希(32字节)       -> 区块记录（Block.serialize）
+ * BLOCK_HEIGHT 高度(8字节大端)        -> 区块哈希
+ * TX_INDEX     交易ID(32字节)         -> 高度(8字节大端) + 区块内序号(4字节大端)
+ * SLOT_INDEX   插槽号(8字节大端)      -> 高度(8字节大端)
+ * CHAIN        latest_height         -> 最新高度(8字节大端)
+ * 一个区块的所有记录在同一个 WriteBatch 中原子写入；大端键保证按高度、插槽有序，可直接范围扫描与范围删除
+ *
+ * block-storage=SEGMENT 时区块记录追加写入账本段文件（LedgerSegmentStore），BLOCK 只保存 区块哈希 -> 高度(8字节大端)；
+ * 段文件先于 WriteBatch 写入，崩溃后段文件中多出的高度会在重新写入该高度时被覆盖
+ */
+@Slf4j
+@Component
+public class BlockStore {
+    static final byte[] LATEST_HEIGHT_KEY = "latest_height".getBytes(StandardCharsets.UTF_8);
+    private static final long UNKNOWN_HEIGHT = Long.MIN_VALUE;
+    private static final int PRUNE_CHUNK_SIZE = 256;
+
+    @Autowired
+    private DataBase dataBase;
+
+    @Autowired
+    private SystemConfig config;
+
+    private TypedTable<byte[], Block> blocks;
+    // 账本段文件（null 表示区块记录保存在 BLOCK 列族）
+    private LedgerSegmentStore segments;
+    private TypedTable<Long, byte[]> heightIndex;
+
+    // 最新高度（-1 表示空链），第一次访问时从 CHAIN 表加载
+    private volatile long latestHeight = UNKNOWN_HEIGHT;
+
+    @PostConstruct
+    public void init() {
+        // 区块记录最大约1.4MB，不缓存解码结果：原始字节由 BLOCK 表缓存，解码后的区块由 BlockChainImpl 缓存
+        blocks = new TypedTable<>(dataBase, TableEnum.BLOCK, Codecs.BYTES,
+                Codecs.of(Block::serialize, Block::deserialize), 0);
+        heightIndex = new TypedTable<>(dataBase, TableEnum.BLOCK_HEIGHT, Codecs.BIG_ENDIAN_LONG, Codecs.BYTES, 0);
+        if (config.getBlockStorage() == BlockStorageMode.SEGMENT) {
+            long segmentSizeMb = config.getLedgerSegmentSizeMb() == null ? 256 : config.getLedgerSegmentSizeMb();
+            segments = new LedgerSegmentStore(Path.of(config.getPath(), "ledger"),
+                    Math.toIntExact(segmentSizeMb * 1024 * 1024),
+                    Boolean.TRUE.equals(config.getLedgerFsync()));
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (segments != null) {
+            segments.close();
+        }
+    }
+
+    /**
+     * 原子写入区块及其全部索引
+     * @return 是否写入成功
+     */
+    public synchronized boolean saveBlock(Block block) {
+        byte[] hash = block.getBlockHash().getValue();
+        long height = block.getHeight();
+        byte[] heightKey = ByteUtils.longToBytesBE(height);
+
+        List<Transaction> transactions = transactionsOf(block);
+        List<RocksDb.DbOperation> operations = new ArrayList<>(transactions.size() + 4);
+        if (segments != null) {
+            segments.append(height, block.serialize());
+            operations.add(insert(TableEnum.BLOCK, hash, heightKey));
+        } else {
+            operations.add(insert(TableEnum.BLOCK, hash, block.serialize()));
+        }
+        operations.add(insert(TableEnum.BLOCK_HEIGHT, heightKey, hash));
+        operations.add(insert(TableEnum.SLOT_INDEX, ByteUtils.longToBytesBE(block.getSlot()), heightKey));
+        for (int i = 0; i < transactions.size(); i++) {
+            operations.add(insert(TableEnum.TX_INDEX, transactions.get(i).getTxId(), encodeLocation(height, i)));
+        }
+        boolean advance = height > getLatestHeight();
+        if (advance) {
+            operations.add(insert(TableEnum.CHAIN, LATEST_HEIGHT_KEY, heightKey));
+        }
+
+        if (!dataBase.dataTransaction(operations)) {
+            log.error("区块写入失败, height={}", height);
+            return false;
+        }
+        if (advance) {
+            latestHeight = height;
+        }
+        return true;
+    }
+
+    public Block getBlockByHash(byte[] hash) {
+        if (segments == null) {
+            return blocks.get(hash);
+        }
+        byte[] pointer = dataBase.get(TableEnum.BLOCK, hash);
+        return pointer == null ? null : readSegment(ByteUtils.bytesToLongBE(pointer, 0));
+    }
+
+    /**
+     * 按高度查询区块哈希，超过最新高度直接返回null（不访问数据库）
+     */
+    public byte[] getBlockHashByHeight(long height) {
+        if (height < 0 || height > getLatestHeight()) {
+            return null;
+        }
+        return heightIndex.get(height);
+    }
+
+    public Block getBlockByHeight(long height) {
+        if (segments != null) {
+            return height < 0 || height > getLatestHeight() ? null : readSegment(height);
+        }
+        byte[] hash = getBlockHashByHeight(height);
+        return hash == null ? null : blocks.get(hash);
+    }
+
+    /**
+     * 按高度读取序列化的区块记录，用于向其他节点同步区块
+     * 段文件模式下直接引用内存映射（零拷贝），否则包装数据库读出的字节数组
+     * @return null 表示该高度不存在
+     */
+    public ByteBuf getRawBlockByHeight(long height) {
+        if (height < 0 || height > getLatestHeight()) {
+            return null;
+        }
+        if (segments != null) {
+            return segments.sliceAsByteBuf(height);
+        }
+        byte[] hash = heightIndex.get(height);
+        byte[] raw = hash == null ? null : dataBase.get(TableEnum.BLOCK, hash);
+        return raw == null ? null : Unpooled.wrappedBuffer(raw);
+    }
+
+    /**
+     * 按高度区间 [fromHeight, toHeight) 顺序读取区块：先扫描高度索引，再 MultiGet 区块
+     */
+    public List<Block> getBlocksByHeightRange(long fromHeight, long toHeight, int limit) {
+        return loadBlocks(heightIndex.range(fromHeight, toHeight, limit));
+    }
+
+    private List<Block> loadBlocks(List<TypedTable.Entry<Long, byte[]>> entries) {
+        if (segments != null) {
+            List<Block> result = new ArrayList<>(entries.size());
+            for (TypedTable.Entry<Long, byte[]> entry : entries) {
+                result.add(readSegment(entry.getKey()));
+            }
+            return result;
+        }
+        List<byte[]> hashes = new ArrayList<>(entries.size());
+        for (TypedTable.Entry<Long, byte[]> entry : entries) {
+            hashes.add(entry.getValue());
+        }
+        return hashes.isEmpty() ? List.of() : blocks.getAll(hashes);
+    }
+
+    /**
+     * 查询交易所在位置
+     * @return null 表示交易不存在（或所在区块已被裁剪）
+     */
+    public TxLocation getTransactionLocation(byte[] txId) {
+        byte[] value = dataBase.get(TableEnum.TX_INDEX, txId);
+        if (value == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        return new TxLocation(buffer.getLong(), buffer.getInt());
+    }
+
+    public Transaction getTransaction(byte[] txId) {
+        TxLocation location = getTransactionLocation(txId);
+        if (location == null) {
+            return null;
+        }
+        Block block = getBlockByHeight(location.height());
+        if (block == null) {
+            return null;
+        }
+        List<Transaction> transactions = transactionsOf(block);
+        return location.index() < transactions.size() ? transactions.get(location.index()) : null;
+    }
+
+    /**
+     * 按插槽查询区块高度
+     * @return null 表示该插槽没有区块
+     */
+    public Long getHeightBySlot(long slot) {
+        byte[] value = dataBase.get(TableEnum.SLOT_INDEX, ByteUtils.longToBytesBE(slot));
+        return value == null ? null : ByteUtils.bytesToLongBE(value, 0);
+    }
+
+    /**
+     * @return 最新高度，-1 表示尚无区块
+     */
+    public long getLatestHeight() {
+        long height = latestHeight;
+        if (height != UNKNOWN_HEIGHT) {
+            return height;
+        }
+        synchronized (this) {
+            if (latestHeight == UNKNOWN_HEIGHT) {
+                byte[] value = dataBase.get(TableEnum.CHAIN, LATEST_HEIGHT_KEY);
+                latestHeight = value == null ? -1 : ByteUtils.bytesToLongBE(value, 0);
+            }
+            return latestHeight;
+        }
+    }
+
+    /**
+     * 删除高度 H 以下的区块及其索引
+     * 区块与交易索引的键是哈希，只能按高度索引分块找出后逐键删除；
+     * 高度索引与插槽索引的键有序，最后各做一次范围删除并回收空间。
+     * 中途失败可重复执行：已删除的区块在 MultiGet 中返回null，直接跳过
+     * @return 删除的区块数
+     */
+    public long pruneBelow(long height) {
+        long removed = 0;
+        long maxSlot = -1;
+        long from = 0;
+        while (from < height) {
+            List<TypedTable.Entry<Long, byte[]>> chunk = heightIndex.range(from, height, PRUNE_CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<byte[]> hashes = new ArrayList<>(chunk.size());
+            for (TypedTable.Entry<Long, byte[]> entry : chunk) {
+                hashes.add(entry.getValue());
+            }
+            List<byte[]> txIds = new ArrayList<>();
+            for (Block block : loadBlocks(chunk)) {
+                if (block == null) {
+                    continue;
+                }
+                maxSlot = Math.max(maxSlot, block.getSlot());
+                for (Transaction tx : transactionsOf(block)) {
+                    txIds.add(tx.getTxId());
+                }
+            }
+            if (!txIds.isEmpty()) {
+                dataBase.batchDelete(TableEnum.TX_INDEX, txIds.toArray(new byte[0][]));
+            }
+            dataBase.batchDelete(TableEnum.BLOCK, hashes.toArray(new byte[0][]));
+            removed += chunk.size();
+            from = chunk.get(chunk.size() - 1).getKey() + 1;
+        }
+
+        dataBase.batchDeleteRange(TableEnum.BLOCK_HEIGHT, new byte[8], ByteUtils.longToBytesBE(height), true);
+        if (maxSlot >= 0) {
+            dataBase.batchDeleteRange(TableEnum.SLOT_INDEX, new byte[8], ByteUtils.longToBytesBE(maxSlot + 1), true);
+        }
+        if (segments != null) {
+            // 段文件整段删除，最后一个段包含未裁剪高度时保留
+            segments.deleteBelow(height);
+        }
+        return removed;
+    }
+
+    private Block readSegment(long height) {
+        byte[] raw = segments.read(height);
+        return raw == null ? null : Block.deserialize(raw);
+    }
+
+    /**
+     * 区块中的交易列表（区块体或交易列表为空时返回空列表）
+     */
+    private static List<Transaction> transactionsOf(Block block) {
+        return block.getBody() == null || block.getBody().getTransactions() == null
+                ? List.of() : block.getBody().getTransactions();
+    }
+
+    private static RocksDb.DbOperation insert(TableEnum table, byte[] key, byte[] value) {
+        return new RocksDb.DbOperation(table, key, value, RocksDb.DbOperation.OpType.INSERT);
+    }
+
+    private static byte[] encodeLocation(long height, int index) {
+        return ByteBuffer.allocate(12).putLong(height).putInt(index).array();
+    }
+
+    /**
+     * 交易位置：所在区块高度 + 区块内序号
+     */
+    public record TxLocation(long height, int index) {
+    }
+}
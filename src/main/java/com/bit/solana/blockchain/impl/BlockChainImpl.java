@@ -1,7 +1,8 @@
 package com.bit.solana.blockchain.impl;
 
 import com.bit.solana.blockchain.BlockChain;
-import com.bit.solana.database.rocksDb.RocksDb;
+import com.bit.solana.blockchain.BlockStore;
+import com.bit.solana.common.Key32;
 import com.bit.solana.result.Result;
 import com.bit.solana.structure.block.Block;
 import com.bit.solana.structure.tx.Transaction;
@@ -11,6 +12,7 @@ import com.github.benmanes.caffeine.cache.RemovalListener;
 
 import com.google.common.hash.BloomFilter;
 import com.google.common.hash.Funnels;
+import io.netty.buffer.ByteBuf;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
@@ -27,7 +29,7 @@ import java.util.concurrent.TimeUnit;
 public class BlockChainImpl implements BlockChain {
 
     @Autowired
-    private RocksDb rocksDb;
+    private BlockStore blockStore;
 
     /**
      * 最新区块信息
@@ -43,7 +45,7 @@ public class BlockChainImpl implements BlockChain {
      * 区块缓存：hash → Block
      * 配置：最大200条，1小时过期（区块数据稳定，过期时间可加长）
      */
-    private LoadingCache<byte[], Block> blockByHashCache;
+    private LoadingCache<Key32, Block> blockByHashCache;
 
 
     /**
@@ -57,18 +59,18 @@ public class BlockChainImpl implements BlockChain {
      * 3. 交易缓存：txHash → Transaction
      *    配置：最大500条，10分钟过期（交易查询频率高，过期时间适中）
      */
-    private LoadingCache<byte[], Transaction> txByHashCache;
+    private LoadingCache<Key32, Transaction> txByHashCache;
 
     /**
      * 4. 分页索引缓存：查询条件（字符串Sha256）→ 区块高度列表（按高度排序）
      *    用于快速获取分页数据的高度索引，再通过高度查区块
      */
-    private Cache<byte[], List<Long>> blockPageIndexCache;
+    private Cache<Key32, List<Long>> blockPageIndexCache;
 
     /**
      * 交易分页查询
      */
-    private Cache<byte[], List<byte[]>> txPageIndexCache;
+    private Cache<Key32, List<byte[]>> txPageIndexCache;
 
 
     /**
@@ -81,22 +83,22 @@ public class BlockChainImpl implements BlockChain {
                 .maximumSize(200)  // 最大缓存
                 .expireAfterWrite(10, TimeUnit.MINUTES)  // 10分钟过期
                 .recordStats()  // 记录缓存统计（命中率等）
-                .removalListener((RemovalListener<byte[], Block>) (hash, block, cause) ->
+                .removalListener((RemovalListener<Key32, Block>) (hash, block, cause) ->
                         log.debug("Block cache removed: hash={}, cause={}", hash, cause)
                 )
-                .build(this::getBlockByHash);// 缓存未命中时从数据源加载
+                .build(hash -> blockStore.getBlockByHash(hash.toBytes()));// 缓存未命中时从数据源加载
 
         // 高度→哈希映射缓存
         heightToHashCache = Caffeine.newBuilder()
                 .maximumSize(10_000)
                 .expireAfterWrite(10, TimeUnit.MINUTES)
-                .build(this::getBlockHashByHeight);// 从数据源加载高度对应的哈希
+                .build(blockStore::getBlockHashByHeight);// 从数据源加载高度对应的哈希
 
         // 交易缓存（按txHash）
         txByHashCache = Caffeine.newBuilder()
                 .maximumSize(1000)
                 .expireAfterWrite(10, TimeUnit.MINUTES)
-                .build(this::getTransactionByTxHash);  // 从数据源加载交易
+                .build(txHash -> blockStore.getTransaction(txHash.toBytes()));  // 从数据源加载交易
 
         // 分页索引缓存（查询条件→高度列表）
         blockPageIndexCache = Caffeine.newBuilder()
@@ -114,39 +116,65 @@ public class BlockChainImpl implements BlockChain {
 
 
 
-    //数据源方法
+    //数据源方法（缓存未命中时由缓存加载器直接访问 BlockStore）
     @Override
     public Block getBlockByHash(byte[] hash) {
-        return null;
+        return blockByHashCache.get(Key32.of(hash));
     }
 
     @Override
     public byte[] getBlockHashByHeight(long height) {
-        //TODO
-        //这个高度不能超过最新的顶端 防止攻击
-
-
-        return null;
+        //这个高度不能超过最新的顶端 防止攻击（大量不存在的高度穿透缓存打到数据库）
+        if (height < 0 || height > blockStore.getLatestHeight()) {
+            return null;
+        }
+        return heightToHashCache.get(height);
     }
 
     @Override
     public Transaction getTransactionByTxHash(byte[] hash) {
-        return null;
+        return txByHashCache.get(Key32.of(hash));
     }
 
     @Override
-    public Result processBlock(Block block) {
+    public ByteBuf getRawBlockByHeight(long height) {
+        return blockStore.getRawBlockByHeight(height);
+    }
 
+    @Override
+    public Result processBlock(Block block) {
+        if (block == null || block.getBlockHash() == null) {
+            return Result.error("区块或区块哈希为空");
+        }
+        long expectedHeight = blockStore.getLatestHeight() + 1;
+        if (block.getHeight() != expectedHeight) {
+            return Result.error("区块高度不连续，期望" + expectedHeight + "，实际" + block.getHeight());
+        }
+        if (!blockStore.saveBlock(block)) {
+            return Result.error("区块持久化失败");
+        }
+        byte[] hash = block.getBlockHash().getValue();
+        blockByHashCache.put(Key32.of(hash), block);
+        heightToHashCache.put(block.getHeight(), hash);
+        lastBlock = block;
         return Result.OK();
     }
 
     /**
-     * 全局静态变量
+     * 全局静态变量，重启后第一次访问时从存储加载
      * @return
      */
     @Override
     public Block getLatestBlock() {
-        return null;
+        Block block = lastBlock;
+        if (block == null) {
+            long latestHeight = blockStore.getLatestHeight();
+            if (latestHeight >= 0) {
+                block = blockStore.getBlockByHeight(latestHeight);
+                lastBlock = block;
+            }
+        }
+        return block;
     }
 
     @Override
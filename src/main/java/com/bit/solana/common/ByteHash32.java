@@ -1,26 +1,37 @@
 package com.bit.solana.common;
 
-import lombok.*;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
 /**
  * Solana中32字节哈希的通用基类，封装共同逻辑（长度校验、不可变性、转换方法等）
  * 具体哈希类型（如区块哈希、状态根）应继承此类
+ *
+ * 内部数组只在构造时拷贝一次，之后从不外泄，因此热路径上的读取都不需要再拷贝：
+ * writeTo / byteAt / toByteString / toKey / compareTo / equals / hashCode 均不分配数组；
+ * getValue / getBytes / toBytes 为兼容保留，仍返回拷贝（调用方可能修改返回的数组）。
+ * 十六进制字符串在第一次调用 toHex / toString 时才生成。
  */
-@EqualsAndHashCode(of = "value")
-@ToString(of = "hexValue")
-@Data
-public abstract class ByteHash32 implements Serializable {
+public abstract class ByteHash32 implements Comparable<ByteHash32>, Serializable {
     public static final int HASH_LENGTH = 32;
     private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
 
     // 存储32字节哈希数据（私有且不可变）
-    private byte[] value;
-    // 缓存十六进制字符串（避免重复计算）
-    @Getter(AccessLevel.PROTECTED)
-    private final String hexValue;
+    private final byte[] value;
+    // 哈希值（4个long混合，构造时计算）
+    private final int hash;
+    // 缓存十六进制字符串（首次使用时生成）
+    private transient volatile String hexValue;
 
     /**
      * 构造方法，由子类调用，强制校验长度
@@ -36,7 +47,7 @@ public abstract class ByteHash32 implements Serializable {
             throw new IllegalArgumentException("Hash must be " + HASH_LENGTH + " bytes, got " + value.length);
         }
         this.value = Arrays.copyOf(value, HASH_LENGTH); // 防御性拷贝
-        this.hexValue = toHexInternal(this.value); // 初始化时计算并缓存十六进制
+        this.hash = mix(this.value);
     }
 
     /**
@@ -54,34 +65,131 @@ public abstract class ByteHash32 implements Serializable {
     }
 
     /**
-     * 转换为十六进制字符串（使用缓存值，提升性能）
+     * 获取原始字节数组（返回拷贝，确保不可变性）
+     * 与getValue()方法功能一致，提供统一的字节数组获取接口
+     */
+    public byte[] getBytes() {
+        return Arrays.copyOf(value, HASH_LENGTH);
+    }
+
+    /**
+     * 转换为原始字节数组（返回拷贝，确保不可变性）
+     * 与getValue()、getBytes()方法功能一致，提供多样化的接口选择
+     */
+    public byte[] toBytes() {
+        return Arrays.copyOf(value, HASH_LENGTH);
+    }
+
+    /**
+     * 第 index 个字节
+     */
+    public byte byteAt(int index) {
+        return value[index];
+    }
+
+    /**
+     * 写入缓冲区当前位置（推进 position），不分配中间数组
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(value);
+    }
+
+    public void writeTo(byte[] dst, int offset) {
+        System.arraycopy(value, 0, dst, offset, HASH_LENGTH);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(value);
+    }
+
+    /**
+     * 包装为 protobuf ByteString（共享内部数组，不拷贝；内部数组不可变，共享是安全的）
+     */
+    public ByteString toByteString() {
+        return UnsafeByteOperations.unsafeWrap(value);
+    }
+
+    /**
+     * 转换为 Key32（读取4个long，不拷贝数组）
+     */
+    public Key32 toKey() {
+        return Key32.of(value, 0);
+    }
+
+    /**
+     * 与字节数组内容比较，不创建新对象
+     */
+    public boolean contentEquals(byte[] bytes) {
+        return bytes != null && bytes.length == HASH_LENGTH
+                && word(value, 0) == word(bytes, 0)
+                && word(value, 8) == word(bytes, 8)
+                && word(value, 16) == word(bytes, 16)
+                && word(value, 24) == word(bytes, 24);
+    }
+
+    /**
+     * 转换为十六进制字符串（首次调用时生成并缓存）
      */
     public String toHex() {
-        return hexValue;
+        String hex = hexValue;
+        if (hex == null) {
+            hex = toHexInternal(value);
+            hexValue = hex;
+        }
+        return hex;
     }
 
     /**
      * 判断是否为零哈希（全0字节）
      */
     public boolean isZero() {
-        for (byte b : value) {
-            if (b != 0) {
-                return false;
-            }
+        return (word(value, 0) | word(value, 8) | word(value, 16) | word(value, 24)) == 0;
+    }
+
+    /**
+     * 同类型且内容相同即相等（按4个long比较）
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || o.getClass() != getClass()) {
+            return false;
         }
-        return true;
+        ByteHash32 other = (ByteHash32) o;
+        return hash == other.hash && contentEquals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
     }
 
     /**
-     * 内部方法：字节数组转十六进制字符串
+     * 按无符号字节逐位比较（与 RocksDB 默认键序一致）
      */
-    private String toHexInternal(byte[] bytes) {
-        StringBuilder sb = new StringBuilder(HASH_LENGTH * 2);
-        for (byte b : bytes) {
-            sb.append(HEX_CHARS[(b >>> 4) & 0x0F]);
-            sb.append(HEX_CHARS[b & 0x0F]);
+    @Override
+    public int compareTo(ByteHash32 o) {
+        for (int offset = 0; offset < HASH_LENGTH; offset += 8) {
+            int c = Long.compareUnsigned(word(value, offset), word(o.value, offset));
+            if (c != 0) {
+                return c;
+            }
         }
-        return sb.toString();
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + toHex() + ")";
+    }
+
+    /**
+     * 内部数组（仅供同包的 Key32 / HashInterner 读取，不得修改）
+     */
+    byte[] array() {
+        return value;
     }
 
     /**
@@ -103,27 +211,26 @@ public abstract class ByteHash32 implements Serializable {
         return bytes;
     }
 
-
     /**
-     * 获取原始字节数组（返回拷贝，确保不可变性）
-     * 与getValue()方法功能一致，提供统一的字节数组获取接口
+     * 内部方法：字节数组转十六进制字符串
      */
-    public byte[] getBytes() {
-        return Arrays.copyOf(value, HASH_LENGTH);
+    private static String toHexInternal(byte[] bytes) {
+        char[] chars = new char[HASH_LENGTH * 2];
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            chars[i * 2] = HEX_CHARS[(bytes[i] >>> 4) & 0x0F];
+            chars[i * 2 + 1] = HEX_CHARS[bytes[i] & 0x0F];
+        }
+        return new String(chars);
     }
 
-    public void setValue(byte[] hash) {
-        if (hash == null || hash.length != HASH_LENGTH) {
-            throw new IllegalArgumentException("Hash must be " + HASH_LENGTH + " bytes, got " + hash.length);
-        }
-        this.value = hash;
+    static long word(byte[] bytes, int offset) {
+        return (long) LONG_BE.get(bytes, offset);
     }
 
     /**
-     * 转换为原始字节数组（返回拷贝，确保不可变性）
-     * 与getValue()、getBytes()方法功能一致，提供多样化的接口选择
+     * 与 Key32 相同的混合方式，同一内容的 ByteHash32 与 Key32 哈希值一致
      */
-    public byte[] toBytes() {
-        return Arrays.copyOf(value, HASH_LENGTH);
+    static int mix(byte[] bytes) {
+        return Key32.mix(word(bytes, 0), word(bytes, 8), word(bytes, 16), word(bytes, 24));
     }
 }
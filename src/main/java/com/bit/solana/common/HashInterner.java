@@ -0,0 +1,71 @@
+package com.bit.solana.common;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 32字节哈希驻留表：热点公钥（系统程序、手续费账户、热门合约）反复出现在每笔交易中，
+ * 驻留后同一内容只保留一个实例，命中时不分配任何对象
+ *
+ * 直接映射、有损：按哈希值定位到唯一槽位，槽位被其他内容占用时直接覆盖（只缓存热点，不会无限增长）；
+ * 无锁：实例不可变，槽位读写为原子引用操作，并发下最坏情况只是多创建一个实例
+ */
+public class HashInterner<H extends ByteHash32> {
+
+    private final AtomicReferenceArray<H> slots;
+    private final int mask;
+    private final Function<byte[], H> factory;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity 槽位数（向上取2的幂）
+     * @param factory 未命中时创建实例
+     */
+    public HashInterner(int capacity, Function<byte[], H> factory) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.factory = factory;
+    }
+
+    public H intern(byte[] bytes) {
+        if (bytes == null || bytes.length != ByteHash32.HASH_LENGTH) {
+            return factory.apply(bytes);
+        }
+        int index = ByteHash32.mix(bytes) & mask;
+        H cached = slots.get(index);
+        if (cached != null && cached.contentEquals(bytes)) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        H created = factory.apply(bytes);
+        slots.set(index, created);
+        return created;
+    }
+
+    /**
+     * 驻留已有实例（返回驻留表中的等值实例或其本身）
+     */
+    public H intern(H hash) {
+        int index = hash.hashCode() & mask;
+        H cached = slots.get(index);
+        if (cached != null && cached.equals(hash)) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        slots.set(index, hash);
+        return hash;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
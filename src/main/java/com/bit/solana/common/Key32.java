@@ -0,0 +1,176 @@
+package com.bit.solana.common;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 32字节键（交易ID、账户公钥、区块哈希、节点ID）
+ * 以4个long保存，构造时读入后不再引用原数组（无需防御性拷贝），哈希值预先计算；
+ * 按内容判等，可直接作为 HashMap / ConcurrentHashMap / Caffeine 的键（byte[] 按引用判等，内容相同的数组查不到）
+ * 比较顺序与按无符号字节逐位比较一致
+ */
+public final class Key32 implements Comparable<Key32> {
+    public static final int LENGTH = 32;
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final long w0;
+    private final long w1;
+    private final long w2;
+    private final long w3;
+    private final int hash;
+
+    private Key32(long w0, long w1, long w2, long w3) {
+        this.w0 = w0;
+        this.w1 = w1;
+        this.w2 = w2;
+        this.w3 = w3;
+        this.hash = mix(w0, w1, w2, w3);
+    }
+
+    public static Key32 of(byte[] bytes) {
+        if (bytes == null || bytes.length != LENGTH) {
+            throw new IllegalArgumentException("Key must be " + LENGTH + " bytes, got " + (bytes == null ? "null" : bytes.length));
+        }
+        return of(bytes, 0);
+    }
+
+    /**
+     * 从数组的 offset 处读取32字节
+     */
+    public static Key32 of(byte[] bytes, int offset) {
+        return new Key32(
+                (long) LONG_BE.get(bytes, offset),
+                (long) LONG_BE.get(bytes, offset + 8),
+                (long) LONG_BE.get(bytes, offset + 16),
+                (long) LONG_BE.get(bytes, offset + 24));
+    }
+
+    public static Key32 of(ByteHash32 hash) {
+        return hash.toKey();
+    }
+
+    /**
+     * 从缓冲区当前位置读取32字节（推进 position）
+     */
+    public static Key32 read(ByteBuffer buffer) {
+        ByteBuffer view = buffer.order() == ByteOrder.BIG_ENDIAN ? buffer : buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        Key32 key = new Key32(view.getLong(), view.getLong(), view.getLong(), view.getLong());
+        if (view != buffer) {
+            buffer.position(view.position());
+        }
+        return key;
+    }
+
+    /**
+     * 第 index 个8字节（大端）
+     */
+    public long word(int index) {
+        return switch (index) {
+            case 0 -> w0;
+            case 1 -> w1;
+            case 2 -> w2;
+            case 3 -> w3;
+            default -> throw new IndexOutOfBoundsException(index);
+        };
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[LENGTH];
+        writeTo(bytes, 0);
+        return bytes;
+    }
+
+    public void writeTo(byte[] dst, int offset) {
+        LONG_BE.set(dst, offset, w0);
+        LONG_BE.set(dst, offset + 8, w1);
+        LONG_BE.set(dst, offset + 16, w2);
+        LONG_BE.set(dst, offset + 24, w3);
+    }
+
+    /**
+     * 写入缓冲区当前位置（推进 position）
+     */
+    public void writeTo(ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.BIG_ENDIAN).putLong(w0).putLong(w1).putLong(w2).putLong(w3).order(order);
+    }
+
+    /**
+     * 与字节数组内容比较，不创建新对象
+     */
+    public boolean contentEquals(byte[] bytes) {
+        return bytes != null && bytes.length == LENGTH
+                && (long) LONG_BE.get(bytes, 0) == w0
+                && (long) LONG_BE.get(bytes, 8) == w1
+                && (long) LONG_BE.get(bytes, 16) == w2
+                && (long) LONG_BE.get(bytes, 24) == w3;
+    }
+
+    public String toHex() {
+        char[] chars = new char[LENGTH * 2];
+        appendHex(chars, 0, w0);
+        appendHex(chars, 16, w1);
+        appendHex(chars, 32, w2);
+        appendHex(chars, 48, w3);
+        return new String(chars);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Key32 other)) {
+            return false;
+        }
+        return hash == other.hash && w0 == other.w0 && w1 == other.w1 && w2 == other.w2 && w3 == other.w3;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public int compareTo(Key32 o) {
+        int c = Long.compareUnsigned(w0, o.w0);
+        if (c != 0) {
+            return c;
+        }
+        c = Long.compareUnsigned(w1, o.w1);
+        if (c != 0) {
+            return c;
+        }
+        c = Long.compareUnsigned(w2, o.w2);
+        return c != 0 ? c : Long.compareUnsigned(w3, o.w3);
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+
+    /**
+     * 混合全部32字节：公钥可被刻意构造，不能只取前8字节作为哈希
+     */
+    static int mix(long w0, long w1, long w2, long w3) {
+        long h = w0 * 0x9E3779B97F4A7C15L;
+        h = (h ^ w1) * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ w2) * 0x165667B19E3779F9L;
+        h = (h ^ w3) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h ^ (int) (h >>> 32);
+    }
+
+    private static void appendHex(char[] chars, int offset, long word) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = HEX_CHARS[(int) (word & 0xF)];
+            word >>>= 4;
+        }
+    }
+}
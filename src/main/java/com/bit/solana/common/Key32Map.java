@@ -0,0 +1,237 @@
+package com.bit.solana.common;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Key32 专用开放寻址哈希表（线性探测，删除时后移补位，不留墓碑）
+ * 键值分别存放在两个数组中，没有 HashMap.Node 的逐条目对象，命中时只比较预先计算的哈希和4个long
+ * 非线程安全：并发场景由调用方加锁（如交易池分片锁），或改用 ConcurrentHashMap<Key32, V>
+ */
+public class Key32Map<V> {
+    private static final int MIN_CAPACITY = 16;
+
+    private Key32[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    public Key32Map() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize 预计条目数（负载因子0.5，容量取 2*expectedSize 向上的2的幂）
+     */
+    public Key32Map(int expectedSize) {
+        int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize * 2 - 1)) << 1);
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Key32 key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    public boolean containsKey(Key32 key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @return 原值（不存在返回null）
+     */
+    @SuppressWarnings("unchecked")
+    public V put(Key32 key, V value) {
+        int index = slot(key);
+        while (keys[index] != null) {
+            if (keys[index].equals(key)) {
+                V old = (V) values[index];
+                values[index] = value;
+                return old;
+            }
+            index = (index + 1) & mask;
+        }
+        insertAt(index, key, value);
+        return null;
+    }
+
+    /**
+     * @return 已存在时返回原值（不覆盖），否则写入并返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(Key32 key, V value) {
+        int index = slot(key);
+        while (keys[index] != null) {
+            if (keys[index].equals(key)) {
+                return (V) values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        insertAt(index, key, value);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(Key32 key, Function<? super Key32, ? extends V> factory) {
+        int index = slot(key);
+        while (keys[index] != null) {
+            if (keys[index].equals(key)) {
+                return (V) values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        V value = factory.apply(key);
+        if (value != null) {
+            insertAt(index, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * @return 被删除的值（不存在返回null）
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Key32 key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V old = (V) values[index];
+        deleteAt(index);
+        return old;
+    }
+
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super Key32, ? super V> action) {
+        Key32[] k = keys;
+        Object[] v = values;
+        for (int i = 0; i < k.length; i++) {
+            if (k[i] != null) {
+                action.accept(k[i], (V) v[i]);
+            }
+        }
+    }
+
+    /**
+     * 值视图（遍历期间不可修改本表）
+     */
+    public Iterable<V> values() {
+        return () -> new Iterator<>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < keys.length && keys[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < keys.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if (next >= keys.length) {
+                    throw new NoSuchElementException();
+                }
+                V value = (V) values[next];
+                next = advance(next + 1);
+                return value;
+            }
+        };
+    }
+
+    private int indexOf(Key32 key) {
+        int index = slot(key);
+        Key32 current;
+        while ((current = keys[index]) != null) {
+            if (current.equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(Key32 key) {
+        return key.hashCode() & mask;
+    }
+
+    private void insertAt(int index, Key32 key, Object value) {
+        keys[index] = key;
+        values[index] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * 删除后把同一探测链上后续的键前移，保证查找遇到空槽即可停止
+     */
+    private void deleteAt(int index) {
+        int hole = index;
+        int next = (hole + 1) & mask;
+        Key32 key;
+        while ((key = keys[next]) != null) {
+            int home = slot(key);
+            // home 不在 (hole, next] 区间内（环形），说明该键可以前移到 hole
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                keys[hole] = key;
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = null;
+        values[hole] = null;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        Key32[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            Key32 key = oldKeys[i];
+            if (key != null) {
+                int index = slot(key);
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new Key32[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+}
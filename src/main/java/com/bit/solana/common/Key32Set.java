@@ -0,0 +1,52 @@
+package com.bit.solana.common;
+
+import java.util.function.Consumer;
+
+/**
+ * Key32 专用开放寻址集合（基于 Key32Map，值统一为占位对象）
+ * 非线程安全
+ */
+public class Key32Set {
+    private static final Object PRESENT = new Object();
+
+    private final Key32Map<Object> map;
+
+    public Key32Set() {
+        this.map = new Key32Map<>();
+    }
+
+    public Key32Set(int expectedSize) {
+        this.map = new Key32Map<>(expectedSize);
+    }
+
+    /**
+     * @return 原先不存在返回true
+     */
+    public boolean add(Key32 key) {
+        return map.putIfAbsent(key, PRESENT) == null;
+    }
+
+    public boolean contains(Key32 key) {
+        return map.containsKey(key);
+    }
+
+    public boolean remove(Key32 key) {
+        return map.remove(key) != null;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    public void forEach(Consumer<? super Key32> action) {
+        map.forEach((key, value) -> action.accept(key));
+    }
+}
@@ -0,0 +1,164 @@
+package com.bit.solana.common;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 多生产者单消费者无锁环形队列（Disruptor 式）
+ * 槽位预先分配，容量为2的幂；生产者 CAS 抢占序号后写入槽位，再发布该槽位的序号；
+ * 消费者按序号顺序读取已发布的槽位，批量取出后一次性推进消费序号。
+ * 队列满时 offer 直接返回false（不阻塞生产者），由调用方决定丢弃或让客户端重试。
+ *
+ * 只允许一个线程调用 drain / await
+ */
+public class MpscRingBuffer<E> {
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle ENTRIES = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final long PARK_NANOS_MAX = 1_000_000;
+
+    private final Object[] entries;
+    // 槽位当前已发布的序号（未发布为 -1），消费者据此判断槽位是否可读
+    private final long[] published;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+
+    // 下一个待抢占的序号
+    private final AtomicLong claimed = new AtomicLong();
+    // 下一个待消费的序号（仅消费者写）
+    private volatile long consumed;
+    // 生产者缓存的消费序号，减少对 consumed 的读取
+    private volatile long consumedCache;
+    // PARK 策略下消费者是否挂起
+    private volatile boolean consumerWaiting;
+    private volatile Thread consumerThread;
+
+    /**
+     * @param capacity 槽位数（向上取2的幂）
+     */
+    public MpscRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.entries = new Object[size];
+        this.published = new long[size];
+        Arrays.fill(published, -1L);
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy == null ? WaitStrategy.PARK : waitStrategy;
+    }
+
+    /**
+     * 写入一个元素
+     * @return 队列已满返回false
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        int capacity = entries.length;
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - capacity >= consumedCache) {
+                long current = consumed;
+                consumedCache = current;
+                if (sequence - capacity >= current) {
+                    return false;
+                }
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) sequence & mask;
+        ENTRIES.setRelease(entries, index, element);
+        PUBLISHED.setRelease(published, index, sequence);
+        if (consumerWaiting) {
+            LockSupport.unpark(consumerThread);
+        }
+        return true;
+    }
+
+    /**
+     * 批量取出已发布的元素（按写入顺序），遇到尚未发布的槽位即停止
+     * @return 取出的数量
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> handler, int maxBatch) {
+        long next = consumed;
+        int count = 0;
+        try {
+            while (count < maxBatch) {
+                int index = (int) next & mask;
+                if ((long) PUBLISHED.getAcquire(published, index) != next) {
+                    break;
+                }
+                E element = (E) ENTRIES.getAcquire(entries, index);
+                ENTRIES.setRelease(entries, index, null);
+                next++;
+                count++;
+                handler.accept(element);
+            }
+        } finally {
+            if (count > 0) {
+                consumed = next;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 队列为空时按等待策略等待新元素
+     * @param timeoutNanos 最长等待时间
+     * @return 是否有可读元素
+     */
+    public boolean await(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (!hasPublished()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            switch (waitStrategy) {
+                case BUSY_SPIN -> Thread.onSpinWait();
+                case YIELD -> Thread.yield();
+                case PARK -> {
+                    consumerThread = Thread.currentThread();
+                    consumerWaiting = true;
+                    // 设置标志后再检查一次，避免错过生产者在此之前的发布
+                    if (!hasPublished()) {
+                        LockSupport.parkNanos(this, Math.min(remaining, PARK_NANOS_MAX));
+                    }
+                    consumerWaiting = false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 唤醒挂起的消费者（关闭时使用）
+     */
+    public void wakeup() {
+        Thread thread = consumerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * 已抢占但尚未消费的数量（近似值）
+     */
+    public int size() {
+        long size = claimed.get() - consumed;
+        return (int) Math.max(0, Math.min(size, entries.length));
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    private boolean hasPublished() {
+        long next = consumed;
+        return (long) PUBLISHED.getAcquire(published, (int) next & mask) == next;
+    }
+}
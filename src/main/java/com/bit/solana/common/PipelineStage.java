@@ -0,0 +1,213 @@
+package com.bit.solana.common;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * 流水线阶段：有界队列 + 固定数量工作线程，每个线程一次取出一批（不超过 batchSize）交给处理函数
+ * 入口用 offer（队列满立即返回 false，由调用方返回繁忙），阶段之间用 put（下游队列满时上游阻塞，形成背压）
+ * 统计队列深度、每项排队延迟、每批处理耗时与线程忙碌时间，排队延迟持续上升的阶段即为瓶颈
+ * @param <T> 流经的任务类型
+ */
+@Slf4j
+public class PipelineStage<T> {
+    /**
+     * 批处理函数：抛出异常时该批中的每一项交给 onFailure
+     * 处理过程中会把项转交下游的处理函数应自行处理异常，只结束尚未转交的项，不要抛出
+     */
+    @FunctionalInterface
+    public interface BatchHandler<T> {
+        void handle(List<T> batch) throws Exception;
+    }
+
+    // 队列为空时单次等待上限（用于及时响应停止）
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final String name;
+    private final int threads;
+    private final int batchSize;
+    private final ArrayBlockingQueue<Entry<T>> queue;
+    private final BatchHandler<T> handler;
+    private final BiConsumer<T, Exception> onFailure;
+
+    // 入队 -> 被工作线程取出
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+    // 每批处理耗时
+    private final LatencyHistogram batchLatency = new LatencyHistogram();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+    private volatile long startNanos;
+
+    public PipelineStage(String name, int threads, int batchSize, int queueSize,
+                         BatchHandler<T> handler, BiConsumer<T, Exception> onFailure) {
+        if (threads <= 0 || batchSize <= 0 || queueSize <= 0) {
+            throw new IllegalArgumentException("流水线阶段参数无效: " + name);
+        }
+        this.name = name;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.handler = handler;
+        this.onFailure = onFailure;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        startNanos = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::runWorker, name + "-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * 停止工作线程，队列中剩余的任务交给 onFailure
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+        List<Entry<T>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        Exception closed = new IllegalStateException(name + " 已停止");
+        for (Entry<T> entry : remaining) {
+            onFailure.accept(entry.item, closed);
+        }
+    }
+
+    /**
+     * 非阻塞入队
+     * @return 队列已满或已停止返回 false
+     */
+    public boolean offer(T item) {
+        return running && queue.offer(new Entry<>(item, System.nanoTime()));
+    }
+
+    /**
+     * 阻塞入队（队列满时等待下游消费）
+     */
+    public void put(T item) throws InterruptedException {
+        if (!running) {
+            throw new IllegalStateException(name + " 已停止");
+        }
+        queue.put(new Entry<>(item, System.nanoTime()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public LatencyHistogram getQueueLatency() {
+        return queueLatency;
+    }
+
+    public LatencyHistogram getBatchLatency() {
+        return batchLatency;
+    }
+
+    /**
+     * 线程利用率：累计忙碌时间 / (运行时间 * 线程数)，接近1说明该阶段线程已饱和
+     */
+    public double getUtilization() {
+        long elapsed = System.nanoTime() - startNanos;
+        return !running || elapsed <= 0 ? 0 : (double) busyNanos.sum() / elapsed / threads;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long batchCount = batches.sum();
+        stats.put("threads", threads);
+        stats.put("batchSize", batchSize);
+        stats.put("queueDepth", getQueueDepth());
+        stats.put("queueCapacity", getQueueCapacity());
+        stats.put("processed", processed.sum());
+        stats.put("batches", batchCount);
+        stats.put("avgBatchSize", batchCount == 0 ? 0 : (double) processed.sum() / batchCount);
+        stats.put("utilization", getUtilization());
+        stats.put("queueWait", queueLatency.snapshot());
+        stats.put("batchTime", batchLatency.snapshot());
+        return stats;
+    }
+
+    private void runWorker() {
+        List<Entry<T>> entries = new ArrayList<>(batchSize);
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running) {
+            Entry<T> first;
+            try {
+                first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first == null) {
+                continue;
+            }
+            entries.add(first);
+            queue.drainTo(entries, batchSize - 1);
+
+            long start = System.nanoTime();
+            for (Entry<T> entry : entries) {
+                queueLatency.record(start - entry.enqueuedAt);
+                batch.add(entry.item);
+            }
+            try {
+                handler.handle(batch);
+            } catch (Exception e) {
+                if (running) {
+                    log.error("流水线阶段 {} 处理失败，本批 {} 项", name, batch.size(), e);
+                }
+                for (T item : batch) {
+                    onFailure.accept(item, e);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            batchLatency.record(elapsed);
+            busyNanos.add(elapsed);
+            processed.add(batch.size());
+            batches.increment();
+            entries.clear();
+            batch.clear();
+        }
+    }
+
+    private record Entry<T>(T item, long enqueuedAt) {
+    }
+}
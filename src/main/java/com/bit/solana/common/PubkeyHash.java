@@ -3,6 +3,8 @@ package com.bit.solana.common;
 public class PubkeyHash extends ByteHash32 {
     // PoH哈希的零值常量（如初始时序状态的哈希）
     public static final PubkeyHash ZERO = new PubkeyHash(new byte[HASH_LENGTH]);
+    // 热点公钥驻留表（约6.5万槽位）
+    private static final HashInterner<PubkeyHash> INTERNER = new HashInterner<>(1 << 16, PubkeyHash::new);
 
     public PubkeyHash(byte[] value) {
         super(value); // 复用基类的长度校验和不可变性保证
@@ -17,6 +19,13 @@ public class PubkeyHash extends ByteHash32 {
         return new PubkeyHash(bytes);
     }
 
+    /**
+     * 从字节数组获取驻留实例：热点公钥命中时不分配对象，且同一公钥共享同一实例
+     */
+    public static PubkeyHash intern(byte[] bytes) {
+        return INTERNER.intern(bytes);
+    }
+
     /**
      * 从十六进制字符串创建PoHHash实例
      * @param hex 64位十六进制字符串（大小写均可）
@@ -0,0 +1,121 @@
+package com.bit.solana.common;
+
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮（到期清理用）
+ * 4层 × 64槽，第0层每槽一个 tick，第 n 层每槽 64^n 个 tick；到期时间较远的元素先放在高层，
+ * 高层槽位轮到时再逐层下放，最终在第0层对应的槽位到期。
+ * 每个 tick 只处理当前到期的槽位（以及轮到的高层槽位），与时间轮中的元素总数无关；
+ * 超出最高层范围的元素放在最高层，轮到时重新计算位置。
+ *
+ * 时间轮不负责删除：元素被提前移出业务集合时不需要通知时间轮，到期回调时由调用方判断元素是否仍然有效
+ * 非线程安全，由调用方加锁
+ */
+public class TimingWheel<E> {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMs;
+    // buckets[层][槽] 为单链表头
+    private final Entry<E>[][] buckets;
+    // 已处理到的 tick
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, long startMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive");
+        }
+        this.tickMs = tickMs;
+        this.buckets = new Entry[LEVELS][WHEEL_SIZE];
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * 加入一个元素，在不早于 deadlineMs 的第一个 tick 到期（已过期的元素在下一个 tick 到期）
+     */
+    public void schedule(E element, long deadlineMs) {
+        long deadlineTick = Math.max(Math.floorDiv(deadlineMs + tickMs - 1, tickMs), currentTick + 1);
+        place(new Entry<>(element, deadlineTick));
+        size++;
+    }
+
+    /**
+     * 推进到 nowMs，依次处理经过的每个 tick
+     * @param onExpire 到期回调
+     * @return 到期的元素数量
+     */
+    public int advance(long nowMs, Consumer<? super E> onExpire) {
+        long targetTick = nowMs / tickMs;
+        int expired = 0;
+        while (currentTick < targetTick) {
+            long tick = ++currentTick;
+            // 高层槽位轮到时先下放（从高到低，下放的元素可能落入本 tick 的第0层槽位）
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((tick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) (tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+                }
+            }
+            int slot = (int) tick & WHEEL_MASK;
+            Entry<E> entry = buckets[0][slot];
+            buckets[0][slot] = null;
+            while (entry != null) {
+                Entry<E> next = entry.next;
+                if (entry.deadlineTick <= tick) {
+                    size--;
+                    expired++;
+                    onExpire.accept(entry.element);
+                } else {
+                    // 一圈之后才到期（只会出现在超出范围后被放回的情况）
+                    place(entry);
+                }
+                entry = next;
+            }
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    private void cascade(int level, int slot) {
+        Entry<E> entry = buckets[level][slot];
+        buckets[level][slot] = null;
+        while (entry != null) {
+            Entry<E> next = entry.next;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private void place(Entry<E> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) (entry.deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+        entry.next = buckets[level][slot];
+        buckets[level][slot] = entry;
+    }
+
+    private static final class Entry<E> {
+        final E element;
+        final long deadlineTick;
+        Entry<E> next;
+
+        Entry(E element, long deadlineTick) {
+            this.element = element;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
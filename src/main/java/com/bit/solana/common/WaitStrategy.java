@@ -0,0 +1,12 @@
+package com.bit.solana.common;
+
+/**
+ * 环形队列消费者空闲时的等待方式
+ * BUSY_SPIN 延迟最低但独占一个CPU核心；YIELD 让出时间片，延迟与占用折中；
+ * PARK 挂起线程，生产者写入后唤醒，CPU占用最低（默认）
+ */
+public enum WaitStrategy {
+    BUSY_SPIN,
+    YIELD,
+    PARK
+}
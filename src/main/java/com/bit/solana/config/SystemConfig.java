@@ -1,6 +1,12 @@
 package com.bit.solana.config;
 
+import com.bit.solana.common.WaitStrategy;
 import com.bit.solana.database.DataBase;
+import com.bit.solana.database.ledger.BlockStorageMode;
+import com.bit.solana.database.rocksDb.ColumnFamilyProfile;
+import com.bit.solana.database.rocksDb.ConcurrencyMode;
+import com.bit.solana.database.rocksDb.DurabilityPolicy;
+import com.bit.solana.txpool.VerifyStageProfile;
 import jakarta.annotation.PostConstruct;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +16,7 @@ import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Data
@@ -25,6 +32,23 @@ public class SystemConfig {
     private Boolean isStun;
     private Integer stunPort;
     private List<String> stunAddress;
+    private ConcurrencyMode dbConcurrencyMode;//数据库并发模式 GLOBAL_LOCK / LIFECYCLE_GATE（默认）
+    private Integer dbBlockCacheSize;//RocksDB所有列族共享的块缓存大小 MB
+    private Map<String, ColumnFamilyProfile> tableProfiles;//列族名 -> 调优配置覆盖（为空字段沿用TableEnum默认值）
+    private DurabilityPolicy dbDurability;//写入持久化策略 SYNC_EACH_WRITE / PERIODIC_FSYNC（默认） / NO_WAL
+    private Long dbFsyncIntervalMs;//PERIODIC_FSYNC 刷盘周期 毫秒
+    private List<String> dbNoWalTables;//可重建的表（列族名），写入不记WAL
+    private Boolean dbGroupCommit;//是否开启组提交
+    private Long dbGroupCommitWindowMicros;//组提交刷盘窗口 微秒
+    private Long dbCompactionRateLimitMb;//刷盘/压缩写入限速 MB/s（0 表示不限速）
+    private Long dbCompactionPendingThresholdMb;//待压缩数据超过该值时触发后台压缩 MB
+    private Long dbCompactionCheckIntervalSec;//后台压缩检查周期 秒（0 表示只执行手动压缩）
+    private BlockStorageMode blockStorage;//区块记录存储方式 ROCKSDB（默认） / SEGMENT（账本段文件）
+    private Long ledgerSegmentSizeMb;//账本段文件大小 MB
+    private Boolean ledgerFsync;//账本段文件每次追加后是否刷盘
+    private Integer submitQueueSize;//交易提交队列槽位数（2的幂）
+    private WaitStrategy submitWaitStrategy;//提交队列写入线程等待方式 BUSY_SPIN / YIELD / PARK（默认）
+    private Map<String, VerifyStageProfile> verifyStages;//交易验证流水线阶段名 -> 线程数/批大小/队列长度覆盖
 
 
     @Autowired
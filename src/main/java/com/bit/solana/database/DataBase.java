@@ -1,11 +1,17 @@
 package com.bit.solana.database;
 
 import com.bit.solana.config.SystemConfig;
+import com.bit.solana.database.rocksDb.CountMode;
 import com.bit.solana.database.rocksDb.PageResult;
 import com.bit.solana.database.rocksDb.RocksDb;
 import com.bit.solana.database.rocksDb.TableEnum;
+import com.bit.solana.monitor.impl.dto.DbMetrics;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 //KV数据库操作 自带内存缓存 自定义缓存大小
 public interface DataBase {
@@ -67,20 +73,67 @@ public interface DataBase {
     byte[] get(TableEnum table,byte[] key);
 
     /**
-     * 数据数量
+     * 数据数量（按表的默认统计方式，等同 count(table, table.getCountMode())）
      * @param table
      * @return
      */
     int count(TableEnum table);
 
+    /**
+     * 按指定方式统计数据数量
+     * @param table 表名
+     * @param mode ESTIMATED 估算 O(1) / EXACT 精确计数器 O(1) / SCAN 全表扫描 O(n)
+     * @return 数据数量
+     * @throws IllegalArgumentException EXACT 用于未维护精确计数器的表
+     */
+    long count(TableEnum table, CountMode mode);
+
     //在一个事务内完成 自动提交
     void batchInsert(TableEnum table,byte[][] keys, byte[][] values);
     void batchDelete(TableEnum table,byte[][] keys);
     void batchUpdate(TableEnum table,byte[][] keys, byte[][] values);
     byte[][] batchGet(TableEnum table,byte[][] keys);
+
+    /**
+     * 跨表批量获取（tables[i] 对应 keys[i]）
+     * @param tables 每个键所属的表
+     * @param keys 键数组
+     * @return 与keys顺序一致的值数组，不存在的键为null
+     */
+    byte[][] batchGet(TableEnum[] tables, byte[][] keys);
     void close();
+    /**
+     * 压缩所有表的指定范围（后台线程执行，不阻塞读写，本方法等待完成）
+     * @param start 起始键（null 表示表头）
+     * @param limit 结束键（null 表示表尾）
+     */
     void compact(byte[] start, byte[] limit);
 
+    /**
+     * 异步压缩
+     * @param table 表名（null 表示所有表）
+     * @param start 起始键（null 表示表头）
+     * @param limit 结束键（null 表示表尾）
+     */
+    CompletableFuture<Void> compactAsync(TableEnum table, byte[] start, byte[] limit);
+
+    /**
+     * 数据库运行指标（写入停顿、内存表/L0文件数、块缓存命中率、各列族读写字节数等）
+     */
+    DbMetrics getMetrics();
+
+    /**
+     * 打开一致性快照：快照上的所有读取看到同一时刻的数据（跨页分页、跨表读取不受并发写入影响）
+     * @return 快照（使用完毕必须关闭）
+     */
+    DbSnapshot openSnapshot();
+
+    /**
+     * 创建检查点（硬链接方式的完整数据库副本）
+     * @param path 目标目录（必须不存在）
+     */
+    void createCheckpoint(String path);
+
     /**
      * 泛型分页查询方法
      * @param table 表名
@@ -140,7 +193,7 @@ public interface DataBase {
      * 设置表的缓存策略（如过期时间、最大容量）
      * @param table 表名
      * @param ttl 缓存存活时间（毫秒，0 表示永不过期）
-     * @param maxSize 最大缓存条数
+     * @param maxSize 最大缓存容量（MB，按键值字节数加权）
      */
     void setCachePolicy(TableEnum table, long ttl, int maxSize);
 
@@ -151,6 +204,13 @@ public interface DataBase {
      */
     void refreshCache(TableEnum table, byte[] key);
 
+    /**
+     * 获取表缓存统计（命中/未命中/淘汰次数）
+     * @param table 表名
+     * @return 缓存统计快照
+     */
+    CacheStats cacheStats(TableEnum table);
+
 
     /**
      * 开启事务（手动提交模式）
@@ -161,7 +221,7 @@ public interface DataBase {
     /**
      * 提交事务（通过事务ID指定）
      * @param transactionId 事务ID（beginTransaction 返回的值）
-     * @return 是否提交成功
+     * @return 是否提交成功（与其他写入冲突时返回false，事务随之结束，需重新开始）
      */
     boolean commitTransaction(String transactionId);
 
@@ -179,6 +239,30 @@ public interface DataBase {
      */
     void addToTransaction(String transactionId, RocksDb.DbOperation operation);
 
+    /**
+     * 事务内读取（能看到本事务未提交的写入）
+     */
+    byte[] getInTransaction(String transactionId, TableEnum table, byte[] key);
+
+    /**
+     * 事务内读取并登记冲突检测（提交前该键被其他写入修改则提交失败）
+     */
+    byte[] getForUpdate(String transactionId, TableEnum table, byte[] key);
+
+    /**
+     * 开启事务（乐观并发控制，可重复读）
+     * @return 事务对象（使用完毕必须关闭，未提交则回滚）
+     */
+    DbTransaction openTransaction();
+
+    /**
+     * 在事务中执行并提交，提交冲突时整体重试
+     * @param work 事务逻辑（重试时会再次执行）
+     * @param maxRetries 冲突后的最大重试次数
+     * @return work 的返回值
+     */
+    <T> T runInTransaction(Function<DbTransaction, T> work, int maxRetries);
+
 
     /**
      * 获取数据库所有表名（列族名）
@@ -200,18 +284,64 @@ public interface DataBase {
      */
     void iterate(TableEnum table, KeyValueHandler handler);
 
+    /**
+     * 打开流式游标，遍历 [startKey, endKey)，常量内存（键值读入复用缓冲区）
+     * @param table 表名
+     * @param startKey 起始键（包含，null 表示表头）
+     * @param endKey 结束键（不包含，null 表示表尾）
+     * @return 游标（使用完毕必须关闭）
+     */
+    DbCursor openCursor(TableEnum table, byte[] startKey, byte[] endKey);
+
+    /**
+     * 按键范围流式读取，可 parallel() 并行扫描（按键区间拆分，每个分片独立游标）
+     * @param table 表名
+     * @param startKey 起始键（包含，null 表示表头）
+     * @param endKey 结束键（不包含，null 表示表尾）
+     * @param mapper 将游标当前位置映射为结果（在映射函数内读取，游标缓冲区不可保留）
+     * @return 结果流（必须关闭，建议 try-with-resources）
+     */
+    <R> Stream<R> stream(TableEnum table, byte[] startKey, byte[] endKey, Function<DbCursor, R> mapper);
+
 
     /**
-     * 批量删除指定范围的键（比逐条删除更高效）
+     * 批量删除指定范围的键（RocksDB DeleteRange，一条范围墓碑，不逐键删除）
      * @param table 表名
      * @param startKey 起始键（包含）
      * @param endKey 结束键（不包含）
      */
     void batchDeleteRange(TableEnum table, byte[] startKey, byte[] endKey);
 
+    /**
+     * 范围删除，可选回收磁盘空间
+     * @param table 表名
+     * @param startKey 起始键（包含）
+     * @param endKey 结束键（不包含）
+     * @param reclaimSpace 是否删除范围内的SST文件并对该范围定向压缩
+     */
+    void batchDeleteRange(TableEnum table, byte[] startKey, byte[] endKey, boolean reclaimSpace);
+
     /**
      * 开启数据库 WAL（Write-Ahead Log）日志（提升崩溃恢复能力）
      * @param enable 是否开启
      */
     void enableWAL(boolean enable);
+
+    /**
+     * 异步插入（开启组提交时与并发写入合并为一次WriteBatch写入）
+     * @return 数据持久化后完成的Future
+     */
+    CompletableFuture<Void> insertAsync(TableEnum table, byte[] key, byte[] value);
+
+    /**
+     * 异步批量插入（组内原子写入）
+     * @return 数据持久化后完成的Future
+     */
+    CompletableFuture<Void> batchInsertAsync(TableEnum table, byte[][] keys, byte[][] values);
+
+    /**
+     * 异步跨表事务（组内原子写入）
+     * @return 数据持久化后完成的Future
+     */
+    CompletableFuture<Void> dataTransactionAsync(List<RocksDb.DbOperation> operations);
 }
@@ -0,0 +1,40 @@
+package com.bit.solana.database;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 流式游标：按键顺序逐条拉取，调用方控制读取节奏（拉模式，天然背压）
+ * key()/value() 返回复用的只读缓冲区视图，仅在下一次 next() 前有效；需要保留时使用 keyBytes()/valueBytes() 拷贝
+ * 使用完毕必须 close()（建议 try-with-resources）
+ */
+public interface DbCursor extends AutoCloseable {
+
+    /**
+     * 移动到下一条记录（第一次调用定位到范围内第一条）
+     * @return false 表示已遍历结束
+     */
+    boolean next();
+
+    /**
+     * 当前键（只读视图）
+     */
+    ByteBuffer key();
+
+    /**
+     * 当前值（只读视图，首次调用时才读取）
+     */
+    ByteBuffer value();
+
+    /**
+     * 当前键的拷贝
+     */
+    byte[] keyBytes();
+
+    /**
+     * 当前值的拷贝
+     */
+    byte[] valueBytes();
+
+    @Override
+    void close();
+}
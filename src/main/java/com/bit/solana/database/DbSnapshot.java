@@ -0,0 +1,42 @@
+package com.bit.solana.database;
+
+import com.bit.solana.database.rocksDb.PageResult;
+import com.bit.solana.database.rocksDb.TableEnum;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 数据库一致性快照：所有读取看到同一时刻的数据，不受之后写入影响
+ * 快照读取不经过表级缓存（缓存只保存最新版本）
+ * 快照会阻止旧版本数据被压缩回收，用完必须尽快 close()
+ */
+public interface DbSnapshot extends AutoCloseable {
+
+    /**
+     * 快照对应的序列号
+     */
+    long getSequenceNumber();
+
+    byte[] get(TableEnum table, byte[] key);
+
+    /**
+     * 批量读取（MultiGet）
+     * @return 与keys顺序一致的值数组，不存在的键为null
+     */
+    byte[][] batchGet(TableEnum table, byte[][] keys);
+
+    <T> PageResult<T> page(TableEnum table, int pageSize, byte[] lastKey);
+
+    <T> List<DataBase.KeyValue<T>> rangeQueryWithLimit(TableEnum table, byte[] startKey, byte[] endKey, int limit);
+
+    void iterate(TableEnum table, KeyValueHandler handler);
+
+    DbCursor openCursor(TableEnum table, byte[] startKey, byte[] endKey);
+
+    <R> Stream<R> stream(TableEnum table, byte[] startKey, byte[] endKey, Function<DbCursor, R> mapper);
+
+    @Override
+    void close();
+}
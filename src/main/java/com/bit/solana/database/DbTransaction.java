@@ -0,0 +1,39 @@
+package com.bit.solana.database;
+
+import com.bit.solana.database.rocksDb.TableEnum;
+
+/**
+ * 数据库事务（乐观并发控制）
+ * 读取能看到本事务尚未提交的写入；getForUpdate 读取的键与写入的键在提交时做冲突检测，
+ * 若其间被其他写入修改，commit 抛出 TransactionConflictException，调用方可重试整个事务
+ * 使用完毕必须 close()（未提交则回滚）
+ */
+public interface DbTransaction extends AutoCloseable {
+
+    String getId();
+
+    /**
+     * 读取（包含本事务未提交的写入）
+     */
+    byte[] get(TableEnum table, byte[] key);
+
+    /**
+     * 读取并登记冲突检测：提交前该键被其他写入修改则提交失败
+     */
+    byte[] getForUpdate(TableEnum table, byte[] key);
+
+    void put(TableEnum table, byte[] key, byte[] value);
+
+    void delete(TableEnum table, byte[] key);
+
+    /**
+     * 提交
+     * @throws TransactionConflictException 与其他写入冲突
+     */
+    void commit();
+
+    void rollback();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,11 @@
+package com.bit.solana.database;
+
+/**
+ * 事务提交冲突：事务读取或写入的键在提交前已被其他写入修改
+ */
+public class TransactionConflictException extends RuntimeException {
+
+    public TransactionConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
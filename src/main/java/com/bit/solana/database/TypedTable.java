@@ -0,0 +1,181 @@
+package com.bit.solana.database;
+
+import com.bit.solana.database.codec.Codec;
+import com.bit.solana.database.rocksDb.BytesKey;
+import com.bit.solana.database.rocksDb.TableEnum;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 带类型的表：键值通过编解码器与原始字节转换，替代 page/rangeQuery 的强制类型转换
+ *
+ * 解码缓存：记录 (原始字节, 解码结果)，读取时先从 DataBase 取原始值（走表级缓存），
+ * 若与缓存中记录的原始字节内容相同则直接返回解码结果（DataBase 每次返回副本，不能按数组实例比较；
+ * 比较字节远比反序列化便宜）。
+ * 任何写入（包括绕过本类直接写 DataBase）改变了原始字节，解码缓存随之自动失效。
+ * 缓存按字节数限制：每条计原始字节两次（原始字节 + 解码对象的估算大小）。
+ * 命中时所有调用方拿到同一个解码对象，调用方不得修改返回的值；值较大且已有上层对象缓存的表应关闭解码缓存。
+ *
+ * 扫描时值延迟解码：只用到键的扫描不会反序列化值。
+ */
+public class TypedTable<K, V> {
+    // 每个缓存条目的估算固定开销（对象头、包装键、记录对象、哈希表节点）
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final DataBase dataBase;
+    private final TableEnum table;
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final Cache<BytesKey, Decoded<V>> decodedCache;
+
+    /**
+     * @param decodedCacheBytes 解码缓存容量（字节，0 表示不缓存解码结果）
+     */
+    public TypedTable(DataBase dataBase, TableEnum table, Codec<K> keyCodec, Codec<V> valueCodec, long decodedCacheBytes) {
+        this.dataBase = dataBase;
+        this.table = table;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.decodedCache = Caffeine.newBuilder()
+                .maximumWeight(decodedCacheBytes)
+                .weigher((BytesKey k, Decoded<V> d) -> k.length() + 2 * d.raw().length + ENTRY_OVERHEAD)
+                .build();
+    }
+
+    public TableEnum getTable() {
+        return table;
+    }
+
+    public V get(K key) {
+        byte[] keyBytes = keyCodec.encode(key);
+        return decode(keyBytes, dataBase.get(table, keyBytes));
+    }
+
+    public boolean isExist(K key) {
+        return dataBase.isExist(table, keyCodec.encode(key));
+    }
+
+    public void put(K key, V value) {
+        byte[] keyBytes = keyCodec.encode(key);
+        byte[] raw = valueCodec.encode(value);
+        dataBase.insert(table, keyBytes, raw);
+        decodedCache.put(BytesKey.copyOf(keyBytes), new Decoded<>(raw.clone(), value));
+    }
+
+    public void delete(K key) {
+        byte[] keyBytes = keyCodec.encode(key);
+        dataBase.delete(table, keyBytes);
+        decodedCache.invalidate(BytesKey.wrap(keyBytes));
+    }
+
+    /**
+     * 批量读取（MultiGet）
+     * @return 与keys顺序一致，不存在的键为null
+     */
+    public List<V> getAll(List<K> keys) {
+        byte[][] keyBytes = new byte[keys.size()][];
+        for (int i = 0; i < keyBytes.length; i++) {
+            keyBytes[i] = keyCodec.encode(keys.get(i));
+        }
+        byte[][] values = dataBase.batchGet(table, keyBytes);
+        List<V> result = new ArrayList<>(keyBytes.length);
+        for (int i = 0; i < keyBytes.length; i++) {
+            result.add(decode(keyBytes[i], values[i]));
+        }
+        return result;
+    }
+
+    /**
+     * 按键范围查询 [from, to)，值延迟解码
+     * @param from 起始键（包含，null 表示表头）
+     * @param to 结束键（不包含，null 表示表尾）
+     * @param limit 最大条数
+     */
+    public List<Entry<K, V>> range(K from, K to, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit必须为正数");
+        }
+        List<Entry<K, V>> result = new ArrayList<>(Math.min(limit, 1024));
+        try (DbCursor cursor = dataBase.openCursor(table, encodeBound(from), encodeBound(to))) {
+            while (result.size() < limit && cursor.next()) {
+                result.add(new Entry<>(keyCodec.decode(cursor.key()), cursor.valueBytes(), valueCodec));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 只扫描键，不读取也不解码值（流必须关闭）
+     */
+    public Stream<K> keys(K from, K to) {
+        return dataBase.stream(table, encodeBound(from), encodeBound(to), cursor -> keyCodec.decode(cursor.key()));
+    }
+
+    /**
+     * 扫描键值，值在 Entry.getValue() 时才解码（流必须关闭）
+     */
+    public Stream<Entry<K, V>> entries(K from, K to) {
+        return dataBase.stream(table, encodeBound(from), encodeBound(to),
+                cursor -> new Entry<>(keyCodec.decode(cursor.key()), cursor.valueBytes(), valueCodec));
+    }
+
+    private V decode(byte[] keyBytes, byte[] raw) {
+        BytesKey cacheKey = BytesKey.wrap(keyBytes);
+        if (raw == null) {
+            decodedCache.invalidate(cacheKey);
+            return null;
+        }
+        Decoded<V> decoded = decodedCache.getIfPresent(cacheKey);
+        if (decoded != null && Arrays.equals(decoded.raw, raw)) {
+            return decoded.value;
+        }
+        V value = valueCodec.decode(raw);
+        decodedCache.put(BytesKey.copyOf(keyBytes), new Decoded<>(raw, value));
+        return value;
+    }
+
+    private byte[] encodeBound(K key) {
+        return key == null ? null : keyCodec.encode(key);
+    }
+
+    private record Decoded<V>(byte[] raw, V value) {
+    }
+
+    /**
+     * 键值对：值保存原始字节，第一次 getValue() 时解码
+     */
+    public static final class Entry<K, V> {
+        private final K key;
+        private final byte[] raw;
+        private final Codec<V> valueCodec;
+        private V value;
+        private boolean decoded;
+
+        Entry(K key, byte[] raw, Codec<V> valueCodec) {
+            this.key = key;
+            this.raw = raw;
+            this.valueCodec = valueCodec;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            if (!decoded) {
+                value = valueCodec.decode(raw);
+                decoded = true;
+            }
+            return value;
+        }
+
+        public byte[] getRawValue() {
+            return raw;
+        }
+    }
+}
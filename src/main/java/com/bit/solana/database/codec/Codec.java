@@ -0,0 +1,23 @@
+package com.bit.solana.database.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 键/值编解码器：类型与 RocksDB 原始字节之间的转换
+ * @param <T> 类型
+ */
+public interface Codec<T> {
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+
+    /**
+     * 从缓冲区解码（游标读取用），默认拷贝出字节数组后解码，定长类型可覆盖为直接读取
+     */
+    default T decode(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return decode(bytes);
+    }
+}
@@ -0,0 +1,141 @@
+package com.bit.solana.database.codec;
+
+import com.bit.solana.common.ByteHash32;
+import com.bit.solana.util.ByteUtils;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * 常用编解码器
+ */
+public final class Codecs {
+
+    private Codecs() {
+    }
+
+    /**
+     * 原始字节（不做转换）
+     */
+    public static final Codec<byte[]> BYTES = new Codec<>() {
+        @Override
+        public byte[] encode(byte[] value) {
+            return value;
+        }
+
+        @Override
+        public byte[] decode(byte[] bytes) {
+            return bytes;
+        }
+    };
+
+    /**
+     * 8字节大端 long（区块高度、slot等），字节序与数值序一致，可用于范围扫描
+     */
+    public static final Codec<Long> BIG_ENDIAN_LONG = new Codec<>() {
+        @Override
+        public byte[] encode(Long value) {
+            return ByteUtils.longToBytesBE(value);
+        }
+
+        @Override
+        public Long decode(byte[] bytes) {
+            return ByteUtils.bytesToLongBE(bytes, 0);
+        }
+
+        @Override
+        public Long decode(ByteBuffer buffer) {
+            // ByteBuffer 默认大端，直接读取不产生中间数组
+            return buffer.getLong(buffer.position());
+        }
+    };
+
+    /**
+     * 32字节哈希键（BlockHash、TransactionHash 等）
+     * @param factory 由32字节构造具体哈希类型，如 BlockHash::fromBytes
+     */
+    public static <H extends ByteHash32> Codec<H> hash32(Function<byte[], H> factory) {
+        return new Codec<>() {
+            @Override
+            public byte[] encode(H value) {
+                return value.toBytes();
+            }
+
+            @Override
+            public H decode(byte[] bytes) {
+                return factory.apply(bytes);
+            }
+        };
+    }
+
+    /**
+     * protobuf 消息（Structure.*）
+     * @param parser 消息解析器，如 Structure.ProtoBlock.parser()
+     */
+    public static <M extends MessageLite> Codec<M> protobuf(Parser<M> parser) {
+        return new Codec<>() {
+            @Override
+            public byte[] encode(M value) {
+                return value.toByteArray();
+            }
+
+            @Override
+            public M decode(byte[] bytes) {
+                try {
+                    return parser.parseFrom(bytes);
+                } catch (InvalidProtocolBufferException e) {
+                    throw new IllegalStateException("protobuf 反序列化失败", e);
+                }
+            }
+
+            @Override
+            public M decode(ByteBuffer buffer) {
+                try {
+                    // 直接从缓冲区解析，不拷贝出中间数组
+                    return parser.parseFrom(buffer.duplicate());
+                } catch (InvalidProtocolBufferException e) {
+                    throw new IllegalStateException("protobuf 反序列化失败", e);
+                }
+            }
+        };
+    }
+
+    /**
+     * 由已有的 serialize/deserialize 方法组装编解码器，如 BlockHeader::serialize、BlockHeader::deserialize
+     */
+    public static <T> Codec<T> of(Encoder<T> encoder, Decoder<T> decoder) {
+        return new Codec<>() {
+            @Override
+            public byte[] encode(T value) {
+                try {
+                    return encoder.encode(value);
+                } catch (IOException e) {
+                    throw new IllegalStateException("序列化失败", e);
+                }
+            }
+
+            @Override
+            public T decode(byte[] bytes) {
+                try {
+                    return decoder.decode(bytes);
+                } catch (IOException e) {
+                    throw new IllegalStateException("反序列化失败", e);
+                }
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface Encoder<T> {
+        byte[] encode(T value) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Decoder<T> {
+        T decode(byte[] bytes) throws IOException;
+    }
+}
@@ -0,0 +1,16 @@
+package com.bit.solana.database.ledger;
+
+/**
+ * 区块记录存储方式
+ */
+public enum BlockStorageMode {
+    /**
+     * 区块记录保存在 RocksDB 的 BLOCK 列族（默认）
+     */
+    ROCKSDB,
+
+    /**
+     * 区块记录追加写入账本段文件，BLOCK 列族只保存 区块哈希 -> 高度 指针
+     */
+    SEGMENT
+}
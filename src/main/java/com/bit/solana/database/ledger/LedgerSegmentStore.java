@@ -0,0 +1,556 @@
+package com.bit.solana.database.ledger;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 账本段文件：按高度追加写入序列化区块
+ *
+ * 段文件（segment-<id>.seg）固定大小，创建时预分配，写入走 FileChannel，读取走整段只读映射（MappedByteBuffer）。
+ * 记录格式：[长度(4字节)] + [高度(8字节)] + [CRC32C(4字节)] + [区块记录]，记录不跨段，放不下时切换到新段。
+ * 索引文件（segment-<id>.idx）随写入追加 [高度(8字节)] + [段内偏移(4字节)]，重启时已封存的段直接加载索引，
+ * 当前写入段重新扫描记录（校验CRC，截断崩溃时写了一半的尾部），保证索引与数据一致。
+ * 内存索引为 高度 -> (段号, 偏移) 的连续 long 数组，读取无需查找。
+ *
+ * 读取返回映射上的只读切片，可直接包装为 Netty ByteBuf 发送给同步区块的节点，不经过堆内存复制。
+ * 已封存的段关闭文件通道，只保留只读映射。
+ * 裁剪以整段为单位删除文件。
+ */
+@Slf4j
+public class LedgerSegmentStore implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int RECORD_HEADER_SIZE = 16;
+    private static final int INDEX_ENTRY_SIZE = 12;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final HeightIndex index = new HeightIndex();
+    private Segment active;
+    private boolean closed;
+
+    /**
+     * @param dir 段文件目录
+     * @param segmentSize 单个段文件大小（字节），单个区块记录不能超过该大小
+     * @param fsync 每次追加后是否刷盘
+     */
+    public LedgerSegmentStore(Path dir, int segmentSize, boolean fsync) {
+        if (segmentSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("段文件大小过小: " + segmentSize);
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(dir);
+            recover();
+            if (active == null) {
+                active = openSegment(0, true);
+            }
+        } catch (IOException e) {
+            close();
+            log.error("打开账本段文件失败: {}", dir, e);
+            throw new RuntimeException("打开账本段文件失败", e);
+        }
+        log.info("账本段文件已打开: {}，段数{}，高度范围[{}, {}]", dir, segments.size(), getLowestHeight(), getHighestHeight());
+    }
+
+    /**
+     * 追加区块记录；同一高度重复追加时索引指向最新的记录
+     */
+    public void append(long height, byte[] data) {
+        int recordSize = RECORD_HEADER_SIZE + data.length;
+        if (data.length == 0 || recordSize > segmentSize) {
+            throw new IllegalArgumentException("区块记录大小非法: " + data.length);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        ByteBuffer record = ByteBuffer.allocate(recordSize)
+                .putInt(data.length)
+                .putLong(height)
+                .putInt((int) crc.getValue())
+                .put(data)
+                .flip();
+
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            if (active.writePosition + recordSize > active.mapping.capacity()) {
+                active.seal();
+                active = openSegment(active.id + 1, true);
+            }
+            int offset = active.writePosition;
+            active.write(record, offset);
+            active.writeIndex(height, offset);
+            if (fsync) {
+                active.force();
+            }
+            active.writePosition = offset + recordSize;
+            active.track(height);
+            index.put(height, location(active.id, offset));
+        } catch (IOException e) {
+            log.error("追加区块记录失败, height={}", height, e);
+            throw new RuntimeException("追加区块记录失败", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long height) {
+        lock.readLock().lock();
+        try {
+            return index.get(height) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 区块记录在映射上的只读切片（不复制）
+     * 切片在段被裁剪删除后仍可读（映射随切片对象回收），但不应长期持有
+     * @return null 表示该高度不存在
+     */
+    public ByteBuffer slice(long height) {
+        lock.readLock().lock();
+        try {
+            long location = index.get(height);
+            if (location < 0) {
+                return null;
+            }
+            Segment segment = segments.get(segmentId(location));
+            int offset = offset(location);
+            int length = segment.mapping.getInt(offset);
+            return segment.mapping.slice(offset + RECORD_HEADER_SIZE, length).asReadOnlyBuffer();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 区块记录包装为 Netty ByteBuf（直接引用映射内存，零拷贝写入网络）
+     */
+    public ByteBuf sliceAsByteBuf(long height) {
+        ByteBuffer slice = slice(height);
+        return slice == null ? null : Unpooled.wrappedBuffer(slice);
+    }
+
+    /**
+     * 复制出区块记录
+     */
+    public byte[] read(long height) {
+        ByteBuffer slice = slice(height);
+        if (slice == null) {
+            return null;
+        }
+        byte[] bytes = new byte[slice.remaining()];
+        slice.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * @return 最低高度，-1 表示为空
+     */
+    public long getLowestHeight() {
+        lock.readLock().lock();
+        try {
+            return index.lowest();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return 最高高度，-1 表示为空
+     */
+    public long getHighestHeight() {
+        lock.readLock().lock();
+        try {
+            return index.highest();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 删除所有高度均低于 height 的已封存段（当前写入段不删除）
+     * @return 删除的段数
+     */
+    public int deleteBelow(long height) {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            List<Segment> removable = new ArrayList<>();
+            for (Segment segment : segments.values()) {
+                if (segment != active && segment.maxHeight < height) {
+                    removable.add(segment);
+                }
+            }
+            for (Segment segment : removable) {
+                for (long h = segment.minHeight; h <= segment.maxHeight && segment.minHeight >= 0; h++) {
+                    long location = index.get(h);
+                    if (location >= 0 && segmentId(location) == segment.id) {
+                        index.remove(h);
+                    }
+                }
+                index.trim();
+                segments.remove(segment.id);
+                segment.close();
+                Files.deleteIfExists(segment.file);
+                Files.deleteIfExists(segment.indexFile);
+                log.info("已删除账本段文件: {}", segment.file.getFileName());
+            }
+            return removable.size();
+        } catch (IOException e) {
+            log.error("删除账本段文件失败, height={}", height, e);
+            throw new RuntimeException("删除账本段文件失败", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Segment segment : segments.values()) {
+                try {
+                    segment.force();
+                } catch (IOException e) {
+                    log.warn("账本段文件刷盘失败: {}", segment.file, e);
+                }
+                segment.close();
+            }
+            segments.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 重启恢复：封存段加载索引文件（缺失或损坏时扫描段文件），最后一段重新扫描
+     */
+    private void recover() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> ids.add(Integer.parseInt(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        ids.sort(null);
+        for (int i = 0; i < ids.size(); i++) {
+            boolean last = i == ids.size() - 1;
+            Segment segment = openSegment(ids.get(i), false);
+            if (last || !segment.loadIndex(index)) {
+                segment.scan(index);
+            }
+            if (last) {
+                active = segment;
+            } else {
+                segment.seal();
+            }
+        }
+    }
+
+    private Segment openSegment(int id, boolean create) throws IOException {
+        Path file = dir.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        Path indexFile = dir.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, id, INDEX_SUFFIX));
+        if (create) {
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                // 预分配为稀疏文件，整段映射不会越界
+                raf.setLength(segmentSize);
+            }
+        }
+        Segment segment = new Segment(id, file, indexFile, segmentSize);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("账本段文件已关闭");
+        }
+    }
+
+    private static long location(int segmentId, int offset) {
+        return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int segmentId(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offset(long location) {
+        return (int) location;
+    }
+
+    /**
+     * 单个段文件
+     */
+    private static final class Segment {
+        final int id;
+        final Path file;
+        final Path indexFile;
+        // 封存后关闭（置为 null），只保留只读映射，已封存的段不占用文件描述符
+        FileChannel channel;
+        FileChannel indexChannel;
+        final MappedByteBuffer mapping;
+        int writePosition;
+        long minHeight = -1;
+        long maxHeight = -1;
+
+        Segment(int id, Path file, Path indexFile, int segmentSize) throws IOException {
+            this.id = id;
+            this.file = file;
+            this.indexFile = indexFile;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), segmentSize));
+        }
+
+        void write(ByteBuffer record, int position) throws IOException {
+            int written = 0;
+            while (record.hasRemaining()) {
+                written += channel.write(record, position + written);
+            }
+        }
+
+        void writeIndex(long height, int offset) throws IOException {
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE).putLong(height).putInt(offset).flip();
+            long position = indexChannel.size();
+            while (entry.hasRemaining()) {
+                position += indexChannel.write(entry, position);
+            }
+        }
+
+        void track(long height) {
+            minHeight = minHeight < 0 ? height : Math.min(minHeight, height);
+            maxHeight = Math.max(maxHeight, height);
+        }
+
+        /**
+         * 加载索引文件
+         * @return false 表示索引文件缺失或不完整，需要扫描段文件
+         */
+        boolean loadIndex(HeightIndex index) throws IOException {
+            long size = indexChannel.size();
+            if (size == 0 || size % INDEX_ENTRY_SIZE != 0) {
+                return false;
+            }
+            ByteBuffer entries = ByteBuffer.allocate((int) size);
+            while (entries.hasRemaining()) {
+                if (indexChannel.read(entries, entries.position()) < 0) {
+                    return false;
+                }
+            }
+            entries.flip();
+            List<long[]> loaded = new ArrayList<>();
+            int end = 0;
+            while (entries.hasRemaining()) {
+                long height = entries.getLong();
+                int offset = entries.getInt();
+                if (offset < end || offset + RECORD_HEADER_SIZE > mapping.capacity()) {
+                    return false;
+                }
+                end = offset + RECORD_HEADER_SIZE + mapping.getInt(offset);
+                loaded.add(new long[]{height, offset});
+            }
+            for (long[] entry : loaded) {
+                index.put(entry[0], location(id, (int) entry[1]));
+                track(entry[0]);
+            }
+            writePosition = end;
+            return true;
+        }
+
+        /**
+         * 扫描段文件重建索引，遇到空记录或CRC不符即视为结尾，并按扫描结果重写索引文件
+         */
+        void scan(HeightIndex index) throws IOException {
+            int position = 0;
+            Map<Long, Integer> offsets = new TreeMap<>();
+            List<long[]> entries = new ArrayList<>();
+            CRC32C crc = new CRC32C();
+            while (position + RECORD_HEADER_SIZE <= mapping.capacity()) {
+                int length = mapping.getInt(position);
+                if (length <= 0 || position + RECORD_HEADER_SIZE + length > mapping.capacity()) {
+                    break;
+                }
+                long height = mapping.getLong(position + 4);
+                int checksum = mapping.getInt(position + 12);
+                crc.reset();
+                crc.update(mapping.slice(position + RECORD_HEADER_SIZE, length));
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("账本段文件{}偏移{}处记录校验失败，截断", file.getFileName(), position);
+                    break;
+                }
+                offsets.put(height, position);
+                entries.add(new long[]{height, position});
+                position += RECORD_HEADER_SIZE + length;
+            }
+            for (Map.Entry<Long, Integer> entry : offsets.entrySet()) {
+                index.put(entry.getKey(), location(id, entry.getValue()));
+                track(entry.getKey());
+            }
+            writePosition = position;
+
+            indexChannel.truncate(0);
+            for (long[] entry : entries) {
+                writeIndex(entry[0], (int) entry[1]);
+            }
+            indexChannel.force(false);
+        }
+
+        /**
+         * 封存：刷盘后关闭数据与索引文件通道，之后只通过映射读取
+         */
+        void seal() throws IOException {
+            force();
+            close();
+        }
+
+        void force() throws IOException {
+            if (channel != null) {
+                channel.force(false);
+                indexChannel.force(false);
+            }
+        }
+
+        void close() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+                indexChannel.close();
+            } catch (IOException e) {
+                log.warn("关闭账本段文件失败: {}", file, e);
+            } finally {
+                channel = null;
+                indexChannel = null;
+            }
+        }
+    }
+
+    /**
+     * 高度 -> 位置 的连续数组索引（-1 表示不存在），区块高度连续，按偏移直接定位
+     */
+    static final class HeightIndex {
+        private long base = -1;
+        private long[] locations = new long[0];
+        private int size;
+
+        long get(long height) {
+            long slot = height - base;
+            if (base < 0 || slot < 0 || slot >= size) {
+                return -1;
+            }
+            return locations[(int) slot];
+        }
+
+        void put(long height, long location) {
+            if (height < 0) {
+                throw new IllegalArgumentException("高度不能为负数: " + height);
+            }
+            if (base < 0) {
+                base = height;
+            }
+            if (height < base) {
+                // 低于当前起点，整体后移
+                int shift = Math.toIntExact(base - height);
+                long[] grown = new long[size + shift + 16];
+                Arrays.fill(grown, 0, shift, -1);
+                System.arraycopy(locations, 0, grown, shift, size);
+                locations = grown;
+                size += shift;
+                base = height;
+            }
+            int slot = Math.toIntExact(height - base);
+            if (slot >= locations.length) {
+                locations = Arrays.copyOf(locations, Math.max(slot + 1, locations.length * 2));
+            }
+            if (slot >= size) {
+                // 跳过的高度标记为不存在
+                Arrays.fill(locations, size, slot, -1);
+                size = slot + 1;
+            }
+            locations[slot] = location;
+        }
+
+        void remove(long height) {
+            long slot = height - base;
+            if (base >= 0 && slot >= 0 && slot < size) {
+                locations[(int) slot] = -1;
+            }
+        }
+
+        long lowest() {
+            for (int i = 0; i < size; i++) {
+                if (locations[i] >= 0) {
+                    return base + i;
+                }
+            }
+            return -1;
+        }
+
+        long highest() {
+            for (int i = size - 1; i >= 0; i--) {
+                if (locations[i] >= 0) {
+                    return base + i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 去掉头部已删除的槽位，裁剪后的索引不再占用旧高度的内存
+         */
+        void trim() {
+            int first = 0;
+            while (first < size && locations[first] < 0) {
+                first++;
+            }
+            if (first == 0) {
+                return;
+            }
+            if (first == size) {
+                base = -1;
+                size = 0;
+                locations = new long[0];
+                return;
+            }
+            if (first >= 1024 || first * 2 >= size) {
+                locations = Arrays.copyOfRange(locations, first, size);
+                base += first;
+                size -= first;
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.bit.solana.database.rocksDb;
+
+import java.util.Arrays;
+
+/**
+ * 缓存键：按内容比较的 byte[] 包装（byte[] 本身按引用比较，直接做Map键永远不会命中）
+ * 哈希在构造时计算一次
+ */
+public final class BytesKey implements Comparable<BytesKey> {
+    private final byte[] bytes;
+    private final int hash;
+
+    private BytesKey(byte[] bytes) {
+        this.bytes = bytes;
+        this.hash = Arrays.hashCode(bytes);
+    }
+
+    /**
+     * 查询用：直接引用调用方数组，不做拷贝（仅在一次查找内使用）
+     */
+    public static BytesKey wrap(byte[] bytes) {
+        return new BytesKey(bytes);
+    }
+
+    /**
+     * 存储用：拷贝一份，避免调用方后续修改数组破坏缓存
+     */
+    public static BytesKey copyOf(byte[] bytes) {
+        return new BytesKey(bytes.clone());
+    }
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BytesKey other)) return false;
+        return hash == other.hash && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public int compareTo(BytesKey o) {
+        return Arrays.compareUnsigned(bytes, o.bytes);
+    }
+}
@@ -0,0 +1,156 @@
+package com.bit.solana.database.rocksDb;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.rocksdb.*;
+
+import java.util.List;
+
+/**
+ * 列族调优配置（声明式）
+ * TableEnum 提供每张表的默认值，运维可在 system.table-profiles.<列族名> 中按字段覆盖（为空的字段沿用默认值）
+ */
+@Data
+@NoArgsConstructor
+public class ColumnFamilyProfile {
+    private Double bloomBitsPerKey;             // 布隆过滤器每键位数（0 表示不使用）
+    private Boolean wholeKeyFiltering;          // 是否对完整键做布隆过滤（点查）
+    private Integer prefixLength;               // 固定长度前缀提取器（0 表示不使用），如区块高度8字节
+    private Boolean pointLookup;                // 点查优化：数据块哈希索引 + 内存表布隆
+    private CompressionType compression;        // 热数据层压缩算法
+    private CompressionType bottommostCompression; // 最底层压缩算法
+    private Long blockSizeKb;                   // 数据块大小 KB
+    private Long writeBufferSizeMb;             // 单个内存表大小 MB
+    private Boolean blobFiles;                  // 键值分离：大值写入blob文件，LSM树中只保存键和blob引用
+    private Long minBlobSizeKb;                 // 写入blob文件的最小值大小 KB（更小的值仍内联在SST中）
+    private Long blobFileSizeMb;                // 单个blob文件大小 MB
+    private CompressionType blobCompression;    // blob文件压缩算法
+
+    /**
+     * 点查表（账户）：整键布隆 + 数据块哈希索引
+     */
+    public static ColumnFamilyProfile pointLookup() {
+        ColumnFamilyProfile profile = base();
+        profile.setPointLookup(true);
+        return profile;
+    }
+
+    /**
+     * 按高度/插槽有序的表（区块高度索引、插槽索引、链信息）：8字节高度前缀布隆，范围扫描仍走全序迭代
+     */
+    public static ColumnFamilyProfile heightPrefixed() {
+        ColumnFamilyProfile profile = base();
+        profile.setPrefixLength(8);
+        return profile;
+    }
+
+    /**
+     * 通用表：整键布隆 + LZ4/ZSTD
+     */
+    public static ColumnFamilyProfile base() {
+        ColumnFamilyProfile profile = new ColumnFamilyProfile();
+        profile.setBloomBitsPerKey(10.0);
+        profile.setWholeKeyFiltering(true);
+        profile.setPrefixLength(0);
+        profile.setPointLookup(false);
+        profile.setCompression(CompressionType.LZ4_COMPRESSION);
+        profile.setBottommostCompression(CompressionType.ZSTD_COMPRESSION);
+        profile.setBlockSizeKb(4L);
+        profile.setWriteBufferSizeMb(64L);
+        profile.setBlobFiles(false);
+        profile.setMinBlobSizeKb(64L);
+        profile.setBlobFileSizeMb(256L);
+        profile.setBlobCompression(CompressionType.LZ4_COMPRESSION);
+        return profile;
+    }
+
+    public ColumnFamilyProfile withBlockSizeKb(long blockSizeKb) {
+        this.blockSizeKb = blockSizeKb;
+        return this;
+    }
+
+    /**
+     * 开启键值分离：不小于 minBlobSizeKb 的值写入blob文件，压缩只重写键和小值，大值不再随层级反复搬移
+     */
+    public ColumnFamilyProfile withBlobFiles(long minBlobSizeKb, CompressionType blobCompression) {
+        this.blobFiles = true;
+        this.minBlobSizeKb = minBlobSizeKb;
+        this.blobCompression = blobCompression;
+        return this;
+    }
+
+    /**
+     * 合并覆盖配置：override 中非空字段优先
+     */
+    public ColumnFamilyProfile mergedWith(ColumnFamilyProfile override) {
+        ColumnFamilyProfile merged = new ColumnFamilyProfile();
+        merged.setBloomBitsPerKey(pick(override == null ? null : override.bloomBitsPerKey, bloomBitsPerKey));
+        merged.setWholeKeyFiltering(pick(override == null ? null : override.wholeKeyFiltering, wholeKeyFiltering));
+        merged.setPrefixLength(pick(override == null ? null : override.prefixLength, prefixLength));
+        merged.setPointLookup(pick(override == null ? null : override.pointLookup, pointLookup));
+        merged.setCompression(pick(override == null ? null : override.compression, compression));
+        merged.setBottommostCompression(pick(override == null ? null : override.bottommostCompression, bottommostCompression));
+        merged.setBlockSizeKb(pick(override == null ? null : override.blockSizeKb, blockSizeKb));
+        merged.setWriteBufferSizeMb(pick(override == null ? null : override.writeBufferSizeMb, writeBufferSizeMb));
+        merged.setBlobFiles(pick(override == null ? null : override.blobFiles, blobFiles));
+        merged.setMinBlobSizeKb(pick(override == null ? null : override.minBlobSizeKb, minBlobSizeKb));
+        merged.setBlobFileSizeMb(pick(override == null ? null : override.blobFileSizeMb, blobFileSizeMb));
+        merged.setBlobCompression(pick(override == null ? null : override.blobCompression, blobCompression));
+        return merged;
+    }
+
+    /**
+     * 生成列族配置
+     * @param blockCache 所有列族共享的LRU块缓存
+     * @param resources 创建的原生对象（数据库关闭时统一释放）
+     */
+    public ColumnFamilyOptions toOptions(Cache blockCache, List<AbstractNativeReference> resources) {
+        BlockBasedTableConfig tableConfig = new BlockBasedTableConfig()
+                .setBlockCache(blockCache)
+                .setBlockSize(blockSizeKb * 1024)
+                .setCacheIndexAndFilterBlocks(true)
+                .setPinL0FilterAndIndexBlocksInCache(true)
+                .setWholeKeyFiltering(wholeKeyFiltering);
+        if (bloomBitsPerKey > 0) {
+            Filter filter = new BloomFilter(bloomBitsPerKey);
+            resources.add(filter);
+            tableConfig.setFilterPolicy(filter);
+        }
+        if (pointLookup) {
+            tableConfig.setDataBlockIndexType(DataBlockIndexType.kDataBlockBinaryAndHash)
+                    .setDataBlockHashTableUtilRatio(0.75);
+        }
+
+        ColumnFamilyOptions options = new ColumnFamilyOptions()
+                .setTableFormatConfig(tableConfig)
+                .setWriteBufferSize(writeBufferSizeMb * 1024 * 1024)
+                .setCompressionType(compression)
+                .setBottommostCompressionType(bottommostCompression)
+                .setLevelCompactionDynamicLevelBytes(true)
+                // 乐观事务冲突检测依赖内存表中的写入历史，保留一个内存表大小的历史，避免刷盘后提交返回TryAgain
+                .setMaxWriteBufferSizeToMaintain(writeBufferSizeMb * 1024 * 1024);
+        if (prefixLength > 0) {
+            options.useFixedLengthPrefixExtractor(prefixLength)
+                    .setMemtablePrefixBloomSizeRatio(0.05);
+        } else if (pointLookup) {
+            options.setMemtablePrefixBloomSizeRatio(0.05)
+                    .setMemtableWholeKeyFiltering(true);
+        }
+        if (blobFiles) {
+            // blob垃圾回收随压缩进行：重写最旧25%的blob文件中仍有效的值，回收已删除/覆盖区块占用的空间
+            options.setEnableBlobFiles(true)
+                    .setMinBlobSize(minBlobSizeKb * 1024)
+                    .setBlobFileSize(blobFileSizeMb * 1024 * 1024)
+                    .setBlobCompressionType(blobCompression)
+                    .setEnableBlobGarbageCollection(true)
+                    .setBlobGarbageCollectionAgeCutoff(0.25)
+                    .setBlobCompactionReadaheadSize(2 * 1024 * 1024);
+        }
+        resources.add(options);
+        return options;
+    }
+
+    private static <V> V pick(V override, V fallback) {
+        return override != null ? override : fallback;
+    }
+}
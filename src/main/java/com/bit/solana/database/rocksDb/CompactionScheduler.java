@@ -0,0 +1,140 @@
+package com.bit.solana.database.rocksDb;
+
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 后台压缩调度
+ * 1. 定期检查各列族的待压缩字节数（rocksdb.estimate-pending-compaction-bytes），超过阈值时对该列族做一次全量压缩
+ * 2. 手动压缩请求也在本线程串行执行，调用方可等待返回的 Future
+ * 压缩不持有任何应用锁（仅占用生命周期闸门，保证执行期间数据库不被关闭），
+ * 非独占压缩，RocksDB自身的后台压缩照常进行；写盘速度由数据库级 RateLimiter 限制
+ */
+@Slf4j
+class CompactionScheduler implements AutoCloseable {
+    private static final String PENDING_COMPACTION_BYTES = "rocksdb.estimate-pending-compaction-bytes";
+
+    private final RocksDB db;
+    private final LifecycleGate gate;
+    private final long pendingBytesThreshold;
+    private final ScheduledExecutorService executor;
+    private final AtomicLong triggeredCompactions = new AtomicLong();
+    private final AtomicLong manualCompactions = new AtomicLong();
+
+    /**
+     * @param pendingBytesThreshold 触发压缩的待压缩字节数阈值
+     * @param checkIntervalSeconds 检查周期（0 表示只执行手动压缩）
+     */
+    CompactionScheduler(RocksDB db, LifecycleGate gate, long pendingBytesThreshold, long checkIntervalSeconds) {
+        this.db = db;
+        this.gate = gate;
+        this.pendingBytesThreshold = pendingBytesThreshold;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rocksdb-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (checkIntervalSeconds > 0) {
+            executor.scheduleWithFixedDelay(this::checkPending, checkIntervalSeconds, checkIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 提交手动压缩
+     * @param table 表（null 表示所有表）
+     * @param start 起始键（null 表示表头）
+     * @param limit 结束键（null 表示表尾）
+     */
+    CompletableFuture<Void> submit(TableEnum table, byte[] start, byte[] limit) {
+        return CompletableFuture.runAsync(() -> {
+            manualCompactions.incrementAndGet();
+            if (table != null) {
+                compact(table, start, limit);
+                return;
+            }
+            for (TableEnum t : TableEnum.values()) {
+                compact(t, start, limit);
+            }
+        }, executor);
+    }
+
+    long getTriggeredCompactions() {
+        return triggeredCompactions.get();
+    }
+
+    long getManualCompactions() {
+        return manualCompactions.get();
+    }
+
+    private void checkPending() {
+        try {
+            for (TableEnum table : TableEnum.values()) {
+                long pending = pendingCompactionBytes(table);
+                if (pending > pendingBytesThreshold) {
+                    log.info("表[{}]待压缩{}字节，超过阈值{}，触发后台压缩", table, pending, pendingBytesThreshold);
+                    triggeredCompactions.incrementAndGet();
+                    compact(table, null, null);
+                }
+            }
+        } catch (RuntimeException e) {
+            // 定时任务抛出异常会终止后续调度
+            log.warn("检查待压缩字节数失败", e);
+        }
+    }
+
+    private long pendingCompactionBytes(TableEnum table) {
+        ColumnFamilyHandle cfHandle = RTable.getColumnFamilyHandle(table);
+        if (cfHandle == null || !gate.enter()) {
+            return 0;
+        }
+        try {
+            return db.getLongProperty(cfHandle, PENDING_COMPACTION_BYTES);
+        } catch (RocksDBException e) {
+            log.warn("读取表[{}]待压缩字节数失败", table, e);
+            return 0;
+        } finally {
+            gate.exit();
+        }
+    }
+
+    private void compact(TableEnum table, byte[] start, byte[] limit) {
+        ColumnFamilyHandle cfHandle = RTable.getColumnFamilyHandle(table);
+        if (cfHandle == null) {
+            return;
+        }
+        if (!gate.enter()) {
+            throw new IllegalStateException("数据库未打开或正在关闭");
+        }
+        long begin = System.currentTimeMillis();
+        try (CompactRangeOptions options = new CompactRangeOptions()
+                .setExclusiveManualCompaction(false)
+                .setBottommostLevelCompaction(CompactRangeOptions.BottommostLevelCompaction.kIfHaveCompactionFilter)) {
+            db.compactRange(cfHandle, start, limit, options);
+            log.info("表[{}]压缩完成，耗时{}ms", table, System.currentTimeMillis() - begin);
+        } catch (RocksDBException e) {
+            log.error("表[{}]压缩失败", table, e);
+            throw new RuntimeException("压缩失败", e);
+        } finally {
+            gate.exit();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            // 正在执行的压缩无法中断，等待其结束后再关闭数据库
+            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                log.warn("等待后台压缩结束超时");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.bit.solana.database.rocksDb;
+
+/**
+ * RocksDb 并发模式
+ */
+public enum ConcurrencyMode {
+    /**
+     * 全局读写锁：读操作共享读锁，写操作独占写锁（旧行为，一次写入阻塞所有读取）
+     */
+    GLOBAL_LOCK,
+
+    /**
+     * 生命周期闸门：数据操作不加应用锁，直接依赖RocksDB自身的线程安全，
+     * 仅 打开/关闭 通过引用计数闸门隔离
+     */
+    LIFECYCLE_GATE
+}
@@ -0,0 +1,21 @@
+package com.bit.solana.database.rocksDb;
+
+/**
+ * 表记录数统计方式
+ */
+public enum CountMode {
+    /**
+     * 估算：读取 rocksdb.estimate-num-keys 属性，O(1)，存在覆盖写/删除时有偏差
+     */
+    ESTIMATED,
+
+    /**
+     * 精确：读取与数据在同一 WriteBatch 中维护的计数器，O(1)；只支持 TableEnum.countMode 为 EXACT 的表，其他表抛出 IllegalArgumentException
+     */
+    EXACT,
+
+    /**
+     * 全表扫描：O(n)，仅用于校验
+     */
+    SCAN
+}
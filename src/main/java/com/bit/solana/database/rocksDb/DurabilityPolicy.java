@@ -0,0 +1,21 @@
+package com.bit.solana.database.rocksDb;
+
+/**
+ * 写入持久化策略（WAL 刷盘方式）
+ */
+public enum DurabilityPolicy {
+    /**
+     * 每次写入同步刷盘（最安全，单次写入延迟最高）
+     */
+    SYNC_EACH_WRITE,
+
+    /**
+     * 写入只进操作系统缓冲，后台每隔 N 毫秒统一 fsync 一次WAL（崩溃最多丢失一个周期的数据）
+     */
+    PERIODIC_FSYNC,
+
+    /**
+     * 不写WAL（仅适用于可从其他数据重建的表，崩溃后内存表数据丢失）
+     */
+    NO_WAL
+}
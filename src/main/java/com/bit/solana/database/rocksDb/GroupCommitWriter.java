@@ -0,0 +1,192 @@
+package com.bit.solana.database.rocksDb;
+
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.RocksDBException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 组提交写入线程
+ * 并发的 insert / batchInsert / dataTransaction 请求进入队列，写入线程在一个刷盘窗口内
+ * 把它们合并为一个 WriteBatch 一次写入（一次fsync），写入成功后统一完成各请求的 Future
+ * 1万TPS的账户更新 -> 每个窗口一次fsync，而不是1万次
+ */
+@Slf4j
+public class GroupCommitWriter implements AutoCloseable {
+
+    private static final Request POISON = new Request(List.of(), new CompletableFuture<>());
+
+    private final BatchWriter batchWriter;
+    private final long windowNanos;
+    private final int maxBatchOps;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    // 提交方持读锁检查 running 并入队，close 持写锁关闭：关闭后不会再有请求排在 POISON 之后
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+
+    /**
+     * 一组操作的原子写入（由RocksDb提供：构建WriteBatch、维护计数、写入、同步缓存）
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(List<RocksDb.DbOperation> operations) throws RocksDBException;
+    }
+
+    private record Request(List<RocksDb.DbOperation> operations, CompletableFuture<Void> future) {
+    }
+
+    /**
+     * @param batchWriter 组写入（每组一次WriteBatch）
+     * @param windowMicros 刷盘窗口（微秒），窗口内到达的请求合并写入
+     * @param maxBatchOps 单个组最多合并的操作数
+     */
+    public GroupCommitWriter(BatchWriter batchWriter, long windowMicros, int maxBatchOps) {
+        this.batchWriter = batchWriter;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchOps = maxBatchOps;
+        this.writerThread = new Thread(this::runLoop, "rocksdb-group-commit");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 提交一组操作（组内原子写入）
+     * @return 写入持久化后完成的Future
+     */
+    public CompletableFuture<Void> submit(List<RocksDb.DbOperation> operations) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        // 提交时校验表是否存在，避免一个非法请求导致整组失败
+        for (RocksDb.DbOperation op : operations) {
+            if (RTable.getColumnFamilyHandle(op.table) == null) {
+                future.completeExceptionally(new IllegalArgumentException("表不存在: " + op.table));
+                return future;
+            }
+        }
+        closeLock.readLock().lock();
+        try {
+            if (!running) {
+                future.completeExceptionally(new IllegalStateException("组提交写入线程已关闭"));
+                return future;
+            }
+            queue.add(new Request(operations, future));
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return future;
+    }
+
+    /**
+     * 当前排队的请求数
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    private void runLoop() {
+        List<Request> group = new ArrayList<>();
+        while (true) {
+            group.clear();
+            boolean stop = false;
+            try {
+                Request first = queue.take();
+                if (first == POISON) {
+                    stop = true;
+                } else {
+                    group.add(first);
+                    int ops = first.operations().size();
+                    long deadline = System.nanoTime() + windowNanos;
+                    // 在窗口内继续收集请求，直到窗口结束或达到单组上限
+                    while (ops < maxBatchOps) {
+                        long remaining = deadline - System.nanoTime();
+                        Request next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        if (next == POISON) {
+                            stop = true;
+                            break;
+                        }
+                        group.add(next);
+                        ops += next.operations().size();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stop = true;
+            }
+            if (!group.isEmpty()) {
+                commit(group);
+            }
+            if (stop) {
+                break;
+            }
+        }
+        // 关闭时写完剩余请求
+        List<Request> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.remove(POISON);
+        if (!rest.isEmpty()) {
+            commit(rest);
+        }
+    }
+
+    private void commit(List<Request> group) {
+        List<RocksDb.DbOperation> operations;
+        if (group.size() == 1) {
+            operations = group.get(0).operations();
+        } else {
+            operations = new ArrayList<>();
+            for (Request request : group) {
+                operations.addAll(request.operations());
+            }
+        }
+        try {
+            batchWriter.write(operations);
+        } catch (RocksDBException | RuntimeException e) {
+            log.error("组提交写入失败，请求数: {}", group.size(), e);
+            for (Request request : group) {
+                request.future().completeExceptionally(e);
+            }
+            return;
+        }
+        for (Request request : group) {
+            request.future().complete(null);
+        }
+    }
+
+    /**
+     * 停止接收新请求，写完队列中剩余请求后退出
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            queue.add(POISON);
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 写入线程未能在超时内退出时，剩余请求直接失败，避免调用方永久等待
+        List<Request> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        for (Request request : leftover) {
+            request.future().completeExceptionally(new IllegalStateException("组提交写入线程已关闭"));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.bit.solana.database.rocksDb;
+
+import com.bit.solana.database.DbCursor;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 按键范围拆分的 Spliterator，用于并行扫描
+ * 拆分时取 [start, end) 的字节中点，两半各自打开独立游标，互不共享缓冲区
+ * 游标在第一次读取时才打开；打开的游标登记到 openCursors，由 Stream.onClose 统一兜底关闭
+ */
+class KeyRangeSpliterator<R> implements Spliterator<R> {
+
+    private final BiFunction<byte[], byte[], DbCursor> cursorFactory;
+    private final Function<DbCursor, R> mapper;
+    private final Queue<DbCursor> openCursors;
+    private final int maxDepth;
+    private final int depth;
+
+    private byte[] start;   // 包含
+    private final byte[] end; // 不包含
+    private DbCursor cursor;
+    private boolean exhausted;
+
+    KeyRangeSpliterator(byte[] start, byte[] end, BiFunction<byte[], byte[], DbCursor> cursorFactory,
+                        Function<DbCursor, R> mapper, Queue<DbCursor> openCursors, int maxDepth, int depth) {
+        this.start = start;
+        this.end = end;
+        this.cursorFactory = cursorFactory;
+        this.mapper = mapper;
+        this.openCursors = openCursors;
+        this.maxDepth = maxDepth;
+        this.depth = depth;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        if (exhausted) {
+            return false;
+        }
+        DbCursor current = cursor();
+        if (!current.next()) {
+            finish();
+            return false;
+        }
+        action.accept(mapper.apply(current));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super R> action) {
+        if (exhausted) {
+            return;
+        }
+        DbCursor current = cursor();
+        try {
+            while (current.next()) {
+                action.accept(mapper.apply(current));
+            }
+        } finally {
+            finish();
+        }
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        // 已开始读取的分片不再拆分
+        if (cursor != null || exhausted || depth >= maxDepth || start == null || end == null) {
+            return null;
+        }
+        byte[] mid = midpoint(start, end);
+        if (mid == null) {
+            return null;
+        }
+        KeyRangeSpliterator<R> prefix = new KeyRangeSpliterator<>(start, mid, cursorFactory, mapper,
+                openCursors, maxDepth, depth + 1);
+        start = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        // 无法廉价得知条数，按拆分深度逐级减半
+        return Long.MAX_VALUE >>> depth;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+
+    private DbCursor cursor() {
+        if (cursor == null) {
+            cursor = cursorFactory.apply(start, end);
+            openCursors.add(cursor);
+        }
+        return cursor;
+    }
+
+    private void finish() {
+        exhausted = true;
+        if (cursor != null) {
+            cursor.close();
+            openCursors.remove(cursor);
+        }
+    }
+
+    /**
+     * 计算两个键的字节中点（按无符号大端整数，短键右侧补零）
+     * @return null 表示区间过窄无法拆分
+     */
+    static byte[] midpoint(byte[] low, byte[] high) {
+        int length = Math.max(low.length, high.length) + 1;
+        BigInteger lo = new BigInteger(1, Arrays.copyOf(low, length));
+        BigInteger hi = new BigInteger(1, Arrays.copyOf(high, length));
+        byte[] raw = lo.add(hi).shiftRight(1).toByteArray();
+        byte[] mid = new byte[length];
+        int copy = Math.min(raw.length, length);
+        System.arraycopy(raw, raw.length - copy, mid, length - copy, copy);
+        if (Arrays.compareUnsigned(mid, low) <= 0 || Arrays.compareUnsigned(mid, high) >= 0) {
+            return null;
+        }
+        return mid;
+    }
+}
@@ -0,0 +1,82 @@
+package com.bit.solana.database.rocksDb;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 数据库生命周期闸门（引用计数）
+ * 数据操作只做一次CAS进入/退出，互相之间不阻塞（RocksDB本身线程安全）
+ * 只有 关闭/重新打开 才需要等待所有在途操作退出
+ */
+public class LifecycleGate {
+
+    // 最高位表示已关闭，低31位为在途操作数
+    private static final int CLOSED_BIT = 0x8000_0000;
+
+    private final AtomicInteger state = new AtomicInteger(CLOSED_BIT);
+
+    /**
+     * 进入闸门
+     * @return false 表示数据库已关闭或正在关闭
+     */
+    public boolean enter() {
+        for (;;) {
+            int s = state.get();
+            if ((s & CLOSED_BIT) != 0) {
+                return false;
+            }
+            if (state.compareAndSet(s, s + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 退出闸门（必须与成功的enter配对）
+     */
+    public void exit() {
+        state.decrementAndGet();
+    }
+
+    /**
+     * 打开闸门（数据库打开成功后调用）
+     */
+    public void open() {
+        state.set(0);
+    }
+
+    /**
+     * 关闭闸门并等待所有在途操作退出
+     * @param timeout 最长等待时间
+     * @param unit 时间单位
+     * @return true 表示在途操作已全部退出
+     */
+    public boolean closeAndAwait(long timeout, TimeUnit unit) {
+        for (;;) {
+            int s = state.get();
+            if ((s & CLOSED_BIT) != 0 || state.compareAndSet(s, s | CLOSED_BIT)) {
+                break;
+            }
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while ((state.get() & ~CLOSED_BIT) != 0) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            LockSupport.parkNanos(100_000);
+        }
+        return true;
+    }
+
+    public boolean isOpen() {
+        return (state.get() & CLOSED_BIT) == 0;
+    }
+
+    /**
+     * 当前在途操作数
+     */
+    public int inFlight() {
+        return state.get() & ~CLOSED_BIT;
+    }
+}
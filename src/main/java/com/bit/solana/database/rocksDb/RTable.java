@@ -6,6 +6,7 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
@@ -63,8 +64,9 @@ public class RTable {
 
     /**
      * 获取所有列族描述符（从TableEnum动态生成，无需硬编码）
+     * @param optionsMap 每张表的列族配置（由ColumnFamilyProfile生成）
      */
-    public static Map<TableEnum, ColumnFamilyDescriptor> getColumnFamilyDescriptors() {
+    public static Map<TableEnum, ColumnFamilyDescriptor> getColumnFamilyDescriptors(Map<TableEnum, ColumnFamilyOptions> optionsMap) {
         // 使用 LinkedHashMap 保持 TableEnum 定义的顺序
         Map<TableEnum, ColumnFamilyDescriptor> descriptors = new LinkedHashMap<>();
         for (TableEnum table : TableEnum.values()) {
@@ -72,7 +74,7 @@ public class RTable {
                     table,
                     new ColumnFamilyDescriptor(
                             table.getColumnFamilyName().getBytes(StandardCharsets.UTF_8), // 显式指定编码
-                            table.getColumnFamilyOptions()
+                            optionsMap.get(table)
                     )
             );
         }
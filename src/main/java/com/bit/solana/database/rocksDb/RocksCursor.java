@@ -0,0 +1,147 @@
+package com.bit.solana.database.rocksDb;
+
+import com.bit.solana.database.DbCursor;
+import org.rocksdb.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * RocksDB 游标实现
+ * 范围由 ReadOptions 的 iterate 上下界限定（RocksDB 内部截断，不再逐键比较），开启预读，扫描数据不污染块缓存
+ * 键值读入复用的直接内存缓冲区，容量不足时按需扩容，整个扫描过程内存占用恒定
+ */
+class RocksCursor implements DbCursor {
+    private static final int INITIAL_KEY_CAPACITY = 64;
+    private static final int INITIAL_VALUE_CAPACITY = 4 * 1024;
+
+    private final ReadOptions readOptions;
+    private final Slice lowerBound;
+    private final Slice upperBound;
+    private final RocksIterator iterator;
+    private final Runnable onClose;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private ByteBuffer keyBuffer = ByteBuffer.allocateDirect(INITIAL_KEY_CAPACITY);
+    private ByteBuffer valueBuffer = ByteBuffer.allocateDirect(INITIAL_VALUE_CAPACITY);
+    private boolean started;
+    private boolean valueLoaded;
+
+    /**
+     * @param startKey 起始键（包含，null 表示表头）
+     * @param endKey 结束键（不包含，null 表示表尾）
+     * @param snapshot 快照（null 表示读取最新数据）
+     * @param readaheadSize 预读字节数（0 表示使用RocksDB默认值）
+     * @param onClose 关闭时回调（释放数据库闸门）
+     */
+    RocksCursor(RocksDB db, ColumnFamilyHandle cfHandle, byte[] startKey, byte[] endKey, Snapshot snapshot,
+                long readaheadSize, Runnable onClose) {
+        this.onClose = onClose;
+        this.readOptions = new ReadOptions()
+                .setTotalOrderSeek(true)
+                .setFillCache(false)
+                .setReadaheadSize(readaheadSize);
+        if (snapshot != null) {
+            readOptions.setSnapshot(snapshot);
+        }
+        this.lowerBound = isEmpty(startKey) ? null : new Slice(startKey);
+        this.upperBound = isEmpty(endKey) ? null : new Slice(endKey);
+        if (lowerBound != null) {
+            readOptions.setIterateLowerBound(lowerBound);
+        }
+        if (upperBound != null) {
+            readOptions.setIterateUpperBound(upperBound);
+        }
+        this.iterator = db.newIterator(cfHandle, readOptions);
+    }
+
+    @Override
+    public boolean next() {
+        if (closed.get()) {
+            return false;
+        }
+        if (started) {
+            iterator.next();
+        } else {
+            iterator.seekToFirst();
+            started = true;
+        }
+        if (!iterator.isValid()) {
+            return false;
+        }
+        keyBuffer = read(keyBuffer, true);
+        valueLoaded = false;
+        return true;
+    }
+
+    @Override
+    public ByteBuffer key() {
+        return keyBuffer.asReadOnlyBuffer();
+    }
+
+    @Override
+    public ByteBuffer value() {
+        if (!valueLoaded) {
+            valueBuffer = read(valueBuffer, false);
+            valueLoaded = true;
+        }
+        return valueBuffer.asReadOnlyBuffer();
+    }
+
+    @Override
+    public byte[] keyBytes() {
+        return copy(keyBuffer);
+    }
+
+    @Override
+    public byte[] valueBytes() {
+        return copy(value());
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            iterator.close();
+            readOptions.close();
+            if (lowerBound != null) {
+                lowerBound.close();
+            }
+            if (upperBound != null) {
+                upperBound.close();
+            }
+        } finally {
+            onClose.run();
+        }
+    }
+
+    /**
+     * 读取当前键或值到缓冲区，容量不足时扩容后重读
+     */
+    private ByteBuffer read(ByteBuffer buffer, boolean key) {
+        buffer.clear();
+        int size = key ? iterator.key(buffer) : iterator.value(buffer);
+        if (size > buffer.capacity()) {
+            buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(size - 1) << 1);
+            if (key) {
+                iterator.key(buffer);
+            } else {
+                iterator.value(buffer);
+            }
+        }
+        return buffer;
+    }
+
+    private static byte[] copy(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+        return bytes;
+    }
+
+    private static boolean isEmpty(byte[] key) {
+        return key == null || key.length == 0;
+    }
+}
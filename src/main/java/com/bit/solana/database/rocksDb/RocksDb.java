@@ -2,21 +2,45 @@ package com.bit.solana.database.rocksDb;
 
 import com.bit.solana.config.SystemConfig;
 import com.bit.solana.database.DataBase;
+import com.bit.solana.database.DbCursor;
+import com.bit.solana.database.DbSnapshot;
+import com.bit.solana.database.DbTransaction;
 import com.bit.solana.database.KeyValueHandler;
+import com.bit.solana.database.TransactionConflictException;
+import com.bit.solana.monitor.impl.dto.DbMetrics;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.rocksdb.*;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 
@@ -27,6 +51,7 @@ public class RocksDb implements DataBase {
 
     /**
      * 增加布隆过滤器 快速准确判断 一个Key不存在  减少磁盘IO
+     * 每张表的布隆过滤器、块缓存、压缩、前缀提取器见 ColumnFamilyProfile
      */
 
     /**
@@ -38,13 +63,78 @@ public class RocksDb implements DataBase {
      */
 
     // 类中添加缓存实例（全局唯一）加速高频访问的完整业务对象查询  按照表隔离
-    private final Map<TableEnum, Cache<byte[], byte[]>> tableCaches = new ConcurrentHashMap<>();
+    // 键按内容比较（BytesKey），容量按字节加权（TableEnum.cacheSize 单位MB）
+    // 缓存的值数组不与调用方共享：放入时复制，命中时返回副本
+    private final Map<TableEnum, Cache<BytesKey, byte[]>> tableCaches = new ConcurrentHashMap<>();
+    // 每张表的写入版本：写入落盘后、同步缓存前递增；读取回填缓存前比较版本，期间有写入则不回填（避免旧值覆盖删除/更新）
+    private final AtomicLongArray cacheEpochs = new AtomicLongArray(TableEnum.values().length);
 
 
     private RocksDB db;
+    // 以乐观事务模式打开（db 即为该实例），非事务写入不受影响
+    private OptimisticTransactionDB txnDb;
+    // 全局读写锁：GLOBAL_LOCK 模式下保护所有数据操作，LIFECYCLE_GATE 模式下仅用于 打开/关闭 互斥
     private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    // 生命周期闸门：LIFECYCLE_GATE 模式下数据操作仅做引用计数，关闭时等待在途操作退出
+    private final LifecycleGate gate = new LifecycleGate();
+    // 并发模式（仅在createDatabase时根据配置确定，运行期间不可切换）
+    @Setter(AccessLevel.NONE)
+    private ConcurrencyMode concurrencyMode = ConcurrencyMode.LIFECYCLE_GATE;
     private String dbPath;
 
+    private static final long MB = 1024L * 1024L;
+    // 每个缓存条目的估算固定开销（对象头、包装键、哈希表节点）
+    private static final int ENTRY_OVERHEAD = 64;
+    // MultiGet 超过该键数时拆分为并行子批次
+    private static final int MULTI_GET_PARALLEL_THRESHOLD = 4096;
+    private static final int MULTI_GET_CHUNK_SIZE = 1024;
+
+    // 所有列族共享的LRU块缓存（默认大小 MB，可通过 system.db-block-cache-size 配置）
+    private static final long DEFAULT_BLOCK_CACHE_MB = 256;
+    // 扫描游标预读大小
+    private static final long SCAN_READAHEAD_BYTES = 2 * MB;
+    private LRUCache blockCache;
+    // 列族配置、布隆过滤器等原生对象（数据库关闭后统一释放）
+    private final List<AbstractNativeReference> nativeResources = new ArrayList<>();
+    // 范围扫描专用ReadOptions（全序迭代）
+    private ReadOptions scanReadOptions;
+
+    // 写入持久化策略（仅在createDatabase时根据配置确定）
+    private static final long DEFAULT_FSYNC_INTERVAL_MS = 200;
+    private static final long DEFAULT_GROUP_COMMIT_WINDOW_MICROS = 500;
+    private static final int GROUP_COMMIT_MAX_OPS = 100_000;
+    @Setter(AccessLevel.NONE)
+    private DurabilityPolicy durabilityPolicy = DurabilityPolicy.PERIODIC_FSYNC;
+    // 运行期WAL开关（enableWAL），关闭后所有写入跳过WAL
+    private volatile boolean walEnabled = true;
+    // 可重建的表：写入不记WAL
+    private final Set<TableEnum> noWalTables = EnumSet.noneOf(TableEnum.class);
+    // 预先创建的WriteOptions（只读共享，避免每次写入分配原生对象）
+    private WriteOptions syncWriteOptions;
+    private WriteOptions asyncWriteOptions;
+    private WriteOptions noWalWriteOptions;
+    // PERIODIC_FSYNC：后台定时刷WAL
+    private ScheduledExecutorService walSyncScheduler;
+    // 组提交写入线程（system.db-group-commit 开启时创建）
+    private GroupCommitWriter groupCommitWriter;
+    // 精确计数器（与数据在同一WriteBatch中维护，保存在默认列族）
+    private final TableCounters tableCounters = new TableCounters();
+    // 默认列族句柄（只保存计数器，不对应任何业务表）
+    private ColumnFamilyHandle defaultHandle;
+    // 范围删除后在后台修正精确计数
+    private volatile ExecutorService counterRepairExecutor;
+
+    // 后台压缩：待压缩字节数超过阈值时触发，刷盘/压缩写入按 RateLimiter 限速
+    private static final long DEFAULT_COMPACTION_RATE_LIMIT_MB = 64;
+    private static final long DEFAULT_COMPACTION_PENDING_THRESHOLD_MB = 1024;
+    private static final long DEFAULT_COMPACTION_CHECK_INTERVAL_SECONDS = 60;
+    private CompactionScheduler compactionScheduler;
+    private Statistics statistics;
+    private long rateLimitBytesPerSec;
+
+    // 共享的只读ReadOptions（创建后不再修改，可被多线程复用，避免每次读取分配原生对象）
+    private ReadOptions readOptions;
+
     @Override
     public boolean createDatabase(SystemConfig config) {
         String path = config.getPath();
@@ -52,12 +142,17 @@ public class RocksDb implements DataBase {
             return false;
         }
         dbPath = path;
+        if (config.getDbConcurrencyMode() != null) {
+            concurrencyMode = config.getDbConcurrencyMode();
+        }
 
         // 初始化时为每个表创建缓存（在createDatabase中）
         for (TableEnum table : TableEnum.values()) {
-            Cache<byte[], byte[]> cache = Caffeine.newBuilder()
-                    .maximumSize(getCacheMaxSize(table)) // 按表配置大小
-                    .expireAfterWrite(getCacheTtl(table), TimeUnit.MINUTES) // 按表配置过期时间
+            Cache<BytesKey, byte[]> cache = Caffeine.newBuilder()
+                    .maximumWeight(getCacheMaxSize(table)) // 按表配置大小（字节）
+                    .weigher((BytesKey k, byte[] v) -> k.length() + v.length + ENTRY_OVERHEAD)
+                    .expireAfterWrite(getCacheTtl(table), TimeUnit.SECONDS) // 按表配置过期时间
+                    .recordStats()
                     .build();
             tableCaches.put(table, cache);
         }
@@ -73,14 +168,26 @@ public class RocksDb implements DataBase {
             List<ColumnFamilyDescriptor> cfDescriptors = new ArrayList<>();
             List<ColumnFamilyHandle> cfHandles = new ArrayList<>();
 
-            // 1. 添加默认列族（索引0）
+            // 1. 添加默认列族（索引0）：保存精确计数器，以uint64add合并操作累加增量
+            ColumnFamilyOptions defaultOptions = new ColumnFamilyOptions().setMergeOperatorName(TableCounters.MERGE_OPERATOR);
+            nativeResources.add(defaultOptions);
             cfDescriptors.add(new ColumnFamilyDescriptor(
                     RocksDB.DEFAULT_COLUMN_FAMILY,
-                    new ColumnFamilyOptions()
+                    defaultOptions
             ));
 
-            // 2. 获取自定义列族描述符（用LinkedHashMap保证顺序）
-            Map<TableEnum, ColumnFamilyDescriptor> customDescriptors = RTable.getColumnFamilyDescriptors();
+            // 2. 按表调优配置生成列族配置（所有列族共享一个LRU块缓存），再获取自定义列族描述符（用LinkedHashMap保证顺序）
+            long blockCacheMb = config.getDbBlockCacheSize() != null ? config.getDbBlockCacheSize() : DEFAULT_BLOCK_CACHE_MB;
+            blockCache = new LRUCache(blockCacheMb * MB);
+            Map<TableEnum, ColumnFamilyOptions> optionsMap = new EnumMap<>(TableEnum.class);
+            for (TableEnum table : TableEnum.values()) {
+                ColumnFamilyProfile override = config.getTableProfiles() == null ? null
+                        : config.getTableProfiles().get(table.getColumnFamilyName());
+                ColumnFamilyProfile profile = table.getProfile().mergedWith(override);
+                optionsMap.put(table, profile.toOptions(blockCache, nativeResources));
+                log.info("表[{}]列族配置: {}", table, profile);
+            }
+            Map<TableEnum, ColumnFamilyDescriptor> customDescriptors = RTable.getColumnFamilyDescriptors(optionsMap);
             List<TableEnum> tableEnums = new ArrayList<>(customDescriptors.keySet());
 
             // 关键：将自定义列族描述符添加到cfDescriptors（否则不会创建）
@@ -93,8 +200,22 @@ public class RocksDb implements DataBase {
                     .setCreateIfMissing(true)
                     .setCreateMissingColumnFamilies(true)
                     .setInfoLogLevel(InfoLogLevel.ERROR_LEVEL);
+            // 统计信息（不含细粒度计时，开销很小），供 /monitor/server/db 展示
+            statistics = new Statistics();
+            statistics.setStatsLevel(StatsLevel.EXCEPT_DETAILED_TIMERS);
+            options.setStatistics(statistics);
+            nativeResources.add(statistics);
+            // 刷盘与压缩写入限速（自动调节），避免后台压缩抢占前台IO
+            long rateLimitMb = config.getDbCompactionRateLimitMb() != null ? config.getDbCompactionRateLimitMb() : DEFAULT_COMPACTION_RATE_LIMIT_MB;
+            rateLimitBytesPerSec = Math.max(0, rateLimitMb) * MB;
+            if (rateLimitBytesPerSec > 0) {
+                RateLimiter rateLimiter = new RateLimiter(rateLimitBytesPerSec, 100_000, 10, RateLimiterMode.WRITES_ONLY, true);
+                options.setRateLimiter(rateLimiter);
+                nativeResources.add(rateLimiter);
+            }
 
-            db = RocksDB.open(options, dbPath, cfDescriptors, cfHandles);
+            txnDb = OptimisticTransactionDB.open(options, dbPath, cfDescriptors, cfHandles);
+            db = txnDb;
 
             // 4. 绑定列族句柄（cfHandles顺序与cfDescriptors严格一致）
             // 校验句柄数量是否匹配（避免索引越界）
@@ -114,9 +235,29 @@ public class RocksDb implements DataBase {
                 log.debug("绑定表[{}]的列族句柄，索引: {}", table, handleIndex);
             }
 
+            initWritePipeline(config);
+            long pendingThresholdMb = config.getDbCompactionPendingThresholdMb() != null
+                    ? config.getDbCompactionPendingThresholdMb() : DEFAULT_COMPACTION_PENDING_THRESHOLD_MB;
+            long checkIntervalSeconds = config.getDbCompactionCheckIntervalSec() != null
+                    ? config.getDbCompactionCheckIntervalSec() : DEFAULT_COMPACTION_CHECK_INTERVAL_SECONDS;
+            compactionScheduler = new CompactionScheduler(db, gate, pendingThresholdMb * MB, checkIntervalSeconds);
+            readOptions = new ReadOptions();
+            // 范围扫描使用全序迭代：带前缀提取器的列族默认只保证同前缀内的迭代结果
+            scanReadOptions = new ReadOptions().setTotalOrderSeek(true);
+            defaultHandle = cfHandles.get(0);
+            tableCounters.bind(db, defaultHandle);
+            seedCounters();
+            counterRepairExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "rocksdb-counter-repair");
+                t.setDaemon(true);
+                return t;
+            });
+            gate.open();
+
             // 注册关闭钩子
             Runtime.getRuntime().addShutdownHook(new Thread(this::close));
-            log.info("RocksDB创建成功，路径: {}，列族总数: {}", dbPath, cfDescriptors.size());
+            log.info("RocksDB创建成功，路径: {}，列族总数: {}，并发模式: {}，持久化策略: {}，组提交: {}",
+                    dbPath, cfDescriptors.size(), concurrencyMode, durabilityPolicy, groupCommitWriter != null);
             return true;
         } catch (RocksDBException e) {
             log.error("创建RocksDB失败", e);
@@ -138,7 +279,10 @@ public class RocksDb implements DataBase {
 
     @Override
     public boolean isExist(TableEnum table, byte[] key) {
-        rwLock.readLock().lock();
+        if (cacheOf(table).getIfPresent(BytesKey.wrap(key)) != null) {
+            return true;
+        }
+        acquireRead();
         try {
             ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
             if (cfHandle == null) return false;
@@ -147,43 +291,19 @@ public class RocksDb implements DataBase {
             log.error("检查键是否存在失败, table={}", table, e);
             return false;
         } finally {
-            rwLock.readLock().unlock();
+            releaseRead();
         }
     }
 
 
     @Override
     public void insert(TableEnum table, byte[] key, byte[] value) {
-        rwLock.writeLock().lock();
-        try {
-            ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
-            if (cfHandle == null) {
-                throw new IllegalArgumentException("表不存在: " + table);
-            }
-            db.put(cfHandle, key, value);
-        } catch (RocksDBException e) {
-            log.error("插入数据失败, table={}", table, e);
-            throw new RuntimeException("插入数据失败", e);
-        } finally {
-            rwLock.writeLock().unlock();
-        }
+        writeSync(List.of(new DbOperation(table, key, value, DbOperation.OpType.INSERT)), "插入数据失败");
     }
 
     @Override
     public void delete(TableEnum table, byte[] key) {
-        rwLock.writeLock().lock();
-        try {
-            ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
-            if (cfHandle == null) {
-                throw new IllegalArgumentException("表不存在: " + table);
-            }
-            db.delete(cfHandle, key);
-        } catch (RocksDBException e) {
-            log.error("删除数据失败, table={}", table, e);
-            throw new RuntimeException("删除数据失败", e);
-        } finally {
-            rwLock.writeLock().unlock();
-        }
+        writeSync(List.of(new DbOperation(table, key, null, DbOperation.OpType.DELETE)), "删除数据失败");
     }
 
     @Override
@@ -195,7 +315,34 @@ public class RocksDb implements DataBase {
 
     @Override
     public byte[] get(TableEnum table, byte[] key) {
-        rwLock.readLock().lock();
+        Cache<BytesKey, byte[]> cache = cacheOf(table);
+        byte[] cached = cache.getIfPresent(BytesKey.wrap(key));
+        if (cached != null) {
+            return cached.clone();
+        }
+        // 未命中：先记录写入版本，在缓存之外读取（不在Caffeine的加载/compute中持有数据库锁），再按版本回填
+        long epoch = cacheEpochs.get(table.ordinal());
+        byte[] value = load(table, key);
+        if (value != null) {
+            backfill(table, BytesKey.copyOf(key), value, epoch);
+        }
+        return value;
+    }
+
+    /**
+     * 回填缓存：与写入方的 put/invalidate 在同一个键上互斥执行，
+     * 读取之后表有过写入（版本变化）则不回填，已有缓存值（并发写入放入的新值）不覆盖
+     */
+    private void backfill(TableEnum table, BytesKey key, byte[] value, long epoch) {
+        cacheOf(table).asMap().compute(key, (k, current) ->
+                current != null || cacheEpochs.get(table.ordinal()) != epoch ? current : value.clone());
+    }
+
+    /**
+     * 从RocksDB读取单个键（调用方不能处在缓存的加载/compute中）
+     */
+    private byte[] load(TableEnum table, byte[] key) {
+        acquireRead();
         try {
             ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
             if (cfHandle == null) return null;
@@ -204,84 +351,212 @@ public class RocksDb implements DataBase {
             log.error("获取数据失败, table={}", table, e);
             throw new RuntimeException("获取数据失败", e);
         } finally {
-            rwLock.readLock().unlock();
+            releaseRead();
         }
     }
 
     @Override
     public int count(TableEnum table) {
-        rwLock.readLock().lock();
-        RocksIterator iterator = null;
+        return (int) Math.min(Integer.MAX_VALUE, count(table, table.getCountMode()));
+    }
+
+    @Override
+    public long count(TableEnum table, CountMode mode) {
+        if (mode == CountMode.EXACT && !tableCounters.isCounted(table)) {
+            // 不静默退化为全表扫描（ACCOUNT 等大表扫描为 O(n)），需要时由调用方显式使用 SCAN
+            throw new IllegalArgumentException("表[" + table + "]未维护精确计数，请使用 ESTIMATED 或 SCAN");
+        }
+        acquireRead();
         try {
             ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
             if (cfHandle == null) return 0;
-            iterator = db.newIterator(cfHandle);
+            switch (mode) {
+                case ESTIMATED:
+                    return db.getLongProperty(cfHandle, "rocksdb.estimate-num-keys");
+                case EXACT:
+                    if (tableCounters.isStale(table)) {
+                        log.debug("表[{}]范围删除后计数修正尚未完成，返回估算值", table);
+                        return db.getLongProperty(cfHandle, "rocksdb.estimate-num-keys");
+                    }
+                    long count = tableCounters.get(table);
+                    if (count >= 0) {
+                        return count;
+                    }
+                    // 计数器在启动时初始化，正常情况下不会缺失
+                    log.warn("表[{}]精确计数器缺失，退化为全表扫描", table);
+                    return scanCount(cfHandle);
+                default:
+                    return scanCount(cfHandle);
+            }
+        } catch (RocksDBException e) {
+            log.error("统计数量失败, table={}", table, e);
+            throw new RuntimeException("统计数量失败", e);
+        } finally {
+            releaseRead();
+        }
+    }
+
+    private long scanCount(ColumnFamilyHandle cfHandle) {
+        try (RocksIterator iterator = db.newIterator(cfHandle, scanReadOptions)) {
             iterator.seekToFirst();
-            int count = 0;
+            long count = 0;
             while (iterator.isValid()) {
                 count++;
                 iterator.next();
             }
             return count;
-        } finally {
-            if (iterator != null) iterator.close();
-            rwLock.readLock().unlock();
         }
     }
 
-    @Override
-    public void batchInsert(TableEnum table, byte[][] keys, byte[][] values) {
-        if (keys.length != values.length) {
-            throw new IllegalArgumentException("键值数组长度不匹配");
+    private void scheduleCounterRepair(TableEnum table) {
+        ExecutorService executor = counterRepairExecutor;
+        if (executor == null) {
+            return;
         }
+        try {
+            executor.execute(() -> repairCounter(table));
+        } catch (RejectedExecutionException e) {
+            // 正在关闭：失效标记已持久化，下次启动时重新统计
+            log.debug("表[{}]精确计数修正未提交，数据库正在关闭", table);
+        }
+    }
 
-        rwLock.writeLock().lock();
-        WriteBatch writeBatch = new WriteBatch();
-        WriteOptions writeOptions = new WriteOptions();
+    /**
+     * 范围删除后修正精确计数（后台线程）
+     * 持表锁取快照并读取快照时刻的计数器（持锁期间没有该表的写入在途，二者一致），
+     * 释放锁后在快照上扫描全表，再持锁按差值修正；扫描期间的写入照常进行并累加到计数器
+     */
+    private void repairCounter(TableEnum table) {
+        if (!gate.enter()) {
+            return;
+        }
+        Snapshot snapshot = null;
         try {
             ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
-            if (cfHandle == null) {
-                throw new IllegalArgumentException("表不存在: " + table);
+            long generation;
+            long counterAtSnapshot;
+            List<ReentrantLock> held = tableCounters.lock(EnumSet.of(table));
+            try {
+                generation = tableCounters.staleGeneration(table);
+                if (generation < 0) {
+                    return;
+                }
+                snapshot = db.getSnapshot();
+                counterAtSnapshot = Math.max(0, tableCounters.get(table));
+            } finally {
+                TableCounters.unlock(held);
             }
 
-            for (int i = 0; i < keys.length; i++) {
-                writeBatch.put(cfHandle, keys[i], values[i]);
+            long scanned = 0;
+            try (ReadOptions options = new ReadOptions().setTotalOrderSeek(true).setSnapshot(snapshot);
+                 RocksIterator iterator = db.newIterator(cfHandle, options)) {
+                iterator.seekToFirst();
+                while (iterator.isValid()) {
+                    if ((++scanned & 0xFFFF) == 0 && Thread.currentThread().isInterrupted()) {
+                        log.info("表[{}]精确计数修正被中断，下次启动时重新统计", table);
+                        return;
+                    }
+                    iterator.next();
+                }
             }
-            db.write(writeOptions, writeBatch);
-        } catch (RocksDBException e) {
-            log.error("批量插入失败, table={}", table, e);
-            throw new RuntimeException("批量插入失败", e);
+
+            held = tableCounters.lock(EnumSet.of(table));
+            try {
+                if (tableCounters.correct(table, generation, scanned, counterAtSnapshot)) {
+                    log.info("表[{}]范围删除后精确计数已修正: {}", table, tableCounters.get(table));
+                }
+            } finally {
+                TableCounters.unlock(held);
+            }
+        } catch (RocksDBException | RuntimeException e) {
+            log.warn("表[{}]精确计数修正失败，下次启动时重新统计", table, e);
         } finally {
-            writeBatch.close();
-            writeOptions.close();
-            rwLock.writeLock().unlock();
+            if (snapshot != null) {
+                db.releaseSnapshot(snapshot);
+            }
+            gate.exit();
         }
     }
 
+    @Override
+    public void batchInsert(TableEnum table, byte[][] keys, byte[][] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("键值数组长度不匹配");
+        }
+        writeSync(toOperations(table, keys, values), "批量插入失败");
+    }
+
 
     @Override
     public void batchDelete(TableEnum table, byte[][] keys) {
-        rwLock.writeLock().lock();
-        WriteBatch writeBatch = new WriteBatch();
-        WriteOptions writeOptions = new WriteOptions();
+        List<DbOperation> operations = new ArrayList<>(keys.length);
+        for (byte[] key : keys) {
+            operations.add(new DbOperation(table, key, null, DbOperation.OpType.DELETE));
+        }
+        writeSync(operations, "批量删除失败");
+    }
+
+    /**
+     * 同步写入一组操作：开启组提交时进入组提交队列并等待该组写入完成（刷盘方式由持久化策略决定），否则直接原子写入
+     */
+    private void writeSync(List<DbOperation> operations, String errorMessage) {
+        if (groupCommitWriter != null) {
+            groupCommitWriter.submit(operations).join();
+            return;
+        }
+        acquireWrite();
         try {
-            ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
-            if (cfHandle == null) {
-                throw new IllegalArgumentException("表不存在: " + table);
-            }
+            writeOperations(operations, writeOptionsFor(operations));
+        } catch (RocksDBException e) {
+            log.error(errorMessage, e);
+            throw new RuntimeException(errorMessage, e);
+        } finally {
+            releaseWrite();
+        }
+    }
 
-            for (byte[] key : keys) {
-                writeBatch.delete(cfHandle, key);
+    /**
+     * 把一组操作构建为一个WriteBatch原子写入（调用方负责闸门/锁）
+     */
+    private void writeOperations(List<DbOperation> operations, WriteOptions writeOptions) throws RocksDBException {
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            for (DbOperation op : operations) {
+                appendOperation(writeBatch, op);
             }
+            commitBatch(writeBatch, operations, writeOptions);
+        }
+    }
+
+    private void appendOperation(WriteBatch writeBatch, DbOperation op) throws RocksDBException {
+        ColumnFamilyHandle cfHandle = getColumnFamilyHandle(op.table);
+        if (cfHandle == null) {
+            throw new IllegalArgumentException("表不存在: " + op.table);
+        }
+        switch (op.type) {
+            case INSERT:
+            case UPDATE:
+                writeBatch.put(cfHandle, op.key, op.value);
+                break;
+            case DELETE:
+                writeBatch.delete(cfHandle, op.key);
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的操作类型: " + op.type);
+        }
+    }
+
+    /**
+     * 提交WriteBatch：为精确计数表在同一批次内追加计数增量，写入成功后同步缓存
+     */
+    private void commitBatch(WriteBatch writeBatch, List<DbOperation> operations, WriteOptions writeOptions) throws RocksDBException {
+        List<ReentrantLock> counterLocks = tableCounters.lock(operations);
+        try {
+            tableCounters.appendDeltas(writeBatch, operations);
             db.write(writeOptions, writeBatch);
-        } catch (RocksDBException e) {
-            log.error("批量删除失败, table={}", table, e);
-            throw new RuntimeException("批量删除失败", e);
         } finally {
-            writeBatch.close();
-            writeOptions.close();
-            rwLock.writeLock().unlock();
+            TableCounters.unlock(counterLocks);
         }
+        applyToCache(operations);
     }
 
     @Override
@@ -293,29 +568,159 @@ public class RocksDb implements DataBase {
 
     @Override
     public byte[][] batchGet(TableEnum table, byte[][] keys) {
-        rwLock.readLock().lock();
-        try {
-            ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
-            if (cfHandle == null) {
-                return new byte[0][];
-            }
+        if (getColumnFamilyHandle(table) == null) {
+            return new byte[0][];
+        }
+        TableEnum[] tables = new TableEnum[keys.length];
+        Arrays.fill(tables, table);
+        return batchGet(tables, keys);
+    }
 
-            List<byte[]> results = new ArrayList<>(keys.length);
-            for (byte[] key : keys) {
-                results.add(db.get(cfHandle, key));
+    /**
+     * 跨表批量获取（基于RocksDB MultiGet，一次JNI调用读取一批键）
+     * 1. 先查各表缓存，只对未命中的键访问RocksDB
+     * 2. 未命中的键按（列族、键）排序，使MultiGet按SST顺序访问数据块
+     * 3. 键数量超过阈值时按排序后的连续区段拆分，并行执行
+     */
+    @Override
+    public byte[][] batchGet(TableEnum[] tables, byte[][] keys) {
+        if (tables.length != keys.length) {
+            throw new IllegalArgumentException("表数组与键数组长度不匹配");
+        }
+        byte[][] results = new byte[keys.length][];
+        int[] misses = new int[keys.length];
+        int missCount = 0;
+        for (int i = 0; i < keys.length; i++) {
+            byte[] cached = cacheOf(tables[i]).getIfPresent(BytesKey.wrap(keys[i]));
+            if (cached != null) {
+                results[i] = cached.clone();
+            } else {
+                misses[missCount++] = i;
             }
-            return results.toArray(new byte[0][]);
+        }
+        if (missCount == 0) {
+            return results;
+        }
+
+        int[] sorted = sortForMultiGet(misses, missCount, tables, keys);
+        long[] epochs = new long[cacheEpochs.length()];
+        for (int i = 0; i < epochs.length; i++) {
+            epochs[i] = cacheEpochs.get(i);
+        }
+        acquireRead();
+        try {
+            multiGet(readOptions, sorted, tables, keys, results);
         } catch (RocksDBException e) {
-            log.error("批量获取失败, table={}", table, e);
+            log.error("批量获取失败", e);
             throw new RuntimeException("批量获取失败", e);
         } finally {
-            rwLock.readLock().unlock();
+            releaseRead();
+        }
+
+        // 回填缓存：读取之后该表有过写入则不回填（并发删除不会被旧值复活）
+        for (int i : sorted) {
+            if (results[i] != null) {
+                backfill(tables[i], BytesKey.copyOf(keys[i]), results[i], epochs[tables[i].ordinal()]);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 按 (列族, 无符号键) 排序待读取的下标，使MultiGet顺序访问SST
+     */
+    static int[] sortForMultiGet(int[] idx, int count, TableEnum[] tables, byte[][] keys) {
+        return Arrays.stream(idx, 0, count)
+                .boxed()
+                .sorted((a, b) -> {
+                    int c = Integer.compare(tables[a].ordinal(), tables[b].ordinal());
+                    return c != 0 ? c : Arrays.compareUnsigned(keys[a], keys[b]);
+                })
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * 对已排序的下标执行MultiGet，数量较大时分块并行
+     * @param options 读选项（快照读取时携带快照）
+     */
+    void multiGet(ReadOptions options, int[] sorted, TableEnum[] tables, byte[][] keys, byte[][] results) throws RocksDBException {
+        if (sorted.length <= MULTI_GET_PARALLEL_THRESHOLD) {
+            multiGet(options, sorted, 0, sorted.length, tables, keys, results);
+            return;
+        }
+        int chunks = (sorted.length + MULTI_GET_CHUNK_SIZE - 1) / MULTI_GET_CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * MULTI_GET_CHUNK_SIZE;
+            int to = Math.min(from + MULTI_GET_CHUNK_SIZE, sorted.length);
+            try {
+                multiGet(options, sorted, from, to, tables, keys, results);
+            } catch (RocksDBException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * 对 idx[from, to) 指向的键执行一次MultiGet，结果写回results对应位置
+     */
+    private void multiGet(ReadOptions options, int[] idx, int from, int to, TableEnum[] tables, byte[][] keys, byte[][] results) throws RocksDBException {
+        List<ColumnFamilyHandle> handles = new ArrayList<>(to - from);
+        List<byte[]> batchKeys = new ArrayList<>(to - from);
+        for (int j = from; j < to; j++) {
+            ColumnFamilyHandle cfHandle = getColumnFamilyHandle(tables[idx[j]]);
+            if (cfHandle == null) {
+                throw new IllegalArgumentException("表不存在: " + tables[idx[j]]);
+            }
+            handles.add(cfHandle);
+            batchKeys.add(keys[idx[j]]);
+        }
+        List<byte[]> values = db.multiGetAsList(options, handles, batchKeys);
+        for (int j = from; j < to; j++) {
+            results[idx[j]] = values.get(j - from);
         }
     }
 
     @Override
     public void close() {
-        if (db != null) {
+        rwLock.writeLock().lock();
+        try {
+            if (db == null) {
+                return;
+            }
+            // 先写完组提交队列、停止WAL定时刷盘
+            if (groupCommitWriter != null) {
+                groupCommitWriter.close();
+                groupCommitWriter = null;
+            }
+            if (walSyncScheduler != null) {
+                walSyncScheduler.shutdownNow();
+                walSyncScheduler = null;
+            }
+            if (compactionScheduler != null) {
+                compactionScheduler.close();
+                compactionScheduler = null;
+            }
+            // 中断进行中的计数修正（未完成的修正在下次启动时按失效标记重新统计）
+            if (counterRepairExecutor != null) {
+                counterRepairExecutor.shutdownNow();
+                counterRepairExecutor = null;
+            }
+            // 回滚未结束的事务（事务占用闸门）
+            for (RocksTransaction transaction : new ArrayList<>(transactionMap.values())) {
+                transaction.rollback();
+            }
+            // 再关闭闸门，等待在途的读写/压缩操作全部退出后再释放原生资源
+            if (!gate.closeAndAwait(30, TimeUnit.SECONDS)) {
+                log.warn("等待在途操作退出超时，剩余操作数: {}", gate.inFlight());
+            }
+            if (durabilityPolicy == DurabilityPolicy.PERIODIC_FSYNC) {
+                try {
+                    db.flushWal(true);
+                } catch (RocksDBException e) {
+                    log.warn("关闭前刷WAL失败", e);
+                }
+            }
             // 从TableEnum遍历所有表，释放对应列族句柄（适配新的集中管理逻辑）
             for (TableEnum table : TableEnum.values()) {
                 ColumnFamilyHandle handle = RTable.getColumnFamilyHandle(table);
@@ -324,9 +729,40 @@ public class RocksDb implements DataBase {
                     log.debug("已关闭表[{}]的列族句柄", table);
                 }
             }
+            if (readOptions != null) {
+                readOptions.close();
+                readOptions = null;
+            }
+            if (scanReadOptions != null) {
+                scanReadOptions.close();
+                scanReadOptions = null;
+            }
+            if (defaultHandle != null) {
+                defaultHandle.close();
+                defaultHandle = null;
+            }
             db.close();
             db = null;
+            for (WriteOptions writeOptions : new WriteOptions[]{syncWriteOptions, asyncWriteOptions, noWalWriteOptions}) {
+                if (writeOptions != null) {
+                    writeOptions.close();
+                }
+            }
+            syncWriteOptions = null;
+            asyncWriteOptions = null;
+            noWalWriteOptions = null;
+            // 列族配置、过滤器、共享块缓存需在数据库关闭后释放
+            for (AbstractNativeReference resource : nativeResources) {
+                resource.close();
+            }
+            nativeResources.clear();
+            if (blockCache != null) {
+                blockCache.close();
+                blockCache = null;
+            }
             log.info("RocksDB连接已关闭");
+        } finally {
+            rwLock.writeLock().unlock();
         }
     }
 
@@ -340,14 +776,127 @@ public class RocksDb implements DataBase {
      */
     @Override
     public void compact(byte[] start, byte[] limit) {
-        rwLock.writeLock().lock();
+        // 在后台压缩线程执行，不持有应用锁，读写照常进行
+        compactAsync(null, start, limit).join();
+    }
+
+    @Override
+    public CompletableFuture<Void> compactAsync(TableEnum table, byte[] start, byte[] limit) {
+        CompactionScheduler scheduler = compactionScheduler;
+        if (scheduler == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("数据库未打开或正在关闭"));
+        }
+        return scheduler.submit(table, start, limit);
+    }
+
+    @Override
+    public DbMetrics getMetrics() {
+        DbMetrics metrics = new DbMetrics();
+        if (!gate.enter()) {
+            return metrics;
+        }
         try {
-            if (db == null) return;
-            db.compactRange(start, limit);
+            long hit = statistics.getTickerCount(TickerType.BLOCK_CACHE_HIT);
+            long miss = statistics.getTickerCount(TickerType.BLOCK_CACHE_MISS);
+            metrics.setStallMicros(statistics.getTickerCount(TickerType.STALL_MICROS));
+            metrics.setBlockCacheHit(hit);
+            metrics.setBlockCacheMiss(miss);
+            metrics.setBlockCacheHitRatio(hit + miss == 0 ? 0 : Math.round(hit * 10000.0 / (hit + miss)) / 100.0);
+            metrics.setBlockCacheUsage(blockCache.getUsage());
+            metrics.setBytesRead(statistics.getTickerCount(TickerType.BYTES_READ));
+            metrics.setBytesWritten(statistics.getTickerCount(TickerType.BYTES_WRITTEN));
+            metrics.setCompactReadBytes(statistics.getTickerCount(TickerType.COMPACT_READ_BYTES));
+            metrics.setCompactWriteBytes(statistics.getTickerCount(TickerType.COMPACT_WRITE_BYTES));
+            metrics.setFlushWriteBytes(statistics.getTickerCount(TickerType.FLUSH_WRITE_BYTES));
+            metrics.setBlobBytesWritten(statistics.getTickerCount(TickerType.BLOB_DB_BLOB_FILE_BYTES_WRITTEN));
+            metrics.setRunningCompactions(db.getLongProperty("rocksdb.num-running-compactions"));
+            metrics.setRateLimitBytesPerSec(rateLimitBytesPerSec);
+            metrics.setTriggeredCompactions(compactionScheduler.getTriggeredCompactions());
+            metrics.setManualCompactions(compactionScheduler.getManualCompactions());
+
+            List<DbMetrics.ColumnFamilyMetrics> columnFamilies = new ArrayList<>();
+            long pendingTotal = 0;
+            for (TableEnum table : TableEnum.values()) {
+                ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
+                if (cfHandle == null) {
+                    continue;
+                }
+                DbMetrics.ColumnFamilyMetrics cf = new DbMetrics.ColumnFamilyMetrics();
+                cf.setName(table.getColumnFamilyName());
+                cf.setMemtableBytes(db.getLongProperty(cfHandle, "rocksdb.cur-size-all-mem-tables"));
+                cf.setImmutableMemtables(db.getLongProperty(cfHandle, "rocksdb.num-immutable-mem-table"));
+                cf.setLevel0Files(db.getLongProperty(cfHandle, "rocksdb.num-files-at-level0"));
+                cf.setPendingCompactionBytes(db.getLongProperty(cfHandle, "rocksdb.estimate-pending-compaction-bytes"));
+                cf.setLiveSstBytes(db.getLongProperty(cfHandle, "rocksdb.live-sst-files-size"));
+                cf.setLiveBlobBytes(db.getLongProperty(cfHandle, "rocksdb.live-blob-file-size"));
+                cf.setEstimateKeys(db.getLongProperty(cfHandle, "rocksdb.estimate-num-keys"));
+                // cfstats 中 Sum 行为该列族所有层级的压缩/刷盘IO（单位GB）
+                Map<String, String> cfStats = db.getMapProperty(cfHandle, "rocksdb.cfstats");
+                cf.setCompactionReadBytes(gbToBytes(cfStats.get("compaction.Sum.ReadGB")));
+                cf.setCompactionWriteBytes(gbToBytes(cfStats.get("compaction.Sum.WriteGB")));
+                pendingTotal += cf.getPendingCompactionBytes();
+                columnFamilies.add(cf);
+            }
+            metrics.setPendingCompactionBytes(pendingTotal);
+            metrics.setColumnFamilies(columnFamilies);
         } catch (RocksDBException e) {
-            throw new RuntimeException(e);
+            log.warn("采集数据库指标失败", e);
         } finally {
-            rwLock.writeLock().unlock();
+            gate.exit();
+        }
+        return metrics;
+    }
+
+    private static long gbToBytes(String gb) {
+        if (gb == null || gb.isEmpty()) {
+            return 0;
+        }
+        try {
+            return (long) (Double.parseDouble(gb) * 1024 * MB);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public DbSnapshot openSnapshot() {
+        if (!gate.enter()) {
+            throw new IllegalStateException("数据库未打开或正在关闭");
+        }
+        try {
+            return new RocksSnapshot(this, db, gate::exit);
+        } catch (RuntimeException e) {
+            gate.exit();
+            throw e;
+        }
+    }
+
+    /**
+     * 创建检查点：SST文件硬链接到目标目录（同一文件系统内秒级完成，不复制数据），
+     * 内存表先刷盘，生成的目录可直接作为数据库打开，用于向同步中的节点提供完整状态
+     * @param path 目标目录（必须不存在）
+     */
+    @Override
+    public void createCheckpoint(String path) {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("检查点路径不能为空");
+        }
+        if (new File(path).exists()) {
+            throw new IllegalArgumentException("检查点目录已存在: " + path);
+        }
+        acquireRead();
+        long begin = System.currentTimeMillis();
+        try (Checkpoint checkpoint = Checkpoint.create(db)) {
+            if (walEnabled && durabilityPolicy == DurabilityPolicy.PERIODIC_FSYNC) {
+                db.flushWal(true);
+            }
+            checkpoint.createCheckpoint(path);
+            log.info("检查点创建完成: {}，耗时{}ms", path, System.currentTimeMillis() - begin);
+        } catch (RocksDBException e) {
+            log.error("创建检查点失败: {}", path, e);
+            throw new RuntimeException("创建检查点失败", e);
+        } finally {
+            releaseRead();
         }
     }
 
@@ -364,6 +913,13 @@ public class RocksDb implements DataBase {
      */
     @Override
     public <T> PageResult<T> page(TableEnum table, int pageSize, byte[] lastKey) {
+        return page(table, pageSize, lastKey, null);
+    }
+
+    /**
+     * 分页查询（snapshot 非空时在快照上读取，多次翻页看到同一版本数据）
+     */
+    <T> PageResult<T> page(TableEnum table, int pageSize, byte[] lastKey, Snapshot snapshot) {
         // 校验参数
         if (pageSize <= 0 || pageSize > 1000) {
             throw new IllegalArgumentException("pageSize 必须在 1-1000 之间");
@@ -372,53 +928,34 @@ public class RocksDb implements DataBase {
             throw new IllegalArgumentException("表名不能为空");
         }
 
-        rwLock.readLock().lock();
-        RocksIterator iterator = null;
-        try {
-            ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
-            if (cfHandle == null) {
-                // 返回空结果（泛型为 T，这里用 Collections.emptyList() 兼容）
-                return new PageResult<>(Collections.emptyList(), null, true);
-            }
+        ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
+        if (cfHandle == null) {
+            // 返回空结果（泛型为 T，这里用 Collections.emptyList() 兼容）
+            return new PageResult<>(Collections.emptyList(), null, true);
+        }
 
-            iterator = db.newIterator(cfHandle);
+        boolean hasLastKey = lastKey != null && lastKey.length > 0;
+        try (DbCursor cursor = openCursor(cfHandle, hasLastKey ? lastKey : null, null, snapshot)) {
             List<T> dataList = new ArrayList<>(pageSize);
             byte[] currentLastKey = null;
-
-            // 定位迭代器起始位置
-            if (lastKey != null && lastKey.length > 0) {
-                iterator.seek(lastKey);
-                if (iterator.isValid() && Arrays.equals(iterator.key(), lastKey)) {
-                    iterator.next(); // 跳过上一页最后一个键
-                }
-            } else {
-                iterator.seekToFirst(); // 第一页从开头开始
+            boolean hasNext = cursor.next();
+            // 跳过上一页最后一个键
+            if (hasNext && hasLastKey && cursor.key().equals(ByteBuffer.wrap(lastKey))) {
+                hasNext = cursor.next();
             }
 
             // 读取 pageSize 条数据
-            int count = 0;
-            while (iterator.isValid() && count < pageSize) {
-                byte[] key = iterator.key();
-                byte[] value = iterator.value();
-
+            while (hasNext && dataList.size() < pageSize) {
                 // 关键：根据 T 的类型处理 value（这里以 byte[] 为例，如需其他类型需反序列化）
                 // 若 T 是自定义对象（如 UTXO），需用 SerializeUtils.deSerialize(value) 转换
-                T data = (T) value; // 类型转换（实际使用时需根据 T 调整，避免强转异常）
+                T data = (T) cursor.valueBytes(); // 类型转换（实际使用时需根据 T 调整，避免强转异常）
                 dataList.add(data);
-
-                currentLastKey = key.clone(); // 保存当前页最后一个键
-                iterator.next();
-                count++;
+                currentLastKey = cursor.keyBytes(); // 保存当前页最后一个键
+                hasNext = cursor.next();
             }
 
             // 判断是否为最后一页
-            boolean isLastPage = !iterator.isValid();
-            return new PageResult<>(dataList, currentLastKey, isLastPage);
-        } finally {
-            if (iterator != null) {
-                iterator.close();
-            }
-            rwLock.readLock().unlock();
+            return new PageResult<>(dataList, currentLastKey, !hasNext);
         }
     }
 
@@ -433,172 +970,354 @@ public class RocksDb implements DataBase {
             log.warn("事务操作列表为空，无需执行");
             return true;
         }
-
-        rwLock.writeLock().lock();
-        WriteBatch writeBatch = null;
-        WriteOptions writeOptions = null;
-        try {
-            writeBatch = new WriteBatch();
-            writeOptions = new WriteOptions();
-            writeOptions.setSync(false); // 非同步写入（性能优先，若需强一致性可设为 true）
-
-            // 1. 校验所有操作的表（列族）是否存在，并添加到事务批次
-            for (DbOperation op : operations) {
-                ColumnFamilyHandle cfHandle = getColumnFamilyHandle(op.table);
-                if (cfHandle == null) {
-                    throw new IllegalArgumentException("事务中存在不存在的表: " + op.table);
-                }
-
-                switch (op.type) {
-                    case INSERT:
-                    case UPDATE:
-                        writeBatch.put(cfHandle, op.key, op.value);
-                        break;
-                    case DELETE:
-                        writeBatch.delete(cfHandle, op.key);
-                        break;
-                    default:
-                        throw new IllegalArgumentException("不支持的操作类型: " + op.type);
-                }
+        if (groupCommitWriter != null) {
+            try {
+                groupCommitWriter.submit(operations).join();
+                return true;
+            } catch (CompletionException e) {
+                log.error("事务执行失败", e.getCause());
+                return false;
             }
+        }
 
-            // 2. 执行事务（原子提交）
-            db.write(writeOptions, writeBatch);
+        acquireWrite();
+        try {
+            // 校验所有操作的表（列族）是否存在，并在一个批次内原子提交（刷盘方式由持久化策略决定）
+            writeOperations(operations, writeOptionsFor(operations));
             log.info("事务执行成功，操作数: {}", operations.size());
             return true;
-
         } catch (RocksDBException e) {
             log.error("事务执行失败", e);
             return false; // 失败时，RocksDB 会自动回滚（WriteBatch 要么全成功，要么全失败）
         } finally {
-            // 释放资源
-            if (writeBatch != null) {
-                writeBatch.close();
-            }
-            if (writeOptions != null) {
-                writeOptions.close();
-            }
-            rwLock.writeLock().unlock();
+            releaseWrite();
         }
     }
 
     @Override
     public <T> List<KeyValue<T>> rangeQuery(TableEnum table, byte[] startKey, byte[] endKey) {
-        return rangeQueryWithLimit(table, startKey, endKey, Integer.MAX_VALUE); // 无限制条数
+        return rangeQueryWithLimit(table, startKey, endKey, Integer.MAX_VALUE); // 无限制条数（结果按需扩容）
     }
 
     @Override
     public <T> List<KeyValue<T>> rangeQueryWithLimit(TableEnum table, byte[] startKey, byte[] endKey, int limit) {
+        return rangeQueryWithLimit(table, startKey, endKey, limit, null);
+    }
+
+    <T> List<KeyValue<T>> rangeQueryWithLimit(TableEnum table, byte[] startKey, byte[] endKey, int limit, Snapshot snapshot) {
         if (table == null  || limit <= 0) {
             throw new IllegalArgumentException("无效参数：表名不能为空或limit必须为正数");
         }
+        ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
+        if (cfHandle == null) {
+            return Collections.emptyList();
+        }
 
-        rwLock.readLock().lock();
-        RocksIterator iterator = null;
-        try {
-            ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
-            if (cfHandle == null) {
-                return Collections.emptyList();
+        // 范围 [startKey, endKey) 由游标的上下界截断
+        try (DbCursor cursor = openCursor(cfHandle, startKey, endKey, snapshot)) {
+            List<KeyValue<T>> result = new ArrayList<>(Math.min(limit, 1024));
+            while (result.size() < limit && cursor.next()) {
+                KeyValue<T> kv = new KeyValue<>();
+                kv.setKey(cursor.keyBytes());
+                kv.setValue((T) cursor.valueBytes()); // 实际使用时需反序列化（如：SerializeUtils.deSerialize(value)）
+                result.add(kv);
             }
+            return result;
+        }
+    }
 
-            iterator = db.newIterator(cfHandle);
-            List<KeyValue<T>> result = new ArrayList<>(limit);
+    @Override
+    public DbCursor openCursor(TableEnum table, byte[] startKey, byte[] endKey) {
+        return openCursor(table, startKey, endKey, null);
+    }
 
-            // 定位起始位置
-            if (startKey != null && startKey.length > 0) {
-                iterator.seek(startKey);
-            } else {
-                iterator.seekToFirst();
-            }
+    DbCursor openCursor(TableEnum table, byte[] startKey, byte[] endKey, Snapshot snapshot) {
+        if (table == null) {
+            throw new IllegalArgumentException("表名不能为空");
+        }
+        ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
+        if (cfHandle == null) {
+            throw new IllegalArgumentException("表[" + table + "]不存在");
+        }
+        return openCursor(cfHandle, startKey, endKey, snapshot);
+    }
 
-            // 遍历范围 [startKey, endKey)
-            while (iterator.isValid() && result.size() < limit) {
-                byte[] currentKey = iterator.key();
-                // 超出endKey范围则停止
-                if (endKey != null && endKey.length > 0 && Arrays.compare(currentKey, endKey) >= 0) {
-                    break;
-                }
+    /**
+     * 打开游标：游标存活期间占用生命周期闸门（不论并发模式），保证关库时等待游标关闭
+     * 不使用全局读锁，游标可在其他线程关闭
+     */
+    private DbCursor openCursor(ColumnFamilyHandle cfHandle, byte[] startKey, byte[] endKey, Snapshot snapshot) {
+        if (!gate.enter()) {
+            throw new IllegalStateException("数据库未打开或正在关闭");
+        }
+        try {
+            return new RocksCursor(db, cfHandle, startKey, endKey, snapshot, SCAN_READAHEAD_BYTES, gate::exit);
+        } catch (RuntimeException e) {
+            gate.exit();
+            throw e;
+        }
+    }
 
-                // 封装键值对（支持泛型转换）
-                KeyValue<T> kv = new KeyValue<>();
-                kv.setKey(currentKey.clone()); // 克隆避免迭代器复用导致的数组覆盖
-                kv.setValue((T) iterator.value()); // 实际使用时需反序列化（如：SerializeUtils.deSerialize(iterator.value())）
-                result.add(kv);
+    @Override
+    public <R> Stream<R> stream(TableEnum table, byte[] startKey, byte[] endKey, Function<DbCursor, R> mapper) {
+        return stream(table, startKey, endKey, mapper, null);
+    }
 
-                iterator.next();
+    <R> Stream<R> stream(TableEnum table, byte[] startKey, byte[] endKey, Function<DbCursor, R> mapper, Snapshot snapshot) {
+        if (table == null || mapper == null) {
+            throw new IllegalArgumentException("表名和映射函数不能为空");
+        }
+        ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
+        if (cfHandle == null) {
+            throw new IllegalArgumentException("表[" + table + "]不存在");
+        }
+        byte[][] bounds = resolveBounds(cfHandle, startKey, endKey, snapshot);
+        if (bounds == null) {
+            return Stream.empty();
+        }
+        // 拆分深度：叶子分片数约为并行度的 4 倍
+        int parallelism = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        int maxDepth = 32 - Integer.numberOfLeadingZeros(parallelism - 1) + 2;
+        Queue<DbCursor> openCursors = new ConcurrentLinkedQueue<>();
+        KeyRangeSpliterator<R> spliterator = new KeyRangeSpliterator<>(bounds[0], bounds[1],
+                (from, to) -> openCursor(cfHandle, from, to, snapshot), mapper, openCursors, maxDepth, 0);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            DbCursor cursor;
+            while ((cursor = openCursors.poll()) != null) {
+                cursor.close();
             }
-            return result;
+        });
+    }
+
+    /**
+     * 补全未指定的范围边界：起始取表中第一个键，结束取最后一个键之后的最小键（末尾补0）
+     * @return null 表示范围内没有数据
+     */
+    private byte[][] resolveBounds(ColumnFamilyHandle cfHandle, byte[] startKey, byte[] endKey, Snapshot snapshot) {
+        boolean noStart = startKey == null || startKey.length == 0;
+        boolean noEnd = endKey == null || endKey.length == 0;
+        if (!noStart && !noEnd) {
+            return Arrays.compareUnsigned(startKey, endKey) < 0 ? new byte[][]{startKey, endKey} : null;
+        }
+        acquireRead();
+        try (ReadOptions options = new ReadOptions().setTotalOrderSeek(true);
+             RocksIterator iterator = db.newIterator(cfHandle, snapshot == null ? options : options.setSnapshot(snapshot))) {
+            byte[] start = startKey;
+            byte[] end = endKey;
+            if (noStart) {
+                iterator.seekToFirst();
+                if (!iterator.isValid()) {
+                    return null;
+                }
+                start = iterator.key();
+            }
+            if (noEnd) {
+                iterator.seekToLast();
+                if (!iterator.isValid()) {
+                    return null;
+                }
+                end = Arrays.copyOf(iterator.key(), iterator.key().length + 1);
+            }
+            return Arrays.compareUnsigned(start, end) < 0 ? new byte[][]{start, end} : null;
         } finally {
-            if (iterator != null) iterator.close();
-            rwLock.readLock().unlock();
+            releaseRead();
         }
     }
 
 
     @Override
     public void clearCache(TableEnum table) {
-
+        if (table == null) {
+            tableCaches.values().forEach(Cache::invalidateAll);
+            log.info("已清理所有表缓存");
+            return;
+        }
+        cacheOf(table).invalidateAll();
+        log.info("已清理表[{}]缓存", table);
     }
 
     @Override
     public void setCachePolicy(TableEnum table, long ttl, int maxSize) {
-
+        if (table == null || maxSize <= 0) {
+            log.warn("设置缓存策略失败：表名不能为空且容量必须为正数");
+            return;
+        }
+        Cache<BytesKey, byte[]> cache = cacheOf(table);
+        // 直接调整现有缓存的策略，已缓存数据保留
+        cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maxSize * MB));
+        cache.policy().expireAfterWrite().ifPresent(expiration ->
+                expiration.setExpiresAfter(ttl > 0 ? ttl : Long.MAX_VALUE, TimeUnit.MILLISECONDS));
+        log.info("表[{}]缓存策略已更新，ttl={}ms，容量={}MB", table, ttl, maxSize);
     }
 
 
     @Override
     public void refreshCache(TableEnum table, byte[] key) {
+        if (table == null) {
+            log.warn("刷新缓存失败：表名不能为空");
+            return;
+        }
+        Cache<BytesKey, byte[]> cache = cacheOf(table);
+        if (key != null) {
+            refreshKey(table, cache, BytesKey.copyOf(key));
+            return;
+        }
+        for (BytesKey cachedKey : new ArrayList<>(cache.asMap().keySet())) {
+            refreshKey(table, cache, cachedKey);
+        }
+    }
+
+    /**
+     * 重新读取单个键并替换缓存（在缓存之外读取；读取之后有写入时保留写入方同步的值）
+     */
+    private void refreshKey(TableEnum table, Cache<BytesKey, byte[]> cache, BytesKey key) {
+        long epoch = cacheEpochs.get(table.ordinal());
+        byte[] value = load(table, key.bytes());
+        cache.asMap().compute(key, (k, current) ->
+                cacheEpochs.get(table.ordinal()) != epoch ? current : value == null ? null : value.clone());
+    }
+
+    @Override
+    public CacheStats cacheStats(TableEnum table) {
+        return cacheOf(table).stats();
+    }
+
+    /**
+     * 事务/批量提交成功后同步缓存（写穿透，删除失效）
+     */
+    private void applyToCache(List<DbOperation> operations) {
+        // 先递增写入版本：此后完成的回填都会看到版本变化
+        EnumSet<TableEnum> written = EnumSet.noneOf(TableEnum.class);
+        for (DbOperation op : operations) {
+            if (written.add(op.table)) {
+                cacheEpochs.incrementAndGet(op.table.ordinal());
+            }
+        }
+        for (DbOperation op : operations) {
+            Cache<BytesKey, byte[]> cache = cacheOf(op.table);
+            if (op.type == DbOperation.OpType.DELETE || op.value == null) {
+                cache.invalidate(BytesKey.wrap(op.key));
+            } else {
+                cache.put(BytesKey.copyOf(op.key), op.value.clone());
+            }
+        }
+    }
+
+    /**
+     * 失效缓存中 [startKey, endKey) 范围内的键
+     */
+    private void invalidateRange(TableEnum table, byte[] startKey, byte[] endKey) {
+        cacheEpochs.incrementAndGet(table.ordinal());
+        cacheOf(table).asMap().keySet().removeIf(k ->
+                Arrays.compareUnsigned(k.bytes(), startKey) >= 0 && Arrays.compareUnsigned(k.bytes(), endKey) < 0);
+    }
 
+    private Cache<BytesKey, byte[]> cacheOf(TableEnum table) {
+        return tableCaches.get(table);
     }
 
-    private final ConcurrentHashMap<String, WriteBatch> transactionMap = new ConcurrentHashMap<>();
+    // 所有未结束的事务（关库前统一回滚）
+    private final ConcurrentHashMap<String, RocksTransaction> transactionMap = new ConcurrentHashMap<>();
     private final AtomicLong transactionIdGenerator = new AtomicLong(0);
 
     @Override
-    public String beginTransaction() {
+    public DbTransaction openTransaction() {
+        if (!gate.enter()) {
+            throw new IllegalStateException("数据库未打开或正在关闭");
+        }
         String transactionId = "txn_" + transactionIdGenerator.incrementAndGet();
-        transactionMap.put(transactionId, new WriteBatch());
-        log.debug("开始事务：{}", transactionId);
-        return transactionId;
+        try {
+            RocksTransaction transaction = new RocksTransaction(transactionId, this, txnDb, writeOptionsFor((TableEnum) null), () -> {
+                transactionMap.remove(transactionId);
+                gate.exit();
+            });
+            transactionMap.put(transactionId, transaction);
+            log.debug("开始事务：{}", transactionId);
+            return transaction;
+        } catch (RuntimeException e) {
+            gate.exit();
+            throw e;
+        }
+    }
+
+    /**
+     * 执行事务，提交冲突时整体重试
+     * @param work 事务逻辑（重试时会再次调用，不能有事务外的副作用）
+     * @param maxRetries 冲突后的最大重试次数
+     */
+    @Override
+    public <T> T runInTransaction(Function<DbTransaction, T> work, int maxRetries) {
+        for (int attempt = 0; ; attempt++) {
+            try (DbTransaction transaction = openTransaction()) {
+                T result = work.apply(transaction);
+                transaction.commit();
+                return result;
+            } catch (TransactionConflictException e) {
+                if (attempt >= maxRetries) {
+                    log.warn("事务冲突重试{}次后仍失败", attempt);
+                    throw e;
+                }
+                log.debug("事务冲突，第{}次重试", attempt + 1);
+                // 短暂退避，降低与冲突方再次碰撞的概率
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50L << Math.min(attempt, 6)));
+            }
+        }
+    }
+
+    /**
+     * 提交乐观事务：持有计数表锁时写入计数增量并提交（与普通批量写入相同的计数维护方式），成功后同步缓存
+     */
+    void commitOptimistic(Transaction transaction, List<DbOperation> operations) throws RocksDBException {
+        acquireWrite();
+        try {
+            List<ReentrantLock> counterLocks = tableCounters.lock(operations);
+            try {
+                tableCounters.appendDeltas(transaction, operations);
+                transaction.setWriteOptions(writeOptionsFor(operations));
+                transaction.commit();
+            } finally {
+                TableCounters.unlock(counterLocks);
+            }
+            applyToCache(operations);
+        } finally {
+            releaseWrite();
+        }
+    }
+
+    @Override
+    public String beginTransaction() {
+        return openTransaction().getId();
     }
 
 
     @Override
     public boolean commitTransaction(String transactionId) {
-        if (transactionId == null || !transactionMap.containsKey(transactionId)) {
+        RocksTransaction transaction = transactionId == null ? null : transactionMap.get(transactionId);
+        if (transaction == null) {
             log.warn("提交事务失败：无效的事务ID[{}]", transactionId);
             return false;
         }
-        rwLock.writeLock().lock();
-        WriteBatch writeBatch = transactionMap.get(transactionId);
-        WriteOptions writeOptions = new WriteOptions();
         try {
-            writeOptions.setSync(true); // 事务提交默认使用同步写入保证一致性
-            db.write(writeOptions, writeBatch);
-            transactionMap.remove(transactionId);
+            transaction.commit();
             log.info("事务提交成功：{}", transactionId);
             return true;
-        } catch (RocksDBException e) {
+        } catch (TransactionConflictException e) {
+            log.warn("事务提交冲突：{}", transactionId);
+            return false;
+        } catch (RuntimeException e) {
             log.error("事务提交失败：{}", transactionId, e);
             return false;
-        } finally {
-            writeBatch.close();
-            writeOptions.close();
-            rwLock.writeLock().unlock();
         }
     }
 
     @Override
     public boolean rollbackTransaction(String transactionId) {
-        if (transactionId == null || !transactionMap.containsKey(transactionId)) {
+        RocksTransaction transaction = transactionId == null ? null : transactionMap.get(transactionId);
+        if (transaction == null) {
             log.warn("回滚事务失败：无效的事务ID[{}]", transactionId);
             return false;
         }
-        // 事务回滚只需移除未提交的WriteBatch
-        WriteBatch writeBatch = transactionMap.remove(transactionId);
-        if (writeBatch != null) {
-            writeBatch.close();
-        }
+        transaction.rollback();
         log.info("事务回滚成功：{}", transactionId);
         return true;
     }
@@ -609,32 +1328,37 @@ public class RocksDb implements DataBase {
             log.warn("添加事务操作失败：事务ID或操作不能为空");
             return;
         }
-        WriteBatch writeBatch = transactionMap.get(transactionId);
-        if (writeBatch == null) {
+        RocksTransaction transaction = transactionMap.get(transactionId);
+        if (transaction == null) {
             log.warn("添加事务操作失败：事务[{}]不存在", transactionId);
             return;
         }
         try {
-            ColumnFamilyHandle cfHandle = getColumnFamilyHandle(operation.table);
-            if (cfHandle == null) {
-                log.warn("添加事务操作失败：表[{}]不存在", operation.table);
-                return;
-            }
-            switch (operation.type) {
-                case INSERT:
-                case UPDATE:
-                    writeBatch.put(cfHandle, operation.key, operation.value);
-                    break;
-                case DELETE:
-                    writeBatch.delete(cfHandle, operation.key);
-                    break;
-            }
+            transaction.add(operation);
             log.debug("已添加操作到事务[{}]：{}", transactionId, operation.type);
-        } catch (RocksDBException e) {
+        } catch (RuntimeException e) {
             log.error("添加事务操作失败", e);
         }
     }
 
+    @Override
+    public byte[] getInTransaction(String transactionId, TableEnum table, byte[] key) {
+        return requireTransaction(transactionId).get(table, key);
+    }
+
+    @Override
+    public byte[] getForUpdate(String transactionId, TableEnum table, byte[] key) {
+        return requireTransaction(transactionId).getForUpdate(table, key);
+    }
+
+    private RocksTransaction requireTransaction(String transactionId) {
+        RocksTransaction transaction = transactionId == null ? null : transactionMap.get(transactionId);
+        if (transaction == null) {
+            throw new IllegalArgumentException("事务[" + transactionId + "]不存在");
+        }
+        return transaction;
+    }
+
     @Override
     public List<String> listAllTables() {
         List<String> tables = new ArrayList<>();
@@ -651,7 +1375,7 @@ public class RocksDb implements DataBase {
             log.warn("数据库健康检查失败：连接未初始化");
             return false;
         }
-        rwLock.readLock().lock();
+        acquireWrite();
         try {
             // 通过简单操作验证数据库可用性
             byte[] testKey = "health_check".getBytes();
@@ -663,91 +1387,283 @@ public class RocksDb implements DataBase {
             log.error("数据库健康检查失败", e);
             return false;
         } finally {
-            rwLock.readLock().unlock();
+            releaseWrite();
         }
     }
 
 
     @Override
     public void iterate(TableEnum table, KeyValueHandler handler) {
+        iterate(table, handler, null);
+    }
+
+    void iterate(TableEnum table, KeyValueHandler handler, Snapshot snapshot) {
         if (table == null || handler == null) {
             log.warn("迭代表失败：表名或处理器不能为空");
             return;
         }
-        rwLock.readLock().lock();
-        RocksIterator iterator = null;
-        try {
-            ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
-            if (cfHandle == null) {
-                log.warn("迭代表失败：表[{}]不存在", table);
-                return;
-            }
-            iterator = db.newIterator(cfHandle);
-            iterator.seekToFirst();
-            while (iterator.isValid()) {
-                byte[] key = iterator.key();
-                byte[] value = iterator.value();
-                // 调用处理器处理键值对，返回false则停止迭代
-                if (!handler.handle(key, value)) {
+        ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
+        if (cfHandle == null) {
+            log.warn("迭代表失败：表[{}]不存在", table);
+            return;
+        }
+        try (DbCursor cursor = openCursor(cfHandle, null, null, snapshot)) {
+            // 调用处理器处理键值对，返回false则停止迭代
+            while (cursor.next()) {
+                if (!handler.handle(cursor.keyBytes(), cursor.valueBytes())) {
                     break;
                 }
-                iterator.next();
-            }
-        } finally {
-            if (iterator != null) {
-                iterator.close();
             }
-            rwLock.readLock().unlock();
         }
     }
 
     @Override
     public void batchDeleteRange(TableEnum table, byte[] startKey, byte[] endKey) {
+        batchDeleteRange(table, startKey, endKey, false);
+    }
+
+    /**
+     * 范围删除：写入一条范围墓碑（DeleteRange），不再逐键生成删除记录，也不遍历范围内的键
+     * 精确计数表在同一批次写入计数失效标记，并提交后台修正（修正完成前精确计数返回估算值）
+     * reclaimSpace 为 true 时，再删除完全落在范围内的SST文件，并对该范围做定向压缩清理墓碑
+     */
+    @Override
+    public void batchDeleteRange(TableEnum table, byte[] startKey, byte[] endKey, boolean reclaimSpace) {
         if (table == null || startKey == null || endKey == null) {
             log.warn("批量删除范围失败：参数不能为空");
             return;
         }
-        rwLock.writeLock().lock();
-        WriteBatch writeBatch = new WriteBatch();
-        WriteOptions writeOptions = new WriteOptions();
-        RocksIterator iterator = null;
-        try {
-            ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
-            if (cfHandle == null) {
-                log.warn("批量删除范围失败：表[{}]不存在", table);
-                return;
+        if (Arrays.compareUnsigned(startKey, endKey) >= 0) {
+            log.warn("批量删除范围失败：起始键必须小于结束键");
+            return;
+        }
+        ColumnFamilyHandle cfHandle = getColumnFamilyHandle(table);
+        if (cfHandle == null) {
+            log.warn("批量删除范围失败：表[{}]不存在", table);
+            return;
+        }
+        boolean counted = tableCounters.isCounted(table);
+        acquireWrite();
+        // 计数表持表锁写入，与点写入的计数增量串行，保证修正任务取快照时计数器与数据一致
+        List<ReentrantLock> held = counted ? tableCounters.lock(EnumSet.of(table)) : List.of();
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            if (counted) {
+                tableCounters.appendStaleMarker(writeBatch, table);
             }
-            iterator = db.newIterator(cfHandle);
-            iterator.seek(startKey);
-            while (iterator.isValid()) {
-                byte[] currentKey = iterator.key();
-                if (Arrays.compare(currentKey, endKey) >= 0) {
-                    break;
-                }
-                writeBatch.delete(cfHandle, currentKey);
-                iterator.next();
+            writeBatch.deleteRange(cfHandle, startKey, endKey);
+            db.write(writeOptionsFor(table), writeBatch);
+            if (counted) {
+                tableCounters.markStale(table);
+                scheduleCounterRepair(table);
             }
-            db.write(writeOptions, writeBatch);
+            invalidateRange(table, startKey, endKey);
             log.info("表[{}]中范围[{}, {})的记录已批量删除", table, Arrays.toString(startKey), Arrays.toString(endKey));
         } catch (RocksDBException e) {
             log.error("批量删除范围失败", e);
             throw new RuntimeException("批量删除范围失败", e);
         } finally {
-            if (iterator != null) {
-                iterator.close();
-            }
-            writeBatch.close();
-            writeOptions.close();
-            rwLock.writeLock().unlock();
+            TableCounters.unlock(held);
+            releaseWrite();
+        }
+        if (reclaimSpace) {
+            reclaimRange(table, cfHandle, startKey, endKey);
+        }
+    }
+
+    /**
+     * 回收范围删除后的磁盘空间（不持有写锁，前台读写不受影响）
+     */
+    private void reclaimRange(TableEnum table, ColumnFamilyHandle cfHandle, byte[] startKey, byte[] endKey) {
+        long begin = System.currentTimeMillis();
+        acquireRead();
+        try {
+            db.deleteFilesInRanges(cfHandle, List.of(startKey, endKey), false);
+        } catch (RocksDBException e) {
+            log.warn("表[{}]范围删除文件失败", table, e);
+        } finally {
+            releaseRead();
+        }
+        // 剩余的范围墓碑交给后台压缩线程清理（限速、不持有应用锁）
+        try {
+            compactAsync(table, startKey, endKey).join();
+            log.info("表[{}]范围删除空间回收完成，耗时{}ms", table, System.currentTimeMillis() - begin);
+        } catch (RuntimeException e) {
+            log.warn("表[{}]范围删除空间回收失败", table, e);
         }
     }
 
     @Override
     public void enableWAL(boolean enable) {
-        // 通过设置默认WriteOptions修改WAL状态（实际应用中可能需要维护全局WriteOptions）
-        // 这里仅为示例，实际实现需根据业务场景调整
-        log.info("{} Write-Ahead Log", enable ? "启用" : "禁用");
         // 注意：RocksDB默认启用WAL，禁用会降低安全性但提高写入性能
+        walEnabled = enable;
+        log.info("{} Write-Ahead Log", enable ? "启用" : "禁用");
+    }
+
+    @Override
+    public CompletableFuture<Void> insertAsync(TableEnum table, byte[] key, byte[] value) {
+        return submitAsync(List.of(new DbOperation(table, key, value, DbOperation.OpType.INSERT)));
+    }
+
+    @Override
+    public CompletableFuture<Void> batchInsertAsync(TableEnum table, byte[][] keys, byte[][] values) {
+        if (keys.length != values.length) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("键值数组长度不匹配"));
+        }
+        return submitAsync(toOperations(table, keys, values));
+    }
+
+    @Override
+    public CompletableFuture<Void> dataTransactionAsync(List<DbOperation> operations) {
+        return submitAsync(operations);
+    }
+
+    /**
+     * 异步写入：开启组提交时进入组提交队列，否则直接同步写入后返回已完成的Future
+     */
+    private CompletableFuture<Void> submitAsync(List<DbOperation> operations) {
+        if (groupCommitWriter != null) {
+            return groupCommitWriter.submit(operations);
+        }
+        return dataTransaction(operations)
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.failedFuture(new IllegalStateException("写入失败"));
+    }
+
+    private static List<DbOperation> toOperations(TableEnum table, byte[][] keys, byte[][] values) {
+        List<DbOperation> operations = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            operations.add(new DbOperation(table, keys[i], values[i], DbOperation.OpType.INSERT));
+        }
+        return operations;
+    }
+
+    /**
+     * 初始化写入管线：持久化策略、共享WriteOptions、WAL定时刷盘、组提交
+     */
+    private void initWritePipeline(SystemConfig config) {
+        if (config.getDbDurability() != null) {
+            durabilityPolicy = config.getDbDurability();
+        }
+        noWalTables.clear();
+        if (config.getDbNoWalTables() != null) {
+            for (TableEnum table : TableEnum.values()) {
+                if (config.getDbNoWalTables().contains(table.getColumnFamilyName())) {
+                    noWalTables.add(table);
+                }
+            }
+        }
+        syncWriteOptions = new WriteOptions().setSync(true);
+        asyncWriteOptions = new WriteOptions().setSync(false);
+        noWalWriteOptions = new WriteOptions().setDisableWAL(true);
+
+        if (durabilityPolicy == DurabilityPolicy.PERIODIC_FSYNC) {
+            long interval = config.getDbFsyncIntervalMs() != null ? config.getDbFsyncIntervalMs() : DEFAULT_FSYNC_INTERVAL_MS;
+            walSyncScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "rocksdb-wal-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            walSyncScheduler.scheduleWithFixedDelay(this::syncWal, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        if (Boolean.TRUE.equals(config.getDbGroupCommit())) {
+            long window = config.getDbGroupCommitWindowMicros() != null
+                    ? config.getDbGroupCommitWindowMicros() : DEFAULT_GROUP_COMMIT_WINDOW_MICROS;
+            // 组提交每组一次写入，WriteOptions 与非组提交路径一致（持久化策略、不写WAL的表）：
+            // SYNC_EACH_WRITE 下Future完成即代表数据已落盘，其他策略下代表已写入WAL缓冲或内存表
+            groupCommitWriter = new GroupCommitWriter(
+                    ops -> writeOperations(ops, writeOptionsFor(ops)),
+                    window, GROUP_COMMIT_MAX_OPS);
+        }
+    }
+
+    /**
+     * 计数器不存在（首次启用精确计数）或已失效（范围删除）的表做一次全表扫描初始化
+     */
+    private void seedCounters() throws RocksDBException {
+        for (TableEnum table : TableEnum.values()) {
+            if (!tableCounters.isCounted(table) || (tableCounters.get(table) >= 0 && !tableCounters.isStale(table))) {
+                continue;
+            }
+            long count = scanCount(getColumnFamilyHandle(table));
+            tableCounters.seed(table, count);
+            log.info("表[{}]精确计数初始化完成: {}", table, count);
+        }
+    }
+
+    /**
+     * PERIODIC_FSYNC：把WAL缓冲刷到磁盘并fsync
+     */
+    private void syncWal() {
+        if (!gate.enter()) {
+            return;
+        }
+        try {
+            db.flushWal(true);
+        } catch (RocksDBException e) {
+            log.warn("定时刷WAL失败", e);
+        } finally {
+            gate.exit();
+        }
+    }
+
+    private WriteOptions writeOptionsFor(TableEnum table) {
+        if (!walEnabled || durabilityPolicy == DurabilityPolicy.NO_WAL || noWalTables.contains(table)) {
+            return noWalWriteOptions;
+        }
+        return durabilityPolicy == DurabilityPolicy.SYNC_EACH_WRITE ? syncWriteOptions : asyncWriteOptions;
+    }
+
+    /**
+     * 多表写入：只要有一张表需要WAL，整批就按WAL写入
+     */
+    private WriteOptions writeOptionsFor(List<DbOperation> operations) {
+        for (DbOperation op : operations) {
+            WriteOptions selected = writeOptionsFor(op.table);
+            if (selected != noWalWriteOptions) {
+                return selected;
+            }
+        }
+        return operations.isEmpty() ? writeOptionsFor((TableEnum) null) : noWalWriteOptions;
+    }
+
+    /**
+     * 进入读操作
+     * GLOBAL_LOCK：共享读锁；LIFECYCLE_GATE：仅闸门引用计数
+     */
+    private void acquireRead() {
+        if (concurrencyMode == ConcurrencyMode.GLOBAL_LOCK) {
+            rwLock.readLock().lock();
+        } else if (!gate.enter()) {
+            throw new IllegalStateException("数据库未打开或正在关闭");
+        }
+    }
+
+    private void releaseRead() {
+        if (concurrencyMode == ConcurrencyMode.GLOBAL_LOCK) {
+            rwLock.readLock().unlock();
+        } else {
+            gate.exit();
+        }
+    }
+
+    /**
+     * 进入写操作
+     * GLOBAL_LOCK：独占写锁；LIFECYCLE_GATE：与读操作相同，写入并发由RocksDB内部保证
+     */
+    private void acquireWrite() {
+        if (concurrencyMode == ConcurrencyMode.GLOBAL_LOCK) {
+            rwLock.writeLock().lock();
+        } else if (!gate.enter()) {
+            throw new IllegalStateException("数据库未打开或正在关闭");
+        }
+    }
+
+    private void releaseWrite() {
+        if (concurrencyMode == ConcurrencyMode.GLOBAL_LOCK) {
+            rwLock.writeLock().unlock();
+        } else {
+            gate.exit();
+        }
     }
 
     /**
@@ -806,7 +1722,7 @@ public class RocksDb implements DataBase {
 
     // 示例：区块表缓存更大、过期时间更长，账户表按需调整
     private long getCacheMaxSize(TableEnum table) {
-        return table.getCacheSize(); // 区块表缓存更多
+        return table.getCacheSize() * MB; // 区块表缓存更多
     }
 
     private long getCacheTtl(TableEnum table) {
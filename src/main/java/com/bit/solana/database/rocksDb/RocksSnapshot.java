@@ -0,0 +1,122 @@
+package com.bit.solana.database.rocksDb;
+
+import com.bit.solana.database.DataBase;
+import com.bit.solana.database.DbCursor;
+import com.bit.solana.database.DbSnapshot;
+import com.bit.solana.database.KeyValueHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * RocksDB 快照实现：持有 RocksDB Snapshot 与携带该快照的读选项
+ * 存活期间占用数据库生命周期闸门，关库时等待快照关闭
+ */
+@Slf4j
+class RocksSnapshot implements DbSnapshot {
+    private final RocksDb owner;
+    private final RocksDB db;
+    private final Snapshot snapshot;
+    private final ReadOptions readOptions;
+    private final Runnable onClose;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    RocksSnapshot(RocksDb owner, RocksDB db, Runnable onClose) {
+        this.owner = owner;
+        this.db = db;
+        this.onClose = onClose;
+        this.snapshot = db.getSnapshot();
+        this.readOptions = new ReadOptions().setSnapshot(snapshot);
+    }
+
+    @Override
+    public long getSequenceNumber() {
+        return snapshot.getSequenceNumber();
+    }
+
+    @Override
+    public byte[] get(TableEnum table, byte[] key) {
+        ensureOpen();
+        ColumnFamilyHandle cfHandle = RTable.getColumnFamilyHandle(table);
+        if (cfHandle == null) {
+            return null;
+        }
+        try {
+            return db.get(cfHandle, readOptions, key);
+        } catch (RocksDBException e) {
+            log.error("快照读取失败, table={}", table, e);
+            throw new RuntimeException("快照读取失败", e);
+        }
+    }
+
+    @Override
+    public byte[][] batchGet(TableEnum table, byte[][] keys) {
+        ensureOpen();
+        TableEnum[] tables = new TableEnum[keys.length];
+        Arrays.fill(tables, table);
+        int[] sorted = RocksDb.sortForMultiGet(IntStream.range(0, keys.length).toArray(), keys.length, tables, keys);
+        byte[][] results = new byte[keys.length][];
+        try {
+            owner.multiGet(readOptions, sorted, tables, keys, results);
+        } catch (RocksDBException e) {
+            log.error("快照批量读取失败, table={}", table, e);
+            throw new RuntimeException("快照批量读取失败", e);
+        }
+        return results;
+    }
+
+    @Override
+    public <T> PageResult<T> page(TableEnum table, int pageSize, byte[] lastKey) {
+        ensureOpen();
+        return owner.page(table, pageSize, lastKey, snapshot);
+    }
+
+    @Override
+    public <T> List<DataBase.KeyValue<T>> rangeQueryWithLimit(TableEnum table, byte[] startKey, byte[] endKey, int limit) {
+        ensureOpen();
+        return owner.rangeQueryWithLimit(table, startKey, endKey, limit, snapshot);
+    }
+
+    @Override
+    public void iterate(TableEnum table, KeyValueHandler handler) {
+        ensureOpen();
+        owner.iterate(table, handler, snapshot);
+    }
+
+    @Override
+    public DbCursor openCursor(TableEnum table, byte[] startKey, byte[] endKey) {
+        ensureOpen();
+        return owner.openCursor(table, startKey, endKey, snapshot);
+    }
+
+    @Override
+    public <R> Stream<R> stream(TableEnum table, byte[] startKey, byte[] endKey, Function<DbCursor, R> mapper) {
+        ensureOpen();
+        return owner.stream(table, startKey, endKey, mapper, snapshot);
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            readOptions.close();
+            db.releaseSnapshot(snapshot);
+        } finally {
+            onClose.run();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("快照已关闭");
+        }
+    }
+}
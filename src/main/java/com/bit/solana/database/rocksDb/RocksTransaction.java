@@ -0,0 +1,172 @@
+package com.bit.solana.database.rocksDb;
+
+import com.bit.solana.database.DbTransaction;
+import com.bit.solana.database.TransactionConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 基于 OptimisticTransactionDB 的事务
+ * 开始时设置快照：读取为可重复读，冲突检测以快照为基准
+ * 记录事务内的操作，提交成功后用于维护计数器与同步表级缓存
+ */
+@Slf4j
+class RocksTransaction implements DbTransaction {
+    private final String id;
+    private final RocksDb owner;
+    private final Transaction transaction;
+    private final ReadOptions readOptions;
+    private final List<RocksDb.DbOperation> operations = new ArrayList<>();
+    private final Runnable onClose;
+    private final AtomicBoolean finished = new AtomicBoolean(false);
+
+    RocksTransaction(String id, RocksDb owner, OptimisticTransactionDB txnDb, WriteOptions writeOptions, Runnable onClose) {
+        this.id = id;
+        this.owner = owner;
+        this.onClose = onClose;
+        try (OptimisticTransactionOptions txnOptions = new OptimisticTransactionOptions().setSetSnapshot(true)) {
+            this.transaction = txnDb.beginTransaction(writeOptions, txnOptions);
+        }
+        this.readOptions = new ReadOptions().setSnapshot(transaction.getSnapshot());
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public byte[] get(TableEnum table, byte[] key) {
+        ensureActive();
+        try {
+            return transaction.get(handle(table), readOptions, key);
+        } catch (RocksDBException e) {
+            log.error("事务[{}]读取失败, table={}", id, table, e);
+            throw new RuntimeException("事务读取失败", e);
+        }
+    }
+
+    @Override
+    public byte[] getForUpdate(TableEnum table, byte[] key) {
+        ensureActive();
+        try {
+            return transaction.getForUpdate(readOptions, handle(table), key, true);
+        } catch (RocksDBException e) {
+            log.error("事务[{}]读取失败, table={}", id, table, e);
+            throw new RuntimeException("事务读取失败", e);
+        }
+    }
+
+    @Override
+    public void put(TableEnum table, byte[] key, byte[] value) {
+        ensureActive();
+        try {
+            transaction.put(handle(table), key, value);
+            operations.add(new RocksDb.DbOperation(table, key, value, RocksDb.DbOperation.OpType.INSERT));
+        } catch (RocksDBException e) {
+            log.error("事务[{}]写入失败, table={}", id, table, e);
+            throw new RuntimeException("事务写入失败", e);
+        }
+    }
+
+    @Override
+    public void delete(TableEnum table, byte[] key) {
+        ensureActive();
+        try {
+            transaction.delete(handle(table), key);
+            operations.add(new RocksDb.DbOperation(table, key, null, RocksDb.DbOperation.OpType.DELETE));
+        } catch (RocksDBException e) {
+            log.error("事务[{}]删除失败, table={}", id, table, e);
+            throw new RuntimeException("事务删除失败", e);
+        }
+    }
+
+    @Override
+    public void commit() {
+        ensureActive();
+        try {
+            owner.commitOptimistic(transaction, operations);
+            log.debug("事务提交成功：{}，操作数: {}", id, operations.size());
+        } catch (RocksDBException e) {
+            if (isConflict(e)) {
+                throw new TransactionConflictException("事务[" + id + "]提交冲突", e);
+            }
+            log.error("事务提交失败：{}", id, e);
+            throw new RuntimeException("事务提交失败", e);
+        } finally {
+            finish();
+        }
+    }
+
+    @Override
+    public void rollback() {
+        if (finished.get()) {
+            return;
+        }
+        try {
+            transaction.rollback();
+        } catch (RocksDBException e) {
+            log.warn("事务回滚失败：{}", id, e);
+        } finally {
+            finish();
+        }
+    }
+
+    @Override
+    public void close() {
+        rollback();
+    }
+
+    /**
+     * 事务是否仍可操作（未提交也未回滚）
+     */
+    boolean isActive() {
+        return !finished.get();
+    }
+
+    void add(RocksDb.DbOperation operation) {
+        if (operation.type == RocksDb.DbOperation.OpType.DELETE) {
+            delete(operation.table, operation.key);
+        } else {
+            put(operation.table, operation.key, operation.value);
+        }
+    }
+
+    private void finish() {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            readOptions.close();
+            transaction.close();
+        } finally {
+            onClose.run();
+        }
+    }
+
+    private void ensureActive() {
+        if (finished.get()) {
+            throw new IllegalStateException("事务[" + id + "]已结束");
+        }
+    }
+
+    private static ColumnFamilyHandle handle(TableEnum table) {
+        ColumnFamilyHandle cfHandle = RTable.getColumnFamilyHandle(table);
+        if (cfHandle == null) {
+            throw new IllegalArgumentException("表不存在: " + table);
+        }
+        return cfHandle;
+    }
+
+    /**
+     * 乐观事务冲突：Busy（键在快照后被修改）或 TryAgain（内存表历史不足以判断）
+     */
+    static boolean isConflict(RocksDBException e) {
+        Status status = e.getStatus();
+        return status != null && (status.getCode() == Status.Code.Busy || status.getCode() == Status.Code.TryAgain);
+    }
+}
@@ -0,0 +1,265 @@
+package com.bit.solana.database.rocksDb;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Transaction;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 精确表计数器（TableEnum.countMode 为 EXACT 的表）
+ * 计数保存在默认列族（不属于任何业务表，表扫描与计数不会看到），键为 "__count__:" + 列族名，
+ * 值为 uint64add 合并操作数（8字节小端）
+ * 计数增量与数据写入放在同一个 WriteBatch 中原子提交；负数增量按 uint64 回绕相加即为减法
+ * 判断键是否新增需要先读一次，因此同一张计数表的写入按表加锁串行计算增量，只适合写入频率低的表
+ * 范围删除不逐键统计，只在同一批次写入失效标记（"__count_stale__:" + 列族名），
+ * 随后由后台线程在快照上扫描全表并修正计数（correct），修正完成前该表的精确计数以估算值代替；
+ * 修正前进程退出时，下次启动按失效标记全表扫描重新初始化
+ */
+public class TableCounters {
+
+    public static final String MERGE_OPERATOR = "uint64add";
+    private static final String COUNTER_PREFIX = "__count__:";
+    private static final String STALE_PREFIX = "__count_stale__:";
+
+    private final Map<TableEnum, ReentrantLock> locks = new EnumMap<>(TableEnum.class);
+    // 范围删除后计数已失效的表 -> 失效代数（每次范围删除递增，修正时据此判断期间是否又发生了范围删除）
+    private final Map<TableEnum, Long> staleTables = new ConcurrentHashMap<>();
+    private final AtomicLong staleGeneration = new AtomicLong();
+    private RocksDB db;
+    // 计数器所在列族（默认列族）
+    private ColumnFamilyHandle counterHandle;
+
+    public TableCounters() {
+        for (TableEnum table : TableEnum.values()) {
+            if (table.isExactCount()) {
+                locks.put(table, new ReentrantLock());
+            }
+        }
+    }
+
+    /**
+     * 绑定已打开的数据库
+     * @param counterHandle 计数器所在列族（需配置 uint64add 合并操作）
+     */
+    public void bind(RocksDB db, ColumnFamilyHandle counterHandle) throws RocksDBException {
+        this.db = db;
+        this.counterHandle = counterHandle;
+        staleTables.clear();
+        for (TableEnum table : locks.keySet()) {
+            if (db.get(counterHandle, staleKey(table)) != null) {
+                staleTables.put(table, staleGeneration.incrementAndGet());
+            }
+        }
+    }
+
+    public boolean isCounted(TableEnum table) {
+        return table != null && table.isExactCount();
+    }
+
+    /**
+     * 按表序号顺序锁定操作涉及的计数表（固定顺序避免死锁）
+     * @return 已持有的锁，写入完成后交给 unlock 释放
+     */
+    public List<ReentrantLock> lock(List<RocksDb.DbOperation> operations) {
+        EnumSet<TableEnum> tables = EnumSet.noneOf(TableEnum.class);
+        for (RocksDb.DbOperation op : operations) {
+            if (isCounted(op.table)) {
+                tables.add(op.table);
+            }
+        }
+        return lock(tables);
+    }
+
+    public List<ReentrantLock> lock(EnumSet<TableEnum> tables) {
+        if (tables.isEmpty()) {
+            return List.of();
+        }
+        List<ReentrantLock> held = new ArrayList<>(tables.size());
+        for (TableEnum table : tables) {
+            ReentrantLock lock = locks.get(table);
+            if (lock != null) {
+                lock.lock();
+                held.add(lock);
+            }
+        }
+        return held;
+    }
+
+    public static void unlock(List<ReentrantLock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+    }
+
+    /**
+     * 计算一组操作对计数表的增量并追加到WriteBatch（需已持有对应表的锁）
+     */
+    public void appendDeltas(WriteBatch writeBatch, List<RocksDb.DbOperation> operations) throws RocksDBException {
+        for (Map.Entry<TableEnum, Long> entry : computeDeltas(operations).entrySet()) {
+            appendDelta(writeBatch, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 计算一组操作对计数表的增量并以不参与冲突检测的合并写入事务（需已持有对应表的锁）
+     * 计数器键每次写入都会变化，若参与乐观冲突检测，所有涉及计数表的事务都会互相冲突
+     */
+    public void appendDeltas(Transaction transaction, List<RocksDb.DbOperation> operations) throws RocksDBException {
+        for (Map.Entry<TableEnum, Long> entry : computeDeltas(operations).entrySet()) {
+            if (entry.getValue() != 0) {
+                transaction.mergeUntracked(counterHandle, counterKey(entry.getKey()), encode(entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * 计算增量：与已提交数据比较键是否存在
+     * 同一批次内同一个键多次出现时按批内顺序累计状态
+     */
+    private Map<TableEnum, Long> computeDeltas(List<RocksDb.DbOperation> operations) throws RocksDBException {
+        Map<TableEnum, Map<BytesKey, Boolean>> states = null;
+        Map<TableEnum, Long> deltas = null;
+        for (RocksDb.DbOperation op : operations) {
+            if (!isCounted(op.table)) {
+                continue;
+            }
+            if (states == null) {
+                states = new EnumMap<>(TableEnum.class);
+                deltas = new EnumMap<>(TableEnum.class);
+            }
+            Map<BytesKey, Boolean> state = states.computeIfAbsent(op.table, t -> new HashMap<>());
+            BytesKey key = BytesKey.wrap(op.key);
+            Boolean existed = state.get(key);
+            if (existed == null) {
+                existed = exists(RTable.getColumnFamilyHandle(op.table), op.key);
+            }
+            boolean exists = op.type != RocksDb.DbOperation.OpType.DELETE;
+            if (exists != existed) {
+                deltas.merge(op.table, exists ? 1L : -1L, Long::sum);
+            }
+            state.put(key, exists);
+        }
+        return deltas == null ? Map.of() : deltas;
+    }
+
+    /**
+     * 追加计数增量
+     */
+    public void appendDelta(WriteBatch writeBatch, TableEnum table, long delta) throws RocksDBException {
+        if (delta != 0) {
+            writeBatch.merge(counterHandle, counterKey(table), encode(delta));
+        }
+    }
+
+    /**
+     * 读取计数
+     * @return 计数，计数器不存在返回 -1
+     */
+    public long get(TableEnum table) throws RocksDBException {
+        byte[] value = db.get(counterHandle, counterKey(table));
+        return value == null ? -1 : decode(value);
+    }
+
+    /**
+     * 初始化计数（首次启用或计数器丢失时由全表扫描结果写入）
+     */
+    public void seed(TableEnum table, long count) throws RocksDBException {
+        try (WriteBatch writeBatch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions()) {
+            writeBatch.put(counterHandle, counterKey(table), encode(count));
+            writeBatch.delete(counterHandle, staleKey(table));
+            db.write(writeOptions, writeBatch);
+        }
+        staleTables.remove(table);
+    }
+
+    /**
+     * 范围删除：在同一批次中写入计数失效标记（不统计范围内的键数）
+     */
+    public void appendStaleMarker(WriteBatch writeBatch, TableEnum table) throws RocksDBException {
+        writeBatch.put(counterHandle, staleKey(table), new byte[0]);
+    }
+
+    /**
+     * 失效标记写入成功后调用（需已持有该表的锁）
+     * @return 失效代数，交给 correct 校验
+     */
+    public long markStale(TableEnum table) {
+        long generation = staleGeneration.incrementAndGet();
+        staleTables.put(table, generation);
+        return generation;
+    }
+
+    /**
+     * 计数是否因范围删除而失效（失效期间精确计数以估算值代替）
+     */
+    public boolean isStale(TableEnum table) {
+        return staleTables.containsKey(table);
+    }
+
+    /**
+     * 当前失效代数（未失效返回 -1）
+     */
+    public long staleGeneration(TableEnum table) {
+        return staleTables.getOrDefault(table, -1L);
+    }
+
+    /**
+     * 按快照扫描结果修正计数，并清除失效标记（需已持有该表的锁）
+     * 快照时刻的真实键数为 scanned、计数器为 counterAtSnapshot，此后的写入已按增量累加到计数器，
+     * 因此加上二者之差即为当前的真实计数
+     * @param generation 取快照时的失效代数，期间又发生范围删除时放弃修正（由新的修正任务处理）
+     * @return 是否已修正
+     */
+    public boolean correct(TableEnum table, long generation, long scanned, long counterAtSnapshot) throws RocksDBException {
+        if (staleGeneration(table) != generation) {
+            return false;
+        }
+        try (WriteBatch writeBatch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions()) {
+            appendDelta(writeBatch, table, scanned - counterAtSnapshot);
+            writeBatch.delete(counterHandle, staleKey(table));
+            db.write(writeOptions, writeBatch);
+        }
+        staleTables.remove(table);
+        return true;
+    }
+
+    private boolean exists(ColumnFamilyHandle cfHandle, byte[] key) throws RocksDBException {
+        // 布隆过滤器确定不存在时省去一次真正的读取
+        if (!db.keyMayExist(cfHandle, key, null)) {
+            return false;
+        }
+        return db.get(cfHandle, key) != null;
+    }
+
+    public static byte[] counterKey(TableEnum table) {
+        return (COUNTER_PREFIX + table.getColumnFamilyName()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] staleKey(TableEnum table) {
+        return (STALE_PREFIX + table.getColumnFamilyName()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // uint64add 合并操作数为 8 字节小端
+    private static byte[] encode(long value) {
+        return ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(value).array();
+    }
+
+    private static long decode(byte[] value) {
+        return ByteBuffer.wrap(value).order(ByteOrder.LITTLE_ENDIAN).getLong();
+    }
+}
@@ -1,13 +1,11 @@
 package com.bit.solana.database.rocksDb;
 
 import lombok.Getter;
+import org.rocksdb.CompressionType;
 
 import java.util.HashMap;
 import java.util.Map;
 
-import org.rocksdb.BlockBasedTableConfig;
-import org.rocksdb.ColumnFamilyOptions;
-import org.springframework.stereotype.Component;
 
 
 /**
@@ -17,54 +15,99 @@ public enum TableEnum {
     ACCOUNT(
             (short) 1,
             "account",  // 列族实际存储名称
-            new ColumnFamilyOptions(),  // 列族配置
+            ColumnFamilyProfile.pointLookup(),  // 列族配置：点查优化
             100,  //MB
-            60 * 60 * 60  //单位
+            60 * 60 * 60,  //单位
+            CountMode.ESTIMATED  //写入最频繁，不维护计数器（维护计数器需要每次写入前读一次并按表串行）
     ),
     // 链信息表：定义表标识、列族名称、列族配置
     CHAIN(
             (short) 2,
             "chain",  // 列族实际存储名称
-            new ColumnFamilyOptions(),  // 列族配置
+            ColumnFamilyProfile.heightPrefixed(),  // 列族配置：高度前缀
             100,  //MB
-            60 * 60
+            60 * 60,
+            CountMode.SCAN
     ),
-    // 区块信息表：定义表标识、列族名称、列族配置
+    // 区块信息表：区块哈希(32字节) -> 区块记录，按高度的顺序访问走 BLOCK_HEIGHT 索引
+    // 区块体最大约1.4MB，64KB以上的区块记录分离到blob文件，SST中只保留键和引用
+    // 键为哈希，没有高度前缀可提取，使用点查配置（高度前缀提取器只用于 CHAIN / BLOCK_HEIGHT / SLOT_INDEX）
     BLOCK(
             (short) 3,
             "block",  // 列族实际存储名称
-            new ColumnFamilyOptions()  // 列族配置
-                    .setTableFormatConfig(new BlockBasedTableConfig()
-                            .setBlockCacheSize(128 * 1024 * 1024)  // 128MB缓存
-                            .setCacheIndexAndFilterBlocks(true)),
+            ColumnFamilyProfile.pointLookup().withBlockSizeKb(16)
+                    .withBlobFiles(64, CompressionType.LZ4_COMPRESSION),  // 列族配置：按哈希点查，大值键值分离
             100, //内存缓存 MB
-            60 * 60
+            60 * 60,
+            CountMode.EXACT  //写入频率低（每个slot一个区块），维护精确计数器
     ),
 
     PEER(
             (short) 4,
             "peer",  // 列族实际存储名称
-            new ColumnFamilyOptions(),  // 列族配置
+            ColumnFamilyProfile.base(),  // 列族配置
             100,  //MB
-            60 * 60
+            60 * 60,
+            CountMode.SCAN
     ),
 
+    // 高度索引：高度(8字节大端) -> 区块哈希(32字节)，键按高度有序，支持范围扫描与按高度区间删除
+    BLOCK_HEIGHT(
+            (short) 5,
+            "block_height",
+            ColumnFamilyProfile.heightPrefixed(),
+            20,  //MB
+            60 * 60,
+            CountMode.SCAN
+    ),
+
+    // 交易位置索引：交易ID(32字节) -> 所在区块高度(8字节大端) + 区块内序号(4字节大端)
+    TX_INDEX(
+            (short) 6,
+            "tx_index",
+            ColumnFamilyProfile.pointLookup(),
+            50,  //MB
+            60 * 60,
+            CountMode.SCAN
+    ),
+
+    // 插槽索引：插槽号(8字节大端) -> 区块高度(8字节大端)
+    SLOT_INDEX(
+            (short) 7,
+            "slot_index",
+            ColumnFamilyProfile.heightPrefixed(),
+            10,  //MB
+            60 * 60,
+            CountMode.SCAN
+    ),
 
+    // 合约代码表：合约地址(32字节) -> 合约字节码（已压缩的class，约256~512KB）
+    // 字节码本身已压缩，blob文件不再压缩
+    CONTRACT_CODE(
+            (short) 8,
+            "contract_code",
+            ColumnFamilyProfile.pointLookup().withBlobFiles(16, CompressionType.NO_COMPRESSION),
+            50,  //MB
+            60 * 60,
+            CountMode.SCAN
+    ),
 
     ;
     @Getter private final short code;  // 表唯一标识（short类型）
     @Getter private final String columnFamilyName;  // 列族实际存储名称
-    @Getter private final ColumnFamilyOptions columnFamilyOptions;  // 列族配置
+    @Getter private final ColumnFamilyProfile profile;  // 列族默认调优配置（可被SystemConfig覆盖）
     @Getter private final long cacheSize;  // 缓存大小
     @Getter private final long cacheTL;  // 缓存时长 单位秒
+    @Getter private final CountMode countMode;  // count(table) 的默认统计方式；EXACT 表示维护精确计数器（写入时多一次存在性检查）
 
     // 构造方法：集中初始化表的所有元信息
-    TableEnum(short code, String columnFamilyName, ColumnFamilyOptions columnFamilyOptions,long cacheSize,long cacheTL) {
+    TableEnum(short code, String columnFamilyName, ColumnFamilyProfile profile,long cacheSize,long cacheTL,CountMode countMode) {
         this.code = code;
         this.columnFamilyName = columnFamilyName;
-        this.columnFamilyOptions = columnFamilyOptions;
+        this.profile = profile;
         this.cacheSize = cacheSize;
         this.cacheTL = cacheTL;
+        this.countMode = countMode;
     }
 
     // 缓存：标识 -> 枚举实例（提高查询效率）
@@ -76,6 +119,13 @@ public enum TableEnum {
         }
     }
 
+    /**
+     * 是否维护精确计数器
+     */
+    public boolean isExactCount() {
+        return countMode == CountMode.EXACT;
+    }
+
     // 根据short标识获取枚举实例
     public static TableEnum getByCode(short code) {
         return CODE_TO_ENUM.get(code);
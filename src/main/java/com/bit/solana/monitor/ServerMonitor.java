@@ -1,5 +1,7 @@
 package com.bit.solana.monitor;
 
+import com.bit.solana.monitor.impl.dto.DbMetrics;
+
 /**
  * 服务监控
  * 交易池大小
@@ -9,4 +11,9 @@ package com.bit.solana.monitor;
  * 查询交易
  */
 public interface ServerMonitor {
+
+    /**
+     * 获取数据库监控指标
+     */
+    DbMetrics getDbMetrics();
 }
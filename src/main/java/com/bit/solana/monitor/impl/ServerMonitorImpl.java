@@ -1,7 +1,19 @@
 package com.bit.solana.monitor.impl;
 
+import com.bit.solana.database.DataBase;
+import com.bit.solana.monitor.ServerMonitor;
+import com.bit.solana.monitor.impl.dto.DbMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
-public class ServerMonitorImpl {
+public class ServerMonitorImpl implements ServerMonitor {
+
+    @Autowired
+    private DataBase dataBase;
+
+    @Override
+    public DbMetrics getDbMetrics() {
+        return dataBase.getMetrics();
+    }
 }
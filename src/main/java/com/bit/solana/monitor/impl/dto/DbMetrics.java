@@ -0,0 +1,46 @@
+package com.bit.solana.monitor.impl.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 数据库（RocksDB）监控数据
+ */
+@Data
+public class DbMetrics {
+    private long stallMicros; // 写入停顿累计时间(微秒)
+    private long blockCacheHit; // 块缓存命中次数
+    private long blockCacheMiss; // 块缓存未命中次数
+    private double blockCacheHitRatio; // 块缓存命中率(%)
+    private long blockCacheUsage; // 块缓存占用(字节)
+    private long bytesRead; // 读取字节数(用户读)
+    private long bytesWritten; // 写入字节数(用户写)
+    private long compactReadBytes; // 压缩读取字节数
+    private long compactWriteBytes; // 压缩写入字节数
+    private long flushWriteBytes; // 刷盘写入字节数
+    private long blobBytesWritten; // blob文件写入字节数(键值分离)
+    private long runningCompactions; // 正在执行的压缩数
+    private long pendingCompactionBytes; // 待压缩字节数(所有列族)
+    private long rateLimitBytesPerSec; // 刷盘/压缩限速(字节/秒，0表示不限速)
+    private long triggeredCompactions; // 阈值触发的后台压缩次数
+    private long manualCompactions; // 手动压缩次数
+    private List<ColumnFamilyMetrics> columnFamilies; // 各列族指标
+
+    /**
+     * 列族监控数据
+     */
+    @Data
+    public static class ColumnFamilyMetrics {
+        private String name; // 列族名
+        private long memtableBytes; // 内存表占用(字节，含不可变内存表)
+        private long immutableMemtables; // 不可变内存表数量
+        private long level0Files; // L0 文件数
+        private long pendingCompactionBytes; // 待压缩字节数
+        private long liveSstBytes; // 有效SST文件大小(字节)
+        private long liveBlobBytes; // 有效blob文件大小(字节)
+        private long estimateKeys; // 估算键数
+        private long compactionReadBytes; // 压缩/刷盘读取字节数
+        private long compactionWriteBytes; // 压缩/刷盘写入字节数
+    }
+}
@@ -1,6 +1,9 @@
 package com.bit.solana.p2p.peer;
 
+import com.bit.solana.common.Key32;
 import lombok.Data;
+import org.bitcoinj.core.AddressFormatException;
+import org.bitcoinj.core.Base58;
 
 import java.util.ArrayList;
 import java.util.concurrent.ConcurrentHashMap;
@@ -11,11 +14,11 @@ public class Bucket {
     // 桶ID
     private int id;
 
-    //存储节点ID 保证节点顺序 用LinkedList保证插入修改速度
-    private ConcurrentLinkedDeque<byte[]> nodeIds = new ConcurrentLinkedDeque<>();
+    //存储节点ID 保证节点顺序 用LinkedList保证插入修改速度（Key32按内容判等，byte[]按引用判等会导致contains/remove失效）
+    private ConcurrentLinkedDeque<Key32> nodeIds = new ConcurrentLinkedDeque<>();
 
     //ID与节点信息的映射
-    private final ConcurrentHashMap<byte[], Peer> nodeMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Key32, Peer> nodeMap = new ConcurrentHashMap<>();
 
     //桶最后访问时间
     private long lastSeen;
@@ -29,19 +32,28 @@ public class Bucket {
     }
 
     public boolean contains(Peer peer) {
-        return nodeIds.contains(peer.getId());
+        Key32 peerId = keyOf(peer.getId());
+        return peerId != null && nodeMap.containsKey(peerId);
     }
 
+    /**
+     * @param id Base58编码的节点ID
+     */
     public boolean contains(String id) {
-        return nodeIds.contains(id);
+        Key32 peerId = keyOf(id);
+        return peerId != null && nodeMap.containsKey(peerId);
     }
 
     /**
      * 推送到头部（线程安全版本）
      * 先移除旧节点，再添加到头部，保证顺序正确性
+     * @return 节点ID不是32字节时返回 false
      */
-    public void pushToFront(Peer peer) {
-        byte[] peerId = peer.getId();
+    public boolean pushToFront(Peer peer) {
+        Key32 peerId = keyOf(peer.getId());
+        if (peerId == null) {
+            return false;
+        }
         // 1. 先移除（若存在）
         nodeIds.remove(peerId); // ConcurrentLinkedDeque的remove是线程安全的
         // 2. 添加到头部
@@ -56,27 +68,39 @@ public class Bucket {
         }
         // 更新最后访问时间
         this.lastSeen = System.currentTimeMillis();
+        return true;
     }
 
     /**
      * 添加节点到头部（线程安全）
+     * @return 新加入返回 true；已存在或节点ID不是32字节返回 false
      */
-    public void add(Peer peer) {
-        byte[] peerId = peer.getId();
-        // 避免重复添加
-        if (!nodeIds.contains(peerId)) {
+    public boolean add(Peer peer) {
+        Key32 peerId = keyOf(peer.getId());
+        if (peerId == null) {
+            return false;
+        }
+        // 避免重复添加（以映射为准，putIfAbsent保证并发添加只成功一次）
+        if (nodeMap.putIfAbsent(peerId, peer) == null) {
             nodeIds.addFirst(peerId);
-            nodeMap.put(peerId, peer);
             this.lastSeen = System.currentTimeMillis();
+            return true;
         }
+        return false;
     }
 
+    /**
+     * @param id Base58编码的节点ID
+     * @return 不存在或ID无效返回 null
+     */
     public Peer getNode(String id) {
-        Peer peer = nodeMap.get(id);
-        if (peer != null){
-            return peer;
-        }
-        return null;
+        Key32 peerId = keyOf(id);
+        return peerId == null ? null : nodeMap.get(peerId);
+    }
+
+    public Peer getNode(byte[] id) {
+        Key32 peerId = keyOf(id);
+        return peerId == null ? null : nodeMap.get(peerId);
     }
 
     /**
@@ -87,7 +111,11 @@ public class Bucket {
     }
 
 
-    public void remove(byte[] peerId) {
+    public void remove(byte[] id) {
+        Key32 peerId = keyOf(id);
+        if (peerId == null) {
+            return;
+        }
         nodeIds.remove(peerId);
         nodeMap.remove(peerId);
         this.lastSeen = System.currentTimeMillis();
@@ -98,7 +126,10 @@ public class Bucket {
      * @param node 要操作的节点
      */
     public void pushToAfter(Peer node) {
-        byte[] peerId = node.getId();
+        Key32 peerId = keyOf(node.getId());
+        if (peerId == null) {
+            return;
+        }
         nodeIds.remove(peerId);
         nodeIds.addLast(peerId); // 线程安全的尾部添加
         Peer existingPeer = nodeMap.get(peerId);
@@ -114,7 +145,7 @@ public class Bucket {
     /**
      * 获取所有节点ID（用于遍历，返回不可修改的视图避免并发问题）
      */
-    public Iterable<byte[]> getNodeIds() {
+    public Iterable<Key32> getNodeIds() {
         // 返回迭代器的快照，避免遍历中被修改导致异常
         return () -> nodeIds.iterator();
     }
@@ -136,4 +167,25 @@ public class Bucket {
         return nodesList;
     }
 
+    /**
+     * 节点ID转换为键，长度不是32字节返回 null（不抛异常，避免远端数据中断路由表操作）
+     */
+    private static Key32 keyOf(byte[] id) {
+        return id == null || id.length != Key32.LENGTH ? null : Key32.of(id);
+    }
+
+    /**
+     * Base58编码的节点ID转换为键，解码失败或长度不对返回 null
+     */
+    private static Key32 keyOf(String id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            return keyOf(Base58.decode(id));
+        } catch (AddressFormatException e) {
+            return null;
+        }
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.bit.solana.p2p.peer;
 
 
+import com.bit.solana.common.Key32;
 import com.bit.solana.proto.Structure;
 import com.google.protobuf.ByteString;
 import lombok.*;
@@ -137,10 +138,15 @@ public class Peer {
 
     /**
      * 从字节数组反序列化为Peer对象（基于Protobuf）
+     * @throws IOException 数据格式错误或节点ID不是32字节
      */
     public static Peer deserialize(byte[] data) throws IOException {
         Structure.ProtoPeer protoPeer = Structure.ProtoPeer.parseFrom(data);
-        return fromProto(protoPeer);
+        try {
+            return fromProto(protoPeer);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
     }
 
     // ==================== Proto转换 ====================
@@ -184,12 +190,16 @@ public class Peer {
 
     /**
      * 从Protobuf对象转换为Peer对象
+     * @throws IllegalArgumentException 节点ID不是32字节（来自网络的数据在这里拦截，不进入路由表）
      */
     public static Peer fromProto(Structure.ProtoPeer protoPeer) {
         Peer peer = new Peer();
 
         // 核心标识字段
         if (!protoPeer.getId().isEmpty()) {
+            if (protoPeer.getId().size() != Key32.LENGTH) {
+                throw new IllegalArgumentException("节点ID必须为" + Key32.LENGTH + "字节，实际: " + protoPeer.getId().size());
+            }
             peer.setId(protoPeer.getId().toByteArray());
         }
 
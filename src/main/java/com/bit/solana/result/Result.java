@@ -15,6 +15,7 @@ public class Result<T> implements Serializable {
 
     public static final Integer SC_OK_200 = 200;
     public static final Integer SC_INTERNAL_SERVER_ERROR_500 = 500;
+    public static final Integer SC_SERVICE_UNAVAILABLE_503 = 503;
     public static final Integer NO_AUTHZ = 510;
     public static final Integer NO_PERMISSION = 520;
 
@@ -39,6 +39,6 @@ public class AccountMeta {
     }
 
     public void setPublicKey(byte[] pubKey) {
-        this.pubkey = new PubkeyHash(pubKey);
+        this.pubkey = PubkeyHash.intern(pubKey);
     }
 }
\ No newline at end of file
@@ -1,9 +1,17 @@
 package com.bit.solana.structure.block;
 
 import com.bit.solana.common.BlockHash;
+import com.bit.solana.common.TransactionHash;
+import com.bit.solana.structure.tx.Transaction;
 import com.google.common.hash.BloomFilter;
 import lombok.Data;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -157,7 +165,79 @@ public class Block {
 
     // ========================== 序列化反序列化 ==========================
 
-
-
+    /**
+     * 序列化为持久化记录
+     * 格式：[区块哈希(32字节)] + [区块头长度(4字节)] + [区块头(Protobuf)] + [高度(8字节)] + [插槽(8字节)] + [周期(8字节)]
+     *      + [交易数量(4字节)] + ([交易长度(4字节)] + [交易(Transaction.serialize)])...
+     * 交易哈希列表不单独存储，反序列化时由交易ID还原
+     */
+    public byte[] serialize() {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             DataOutputStream dos = new DataOutputStream(baos)) {
+            blockHash.writeTo(dos);
+            byte[] headerBytes = header == null ? new byte[0] : header.serialize();
+            dos.writeInt(headerBytes.length);
+            dos.write(headerBytes);
+            dos.writeLong(height);
+            dos.writeLong(slot);
+            dos.writeLong(epoch);
+            List<Transaction> transactions = body == null || body.getTransactions() == null
+                    ? List.of() : body.getTransactions();
+            dos.writeInt(transactions.size());
+            for (Transaction tx : transactions) {
+                byte[] txBytes = tx.serialize();
+                dos.writeInt(txBytes.length);
+                dos.write(txBytes);
+            }
+            return baos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("区块序列化失败", e);
+        }
+    }
+
+    /**
+     * 从 serialize() 生成的字节数组还原区块
+     */
+    public static Block deserialize(byte[] data) {
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data))) {
+            Block block = new Block();
+            byte[] hash = new byte[32];
+            dis.readFully(hash);
+            block.setBlockHash(BlockHash.fromBytes(hash));
+            byte[] headerBytes = new byte[dis.readInt()];
+            dis.readFully(headerBytes);
+            if (headerBytes.length > 0) {
+                block.setHeader(BlockHeader.deserialize(headerBytes));
+            }
+            block.setHeight(dis.readLong());
+            block.setSlot(dis.readLong());
+            block.setEpoch(dis.readLong());
+
+            int txCount = dis.readInt();
+            List<Transaction> transactions = new ArrayList<>(txCount);
+            List<TransactionHash> transactionHashes = new ArrayList<>(txCount);
+            long bodySize = 0;
+            for (int i = 0; i < txCount; i++) {
+                byte[] txBytes = new byte[dis.readInt()];
+                dis.readFully(txBytes);
+                Transaction tx = Transaction.deserialize(txBytes);
+                transactions.add(tx);
+                transactionHashes.add(TransactionHash.fromBytes(tx.getTxId()));
+                bodySize += txBytes.length;
+            }
+            BlockBody body = new BlockBody();
+            body.setTransactions(transactions);
+            body.setTransactionHashes(transactionHashes);
+            body.setTransactionsCount(txCount);
+            body.setTotalSize(bodySize);
+            block.setBody(body);
+            block.setHeaderSize(headerBytes.length);
+            block.setBodySize(bodySize);
+            block.setTotalSize(data.length);
+            return block;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("区块反序列化失败", e);
+        }
+    }
 
 }
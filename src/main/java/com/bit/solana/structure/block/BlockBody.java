@@ -14,6 +14,11 @@ import java.util.List;
 @Data
 public class BlockBody {
 
+    /**
+     * 区块体最大字节数（Solana协议限制单区块约1.4MB，出块装箱时不得超过）
+     */
+    public static final long MAX_BODY_SIZE = 1_400_000;
+
     /**
      * 交易列表（区块包含的所有交易）
      * 交易按PoH时序排序（与区块头的poHHash对应），确保全网对交易顺序的共识
@@ -161,21 +161,21 @@ public class BlockHeader {
     public Structure.ProtoBlockHeader toProto() throws IOException {
         Structure.ProtoBlockHeader.Builder builder = Structure.ProtoBlockHeader.newBuilder();
 
-        // 处理字节类型字段（假设自定义哈希类有toBytes()方法）
+        // 处理字节类型字段（哈希直接包装内部数组，不拷贝）
         if (previousBlockHash != null) {
-            builder.setPreviousBlockHash(ByteString.copyFrom(previousBlockHash.toBytes()));
+            builder.setPreviousBlockHash(previousBlockHash.toByteString());
         }
         if (stateRoot != null) {
-            builder.setStateRootHash(ByteString.copyFrom(stateRoot.toBytes()));
+            builder.setStateRootHash(stateRoot.toByteString());
         }
         if (poHHash != null) {
-            builder.setPohHash(ByteString.copyFrom(poHHash.toBytes()));
+            builder.setPohHash(poHHash.toByteString());
         }
         if (recentVotesHash != null) {
-            builder.setRecentVotesHash(ByteString.copyFrom(recentVotesHash.toBytes()));
+            builder.setRecentVotesHash(recentVotesHash.toByteString());
         }
         if (feeCalculatorHash != null) {
-            builder.setFeeCalculatorHash(ByteString.copyFrom(feeCalculatorHash.toBytes()));
+            builder.setFeeCalculatorHash(feeCalculatorHash.toByteString());
         }
 
         // 处理基本类型字段
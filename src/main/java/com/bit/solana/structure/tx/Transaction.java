@@ -1,6 +1,7 @@
 package com.bit.solana.structure.tx;
 
 import com.bit.solana.common.BlockHash;
+import com.bit.solana.common.ByteHash32;
 import com.bit.solana.common.TransactionHash;
 import com.bit.solana.result.Result;
 import com.bit.solana.structure.poh.POHRecord;
@@ -9,9 +10,12 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -31,6 +35,7 @@ import static com.bit.solana.util.Sha.applySHA256;
 @NoArgsConstructor
 public class Transaction {
     //单笔交易最大大小为 1232字节 12*12*10  = 12.kb
+    private static final int SIGNATURE_LENGTH = 64;
 
     //合约大小最大 256KB - 512KB
 
@@ -74,12 +79,12 @@ public class Transaction {
     private POHRecord pohRecord;
 
     /**
-     * 每字节手续费
+     * 手续费（总额；排序时按每字节/每计算单元折算，见 TxUtils.priority）
      */
     private long fee;
 
     /**
-     * 字节
+     * 序列化后的字节数（getSize() 首次计算后缓存，0表示未计算）
      */
     private long size; //字节
 
@@ -188,6 +193,94 @@ public class Transaction {
         }
     }
 
+    /**
+     * 序列化完整交易（用于持久化）
+     * 格式：[签名数量(变长整数)] + [签名(64字节)...] + [签名数据（同 buildSignData）] + [手续费(8字节)]
+     */
+    public byte[] serialize() {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream(getSize());
+             DataOutputStream dos = new DataOutputStream(baos)) {
+            Objects.requireNonNull(signatures, "签名列表不能为空");
+            writeVarInt(dos, signatures.size());
+            for (Signature signature : signatures) {
+                byte[] value = signature.getValue();
+                if (value == null || value.length != SIGNATURE_LENGTH) {
+                    throw new IllegalArgumentException("签名必须为64字节");
+                }
+                dos.write(value);
+            }
+            serializeAccounts(dos);
+            serializeRecentBlockhash(dos);
+            serializeInstructions(dos);
+            dos.writeLong(fee);
+            return baos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("交易序列化失败", e);
+        }
+    }
+
+    /**
+     * 从 serialize() 生成的字节数组还原交易
+     */
+    public static Transaction deserialize(byte[] data) {
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data))) {
+            Transaction tx = new Transaction();
+            int signatureCount = readVarInt(dis);
+            List<Signature> signatures = new ArrayList<>(signatureCount);
+            for (int i = 0; i < signatureCount; i++) {
+                byte[] value = new byte[SIGNATURE_LENGTH];
+                dis.readFully(value);
+                signatures.add(new Signature(value));
+            }
+            tx.setSignatures(signatures);
+
+            int accountCount = readVarInt(dis);
+            List<AccountMeta> accounts = new ArrayList<>(accountCount);
+            for (int i = 0; i < accountCount; i++) {
+                byte[] publicKey = new byte[32];
+                dis.readFully(publicKey);
+                AccountMeta account = new AccountMeta();
+                account.setPublicKey(publicKey);
+                account.setSigner(dis.read() == 1);
+                account.setWritable(dis.read() == 1);
+                accounts.add(account);
+            }
+            tx.setAccounts(accounts);
+
+            byte[] blockHash = new byte[32];
+            dis.readFully(blockHash);
+            tx.setRecentBlockhash(BlockHash.fromBytes(blockHash));
+
+            int instructionCount = dis.readInt();
+            List<Instruction> instructions = new ArrayList<>(instructionCount);
+            for (int i = 0; i < instructionCount; i++) {
+                Instruction instruction = new Instruction();
+                int programIdIndex = readVarInt(dis);
+                instruction.setProgramIdIndex(programIdIndex);
+                // 程序ID不单独存储，由账户列表中的索引还原
+                if (programIdIndex < accounts.size()) {
+                    instruction.setProgramId(accounts.get(programIdIndex).getPublicKey());
+                }
+                int indexCount = readVarInt(dis);
+                List<Integer> accountIndices = new ArrayList<>(indexCount);
+                for (int j = 0; j < indexCount; j++) {
+                    accountIndices.add(readVarInt(dis));
+                }
+                instruction.setAccounts(accountIndices);
+                byte[] instructionData = new byte[readVarInt(dis)];
+                dis.readFully(instructionData);
+                instruction.setData(instructionData);
+                instructions.add(instruction);
+            }
+            tx.setInstructions(instructions);
+            tx.setFee(dis.readLong());
+            tx.setSize(data.length);
+            return tx;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("交易反序列化失败", e);
+        }
+    }
+
     /**
      * 序列化账户元数据列表
      * 格式：[账户数量(变长整数)] + [每个账户的序列化数据]
@@ -199,13 +292,8 @@ public class Transaction {
         writeVarInt(dos, accounts.size());
         // 逐个写入账户元数据
         for (AccountMeta account : accounts) {
-            byte[] publicKey = account.getPublicKey();
-            Objects.requireNonNull(publicKey, "账户公钥不能为空");
-            if (publicKey.length != 32) {
-                throw new IllegalArgumentException("账户公钥必须为32字节，实际为" + publicKey.length + "字节");
-            }
-            // 写入公钥（32字节）
-            dos.write(publicKey);
+            // 写入公钥（32字节，PubkeyHash构造时已校验长度，直接写内部数组）
+            Objects.requireNonNull(account.getPubkey(), "账户公钥不能为空").writeTo(dos);
             // 写入isSigner标志（1字节，0=false，1=true）
             dos.write(account.isSigner() ? 1 : 0);
             // 写入isWritable标志（1字节，0=false，1=true）
@@ -218,12 +306,7 @@ public class Transaction {
      * 格式：[区块哈希(32字节)]
      */
     private void serializeRecentBlockhash(DataOutputStream dos) throws IOException {
-        Objects.requireNonNull(recentBlockhash, "最近区块哈希不能为空");
-        byte[] blockHashBytes = recentBlockhash.getBytes();
-        if (blockHashBytes.length != 32) {
-            throw new IllegalArgumentException("区块哈希必须为32字节，实际为" + blockHashBytes.length + "字节");
-        }
-        dos.write(blockHashBytes);
+        Objects.requireNonNull(recentBlockhash, "最近区块哈希不能为空").writeTo(dos);
     }
 
     /**
@@ -275,6 +358,22 @@ public class Transaction {
 
 
 
+    /**
+     * 读取变长整数（writeVarInt 的逆操作）
+     */
+    private static int readVarInt(DataInputStream dis) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = dis.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("变长整数格式错误");
+    }
+
+
     @Override
     public int hashCode() {
         // 优先使用txId计算哈希（唯一标识）
@@ -313,8 +412,73 @@ public class Transaction {
         return Math.abs(hash);
     }
 
+    /**
+     * 序列化后的字节数（与 serialize() 输出的长度一致）
+     * 首次调用时按字段计算（不实际序列化）并缓存在 size 字段；反序列化得到的交易直接使用原始字节长度。
+     * 字段不完整（缺少签名、账户、区块哈希或指令）时只计算不缓存
+     * 注：交易签名后不应再修改字段，否则缓存的大小失效
+     */
     public int getSize() {
-        return 10000;
+        if (size > 0) {
+            return (int) size;
+        }
+        int computed = computeSerializedSize();
+        if (isComplete()) {
+            size = computed;
+        }
+        return computed;
+    }
+
+    /**
+     * 按 serialize() 的格式逐字段累加字节数
+     */
+    private int computeSerializedSize() {
+        int total = 0;
+        int signatureCount = signatures == null ? 0 : signatures.size();
+        total += varIntSize(signatureCount) + signatureCount * SIGNATURE_LENGTH;
+        int accountCount = accounts == null ? 0 : accounts.size();
+        // 公钥 + isSigner + isWritable
+        total += varIntSize(accountCount) + accountCount * (ByteHash32.HASH_LENGTH + 2);
+        total += ByteHash32.HASH_LENGTH;
+        // 指令数量为定长int
+        total += Integer.BYTES;
+        if (instructions != null) {
+            for (Instruction instruction : instructions) {
+                total += varIntSize(instruction.getProgramIdIndex());
+                List<Integer> accountIndices = instruction.getAccounts();
+                total += varIntSize(accountIndices == null ? 0 : accountIndices.size());
+                if (accountIndices != null) {
+                    for (int index : accountIndices) {
+                        total += varIntSize(index);
+                    }
+                }
+                byte[] data = instruction.getData();
+                int dataLength = data == null ? 0 : data.length;
+                total += varIntSize(dataLength) + dataLength;
+            }
+        }
+        // 手续费
+        total += Long.BYTES;
+        return total;
+    }
+
+    private boolean isComplete() {
+        if (signatures == null || accounts == null || recentBlockhash == null || instructions == null) {
+            return false;
+        }
+        for (Instruction instruction : instructions) {
+            if (instruction.getAccounts() == null || instruction.getData() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * writeVarInt 写出的字节数（每字节7位）
+     */
+    private static int varIntSize(int value) {
+        return value < 0 ? 5 : (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
     }
 
 
@@ -26,7 +26,6 @@ public class TxServiceImpl implements TxService {
         if (tx == null || tx.getSignatures() == null || tx.getSignatures().isEmpty()) {
             return Result.error("无效交易：缺少签名");
         }
-
-        return null;
+        return txPool.addTransaction(tx);
     }
 }
@@ -0,0 +1,24 @@
+package com.bit.solana.txpool;
+
+/**
+ * 一次按账户锁分批执行的统计（每个区块/每次拉取一次）
+ * @param transactions 参与调度的交易数
+ * @param succeeded 执行成功的交易数
+ * @param batches 无冲突批次数（批次之间串行，批次内部并行）
+ * @param maxBatchSize 最大批次的交易数
+ * @param parallelism 实际并行度：各线程执行交易的累计耗时 / 总耗时
+ * @param lockWaitMicros 等待账户锁的累计时间（微秒），批次无冲突时应接近0
+ * @param elapsedMicros 总耗时（微秒，含分批）
+ */
+public record ScheduleStats(int transactions, int succeeded, int batches, int maxBatchSize,
+                            double parallelism, long lockWaitMicros, long elapsedMicros) {
+
+    public static final ScheduleStats EMPTY = new ScheduleStats(0, 0, 0, 0, 0, 0, 0);
+
+    /**
+     * 平均每批交易数（不考虑线程数时可达到的理论并行度）
+     */
+    public double avgBatchSize() {
+        return batches == 0 ? 0 : (double) transactions / batches;
+    }
+}
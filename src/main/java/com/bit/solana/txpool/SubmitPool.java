@@ -1,5 +1,6 @@
 package com.bit.solana.txpool;
 
+import com.bit.solana.common.Key32;
 import com.bit.solana.structure.tx.Transaction;
 
 import java.util.List;
@@ -7,10 +8,13 @@ import java.util.List;
 public interface SubmitPool {
 
     List<Transaction> selectAndRemoveTopTransactions();
+    SubmitStatus submit(Transaction transaction);
     boolean addTransaction(Transaction transaction);
+    int getPendingSubmitCount();
     int cleanExpiredTransactions(long currentTime);
     long getTotalTransactionSize();
     int getTotalTransactionCount();
     boolean removeTransactionByTxId(String txId);
     Transaction findTransactionByTxId(String txId);
+    boolean contains(Key32 txId);
 }
@@ -0,0 +1,19 @@
+package com.bit.solana.txpool;
+
+/**
+ * 交易提交到缓冲池的结果
+ */
+public enum SubmitStatus {
+    // 已进入提交队列，等待写入缓冲池
+    ACCEPTED,
+    // 提交队列已满（瞬时流量超过处理能力），客户端应稍后重试
+    BUSY,
+    // 缓冲池容量已满，交易被丢弃
+    POOL_FULL,
+    // 同一交易已在提交队列或缓冲池中
+    DUPLICATE,
+    // 交易无效（为空或缺少签名）
+    INVALID,
+    // 缓冲池已关闭
+    CLOSED
+}
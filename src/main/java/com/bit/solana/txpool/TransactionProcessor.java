@@ -3,6 +3,7 @@ package com.bit.solana.txpool;
 import com.bit.solana.structure.tx.Transaction;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * 交易处理器接口
@@ -10,12 +11,26 @@ import java.util.List;
  */
 public interface TransactionProcessor {
     /**
-     * 处理交易
+     * 处理交易（只做分批调度与加锁，不执行业务逻辑）
      * @param transactions 待处理交易
      * @return 处理成功的交易数量
      */
     int processTransactions(List<Transaction> transactions);
 
+    /**
+     * 按账户读写集合将交易分成互不冲突的批次，批次内并行执行
+     * 访问同一可写账户的交易保持传入顺序
+     * @param transactions 待处理交易（按优先级排序）
+     * @param executor 单笔交易的执行逻辑，返回是否成功（执行时已持有该交易涉及账户的读写锁）
+     * @return 处理成功的交易数量
+     */
+    int processTransactions(List<Transaction> transactions, Predicate<Transaction> executor);
+
+    /**
+     * 最近一次处理的统计
+     */
+    ScheduleStats getLastStats();
+
     /**
      * 启动处理器
      */
@@ -25,4 +40,4 @@ public interface TransactionProcessor {
      * 停止处理器
      */
     void stop();
-}
\ No newline at end of file
+}
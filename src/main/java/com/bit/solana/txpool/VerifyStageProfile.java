@@ -0,0 +1,17 @@
+package com.bit.solana.txpool;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 交易验证流水线单个阶段的配置
+ * 在 system.verify-stages.<阶段名> 中按字段覆盖（为空的字段沿用默认值），
+ * 阶段名：precheck / sig-verify / dedup / blockhash / admit
+ */
+@Data
+@NoArgsConstructor
+public class VerifyStageProfile {
+    private Integer threads;    // 工作线程数
+    private Integer batchSize;  // 每个线程单次处理的最大任务数
+    private Integer queueSize;  // 阶段输入队列长度
+}
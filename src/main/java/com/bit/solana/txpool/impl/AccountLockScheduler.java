@@ -0,0 +1,64 @@
+package com.bit.solana.txpool.impl;
+
+import com.bit.solana.common.Key32;
+import com.bit.solana.common.Key32Map;
+import com.bit.solana.structure.tx.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按账户锁将交易贪心打包为互不冲突的批次（类似 Sealevel）
+ * 冲突规则：写-写、读-写冲突，读-读不冲突。
+ * 按传入顺序（手续费从高到低）逐笔放入最靠前的可用批次：
+ * 批次号必须大于该交易所写账户上一次被读/写的批次、所读账户上一次被写的批次，
+ * 因此访问同一账户的冲突交易之间保持传入顺序，批次内任意两笔交易都不冲突。
+ * 每笔交易只查询自己涉及的账户，整体 O(交易数 × 账户数)
+ */
+final class AccountLockScheduler {
+
+    private AccountLockScheduler() {
+    }
+
+    /**
+     * @param maxBatchSize 单批最大交易数，已满的批次顺延到下一批
+     * @return 按执行顺序排列的批次
+     */
+    static List<List<LockedTransaction>> schedule(List<Transaction> transactions, int maxBatchSize) {
+        List<List<LockedTransaction>> batches = new ArrayList<>();
+        // 账户 -> {最后写入的批次, 最后读取的批次}
+        Key32Map<int[]> lastAccess = new Key32Map<>(transactions.size() * 2);
+        for (Transaction tx : transactions) {
+            LockedTransaction locked = LockedTransaction.of(tx);
+            int batch = 0;
+            for (Key32 key : locked.writes) {
+                int[] access = lastAccess.get(key);
+                if (access != null) {
+                    batch = Math.max(batch, Math.max(access[0], access[1]) + 1);
+                }
+            }
+            for (Key32 key : locked.reads) {
+                int[] access = lastAccess.get(key);
+                if (access != null) {
+                    batch = Math.max(batch, access[0] + 1);
+                }
+            }
+            while (batch < batches.size() && batches.get(batch).size() >= maxBatchSize) {
+                batch++;
+            }
+            if (batch == batches.size()) {
+                batches.add(new ArrayList<>());
+            }
+            batches.get(batch).add(locked);
+
+            for (Key32 key : locked.writes) {
+                lastAccess.computeIfAbsent(key, k -> new int[]{-1, -1})[0] = batch;
+            }
+            for (Key32 key : locked.reads) {
+                int[] access = lastAccess.computeIfAbsent(key, k -> new int[]{-1, -1});
+                access[1] = Math.max(access[1], batch);
+            }
+        }
+        return batches;
+    }
+}
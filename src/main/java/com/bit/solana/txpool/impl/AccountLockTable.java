@@ -0,0 +1,93 @@
+package com.bit.solana.txpool.impl;
+
+import com.bit.solana.common.Key32;
+import com.bit.solana.common.Key32Map;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 账户读写锁表
+ * 一笔交易的全部账户锁一次性获取（全部可用才获取，否则等待），不会出现持有部分锁互相等待的死锁；
+ * 表中只保留正被持有的账户，释放后即删除，大小与正在执行的交易数成正比
+ * 分批调度后同一批次内不会冲突，锁表用于保证不同调用方（出块、回放等）同时执行时的正确性
+ */
+final class AccountLockTable {
+    // 被写锁占用；大于0表示读锁持有数
+    private static final int WRITE_LOCKED = -1;
+
+    private final Key32Map<int[]> holders = new Key32Map<>();
+    private final ReentrantLock mutex = new ReentrantLock();
+    private final Condition released = mutex.newCondition();
+
+    /**
+     * 获取交易涉及账户的读写锁
+     * @return 等待锁的时间（纳秒），未等待返回0
+     */
+    long lock(LockedTransaction tx) {
+        mutex.lock();
+        try {
+            long waitStart = 0;
+            while (!available(tx)) {
+                if (waitStart == 0) {
+                    waitStart = System.nanoTime();
+                }
+                released.awaitUninterruptibly();
+            }
+            for (Key32 key : tx.writes) {
+                holders.put(key, new int[]{WRITE_LOCKED});
+            }
+            for (Key32 key : tx.reads) {
+                holders.computeIfAbsent(key, k -> new int[1])[0]++;
+            }
+            return waitStart == 0 ? 0 : System.nanoTime() - waitStart;
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    void unlock(LockedTransaction tx) {
+        mutex.lock();
+        try {
+            for (Key32 key : tx.writes) {
+                holders.remove(key);
+            }
+            for (Key32 key : tx.reads) {
+                int[] count = holders.get(key);
+                if (count != null && --count[0] == 0) {
+                    holders.remove(key);
+                }
+            }
+            released.signalAll();
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    /**
+     * 当前被持有锁的账户数
+     */
+    int size() {
+        mutex.lock();
+        try {
+            return holders.size();
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    private boolean available(LockedTransaction tx) {
+        for (Key32 key : tx.writes) {
+            if (holders.containsKey(key)) {
+                return false;
+            }
+        }
+        for (Key32 key : tx.reads) {
+            int[] count = holders.get(key);
+            if (count != null && count[0] == WRITE_LOCKED) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
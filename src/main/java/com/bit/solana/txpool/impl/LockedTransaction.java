@@ -0,0 +1,68 @@
+package com.bit.solana.txpool.impl;
+
+import com.bit.solana.common.Key32;
+import com.bit.solana.structure.account.AccountMeta;
+import com.bit.solana.structure.tx.Transaction;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 交易及其账户读写集合
+ * 同一账户同时以可写和只读出现时按可写处理；重复账户只保留一个
+ */
+final class LockedTransaction {
+    private static final Key32[] NONE = new Key32[0];
+
+    final Transaction tx;
+    final Key32[] writes;
+    final Key32[] reads;
+
+    private LockedTransaction(Transaction tx, Key32[] writes, Key32[] reads) {
+        this.tx = tx;
+        this.writes = writes;
+        this.reads = reads;
+    }
+
+    static LockedTransaction of(Transaction tx) {
+        List<AccountMeta> accounts = tx.getAccounts();
+        if (accounts == null || accounts.isEmpty()) {
+            return new LockedTransaction(tx, NONE, NONE);
+        }
+        // 单笔交易账户数很少，线性查重即可
+        Key32[] writes = new Key32[accounts.size()];
+        Key32[] reads = new Key32[accounts.size()];
+        int writeCount = 0;
+        int readCount = 0;
+        for (AccountMeta account : accounts) {
+            if (account == null || account.getPubkey() == null || !account.isWritable()) {
+                continue;
+            }
+            Key32 key = account.getPubkey().toKey();
+            if (indexOf(writes, writeCount, key) < 0) {
+                writes[writeCount++] = key;
+            }
+        }
+        for (AccountMeta account : accounts) {
+            if (account == null || account.getPubkey() == null || account.isWritable()) {
+                continue;
+            }
+            Key32 key = account.getPubkey().toKey();
+            if (indexOf(writes, writeCount, key) < 0 && indexOf(reads, readCount, key) < 0) {
+                reads[readCount++] = key;
+            }
+        }
+        return new LockedTransaction(tx,
+                writeCount == 0 ? NONE : Arrays.copyOf(writes, writeCount),
+                readCount == 0 ? NONE : Arrays.copyOf(reads, readCount));
+    }
+
+    private static int indexOf(Key32[] keys, int count, Key32 key) {
+        for (int i = 0; i < count; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,121 @@
+package com.bit.solana.txpool.impl;
+
+import com.bit.solana.common.Key32;
+import com.bit.solana.common.Key32Map;
+
+/**
+ * 交易池中待处理交易的账户引用计数索引：账户 -> {可写引用数, 只读引用数}
+ * 交易入池时加计数、出池（打包、删除、过期）时减计数，计数归零即删除
+ * 入池时按可写引用数限制热点账户的待处理交易数，只查询交易自身涉及的账户（O(账户数)）
+ * 按账户哈希高位分片，每个分片独立锁（synchronized(分片)）
+ */
+final class PendingAccountIndex {
+    private static final int WRITERS = 0;
+    private static final int READERS = 1;
+
+    private final int shardBits;
+    private final Key32Map<int[]>[] shards;
+
+    @SuppressWarnings("unchecked")
+    PendingAccountIndex(int shardBits) {
+        this.shardBits = shardBits;
+        this.shards = new Key32Map[1 << shardBits];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Key32Map<>();
+        }
+    }
+
+    void add(LockedTransaction tx) {
+        for (Key32 key : tx.writes) {
+            increment(key, WRITERS);
+        }
+        for (Key32 key : tx.reads) {
+            increment(key, READERS);
+        }
+    }
+
+    void remove(LockedTransaction tx) {
+        for (Key32 key : tx.writes) {
+            decrement(key, WRITERS);
+        }
+        for (Key32 key : tx.reads) {
+            decrement(key, READERS);
+        }
+    }
+
+    /**
+     * 是否与池中待处理交易冲突：所写账户有待处理的读/写，或所读账户有待处理的写
+     */
+    boolean conflicts(LockedTransaction tx) {
+        for (Key32 key : tx.writes) {
+            if (referenced(key)) {
+                return true;
+            }
+        }
+        for (Key32 key : tx.reads) {
+            if (count(key, WRITERS) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 待处理交易中写该账户的数量
+     */
+    int writers(Key32 account) {
+        return count(account, WRITERS);
+    }
+
+    /**
+     * 被引用的账户数
+     */
+    int size() {
+        int size = 0;
+        for (Key32Map<int[]> shard : shards) {
+            synchronized (shard) {
+                size += shard.size();
+            }
+        }
+        return size;
+    }
+
+    private boolean referenced(Key32 key) {
+        Key32Map<int[]> shard = shardOf(key);
+        synchronized (shard) {
+            return shard.containsKey(key);
+        }
+    }
+
+    private int count(Key32 key, int kind) {
+        Key32Map<int[]> shard = shardOf(key);
+        synchronized (shard) {
+            int[] refs = shard.get(key);
+            return refs == null ? 0 : refs[kind];
+        }
+    }
+
+    private void increment(Key32 key, int kind) {
+        Key32Map<int[]> shard = shardOf(key);
+        synchronized (shard) {
+            shard.computeIfAbsent(key, k -> new int[2])[kind]++;
+        }
+    }
+
+    private void decrement(Key32 key, int kind) {
+        Key32Map<int[]> shard = shardOf(key);
+        synchronized (shard) {
+            int[] refs = shard.get(key);
+            if (refs == null || refs[kind] == 0) {
+                return;
+            }
+            if (--refs[kind] == 0 && refs[WRITERS + READERS - kind] == 0) {
+                shard.remove(key);
+            }
+        }
+    }
+
+    private Key32Map<int[]> shardOf(Key32 key) {
+        return shards[key.hashCode() >>> (Integer.SIZE - shardBits)];
+    }
+}
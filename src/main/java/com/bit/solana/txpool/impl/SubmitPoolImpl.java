@@ -1,23 +1,31 @@
 package com.bit.solana.txpool.impl;
 
+import com.bit.solana.common.Key32;
+import com.bit.solana.common.Key32Map;
+import com.bit.solana.common.Key32Set;
+import com.bit.solana.common.MpscRingBuffer;
+import com.bit.solana.common.TimingWheel;
+import com.bit.solana.common.WaitStrategy;
+import com.bit.solana.config.SystemConfig;
 import com.bit.solana.structure.tx.Transaction;
 import com.bit.solana.structure.tx.TransactionStatusResolver;
 import com.bit.solana.txpool.SubmitPool;
-import com.google.common.hash.Hashing;
+import com.bit.solana.txpool.SubmitStatus;
+import com.bit.solana.util.ByteUtils;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ConcurrentSkipListSet;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.StampedLock;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Slf4j
 @Component
@@ -26,53 +34,127 @@ public class SubmitPoolImpl implements SubmitPool {
     private static final int MAX_CAPACITY = 1 << 20; // 1048576 笔
     private static final int MAX_SIZE = 1 << 30;      // 1G 字节
     private static final int SELECTION_SIZE = 1<<12;  // 每次筛选最大数量
+    // 每次筛选最多暂时取出的未选入交易数（热点账户），不计入选入数量，只防止整池反复出堆入堆
+    private static final int MAX_DEFERRED = SELECTION_SIZE << 4;
+    // 同一可写账户每批最多选入的交易数（本地手续费市场，超出部分等待下一批）
+    private static final int ACCOUNT_BATCH_LIMIT = 1 << 6;
     private static final int SHARD_COUNT = 32;        // 分片数（2的幂次，增加分片减少竞争）
     private static final int SEGMENT_CAPACITY = MAX_CAPACITY / SHARD_COUNT; // 每分片容量
     private static final int SEGMENT_SIZE = MAX_SIZE / SHARD_COUNT;         // 每分片字节限制
+    private static final int SHARD_INITIAL_SIZE = 1 << 10;                  // 分片堆初始容量（按需扩容）
     // 交易过期时间（ms）
     private static final long TX_EXPIRE_SECONDS = 400;
+    // 过期时间轮刻度（ms）与清理任务间隔（ms）
+    private static final long EXPIRY_TICK_MS = 10;
+    private static final long CLEANUP_INTERVAL_MS = 50;
+    // 提交队列默认槽位数（吸收10万级瞬时并发提交）
+    private static final int DEFAULT_INGRESS_CAPACITY = 1 << 17;
+    // 提交队列每批写入缓冲池的最大数量
+    private static final int INGRESS_DRAIN_BATCH = 1 << 10;
+    // 提交队列为空时单次等待上限
+    private static final long INGRESS_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Autowired(required = false)
+    private SystemConfig config;
 
     // 全局统计（原子操作确保精确性）
     private final AtomicInteger totalTx = new AtomicInteger(0);
     private final AtomicLong totalBytes = new AtomicLong(0);
 
-    // 分片数组：使用ConcurrentSkipListSet实现无锁排序，StampedLock优化读写
+    // 分片数组：每个分片一个按手续费排序的索引堆，分片锁只在入堆/出堆时持有
     private final Shard[] shards = new Shard[SHARD_COUNT];
 
     // 清理过期交易定时器
     private ThreadPoolTaskScheduler cleanupScheduler;
+    // 过期时间轮（按 submitTime 到期），每次清理只处理到期的槽位；到期后经分片索引删除
+    private TimingWheel<Transaction> expiryWheel;
+    private final ReentrantLock expiryLock = new ReentrantLock();
+    // 过期统计：累计过期数、最近一次清理过期数
+    private final LongAdder expiredCount = new LongAdder();
+    private volatile int lastExpiredPerTick;
+
+    // 提交队列：HTTP/QUIC 线程只做入队，单个写入线程批量放入分片，分片写入不再与提交线程竞争
+    private MpscRingBuffer<Transaction> ingress;
+    private Thread ingressThread;
+    // 已进入提交队列、写入线程尚未处理的交易ID（写入分片或丢弃后移除），提交去重与 contains 都能看到
+    private final Set<Key32> pendingIngress = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+    // 提交队列统计
+    private final LongAdder acceptedCount = new LongAdder();
+    private final LongAdder busyCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    // 本地手续费市场统计：累计因热点账户未选入的次数、最近一次筛选的未选入数与热点账户数
+    private final LongAdder deferredCount = new LongAdder();
+    private volatile int lastDeferred;
+    private volatile int lastHotAccounts;
 
     // 分片内部结构
     private static class Shard {
-        // 按交易费用降序排序，支持并发操作
-        final ConcurrentSkipListSet<Transaction> txSet;
-        // 读写锁：乐观读+悲观写，减少锁竞争
-        final StampedLock lock = new StampedLock();
-        // 分片内统计（原子操作避免锁内计算）
+        // 按优先级降序的索引堆（txId -> 堆节点）
+        final TxFeeHeap heap = new TxFeeHeap(SHARD_INITIAL_SIZE);
+        // 分片锁：堆非线程安全，所有访问都加锁（每次只覆盖一次入堆/出堆）
+        final ReentrantLock lock = new ReentrantLock();
+        // 分片内统计（原子操作，提交时无锁判断容量）
         final AtomicInteger count = new AtomicInteger(0);
         final AtomicLong bytes = new AtomicLong(0);
-
-        Shard(Comparator<Transaction> comparator) {
-            this.txSet = new ConcurrentSkipListSet<>(comparator);
-        }
     }
 
     @PostConstruct
     public void init() {
-        // 按交易费用降序排序（高优先级优先），同时重写equals避免重复（基于txId）
-        Comparator<Transaction> comparator = Comparator.comparingLong(Transaction::getFee).reversed()
-                .thenComparing(Transaction::getTxIdStr); // 相同费用按txId去重
         for (int i = 0; i < SHARD_COUNT; i++) {
-            shards[i] = new Shard(comparator);
+            shards[i] = new Shard();
         }
+        expiryWheel = new TimingWheel<>(EXPIRY_TICK_MS, System.currentTimeMillis());
         log.info("SubmitPool initialized with {} shards, max capacity: {} txs, max size: {} bytes",
                 SHARD_COUNT, MAX_CAPACITY, MAX_SIZE);
         // 初始化定时清理调度器
         initCleanupScheduler();
+        initIngress();
+    }
+
+    /**
+     * 初始化提交队列与写入线程
+     */
+    private void initIngress() {
+        int capacity = DEFAULT_INGRESS_CAPACITY;
+        WaitStrategy waitStrategy = WaitStrategy.PARK;
+        if (config != null) {
+            if (config.getSubmitQueueSize() != null) {
+                capacity = config.getSubmitQueueSize();
+            }
+            if (config.getSubmitWaitStrategy() != null) {
+                waitStrategy = config.getSubmitWaitStrategy();
+            }
+        }
+        ingress = new MpscRingBuffer<>(capacity, waitStrategy);
+        running = true;
+        ingressThread = new Thread(this::ingressLoop, "tx-ingress");
+        ingressThread.setDaemon(true);
+        ingressThread.start();
+        log.info("Submit ingress queue initialized, capacity: {}, wait strategy: {}", ingress.capacity(), waitStrategy);
     }
 
     /**
-     * 初始化定时清理任务调度器，每400ms执行一次过期交易清理
+     * 写入线程：批量取出提交队列中的交易放入分片，队列为空时按等待策略等待
+     */
+    private void ingressLoop() {
+        while (running) {
+            try {
+                if (ingress.drain(this::insertPending, INGRESS_DRAIN_BATCH) == 0) {
+                    ingress.await(INGRESS_IDLE_NANOS);
+                }
+            } catch (Exception e) {
+                log.error("Error occurred while draining submit queue", e);
+            }
+        }
+        // 关闭前写入剩余交易
+        while (ingress.drain(this::insertPending, INGRESS_DRAIN_BATCH) > 0) {
+            // 继续取出
+        }
+    }
+
+    /**
+     * 初始化定时清理任务调度器，每50ms推进一次过期时间轮
      */
     private void initCleanupScheduler() {
         cleanupScheduler = new ThreadPoolTaskScheduler();
@@ -80,12 +162,12 @@ public class SubmitPoolImpl implements SubmitPool {
         cleanupScheduler.setPoolSize(1); // 清理任务单线程即可，避免并发冲突
         cleanupScheduler.initialize();
 
-        // 提交定时任务：每400ms执行一次
+        // 提交定时任务：每次只处理到期的时间轮槽位，间隔可以远小于过期时间
         cleanupScheduler.scheduleAtFixedRate(
                 this::cleanExpiredTask, // 执行的任务
-                400 // 间隔时间（ms）
+                CLEANUP_INTERVAL_MS // 间隔时间（ms）
         );
-        log.info("Expired transaction cleanup scheduler initialized, interval: 400ms");
+        log.info("Expired transaction cleanup scheduler initialized, interval: {}ms", CLEANUP_INTERVAL_MS);
     }
 
     /**
@@ -104,93 +186,253 @@ public class SubmitPoolImpl implements SubmitPool {
     }
 
     /**
-     * 优化哈希算法：使用MurmurHash确保分片均匀分布
+     * txId 本身是SHA-256摘要，分布均匀，直接取首字节定位分片（不再对十六进制串做哈希）
      */
     private int getShardIndex(Transaction tx) {
-        String txId = tx.getTxIdStr();
-        int hash = Hashing.murmur3_32_fixed().hashString(txId, StandardCharsets.UTF_8).asInt();
-        return Math.abs(hash) % SHARD_COUNT;
+        return shardOf(tx.getTxId());
+    }
+
+    private static int shardOf(byte[] txId) {
+        return (txId[0] & 0xFF) & (SHARD_COUNT - 1);
+    }
+
+    private static int shardOf(Key32 txId) {
+        return (int) (txId.word(0) >>> 56) & (SHARD_COUNT - 1);
     }
 
     /**
-     * 提取并删除优先级最高的交易（批量操作优化）
+     * 提取并删除全局优先级（每字节/每计算单元手续费）最高的前 SELECTION_SIZE 笔交易
+     * 各分片堆顶组成一个大顶堆做k路归并：每次取出优先级最高的分片，只在弹出这一笔时持有该分片的锁，
+     * 弹出后以该分片新的堆顶重新入堆。
+     * 本地手续费市场：同一可写账户在一批中最多选入 ACCOUNT_BATCH_LIMIT 笔（按优先级竞争），
+     * 超出的交易留在缓冲池等待下一批，热点账户不会占满整批、使后续执行串行化；
+     * 未选入的交易不占用本批的筛选数量（否则单个热点账户的大量交易会使其他账户的交易选不出来），
+     * 只受 MAX_DEFERRED 限制。
+     * 选出的交易按优先级降序排列
      */
     @Override
     public List<Transaction> selectAndRemoveTopTransactions() {
         List<Transaction> result = new ArrayList<>(SELECTION_SIZE);
-        int remaining = SELECTION_SIZE;
-
-        // 轮询分片提取交易，减少单分片压力
+        PriorityQueue<ShardHead> heads = new PriorityQueue<>(SHARD_COUNT);
         for (Shard shard : shards) {
-            if (remaining <= 0) break;
+            double priority = peekPriority(shard);
+            if (priority != Double.NEGATIVE_INFINITY) {
+                heads.add(new ShardHead(shard, priority));
+            }
+        }
 
-            long stamp = shard.lock.tryOptimisticRead(); // 乐观读尝试
-            List<Transaction> toRemove = new ArrayList<>();
+        // 本批中各可写账户已选入的交易数
+        Key32Map<int[]> accountCounts = new Key32Map<>(SELECTION_SIZE);
+        List<Transaction> deferred = new ArrayList<>();
+        Key32Set hotAccounts = new Key32Set();
+        long bytesRemoved = 0;
+        while (result.size() < SELECTION_SIZE && deferred.size() < MAX_DEFERRED && !heads.isEmpty()) {
+            ShardHead head = heads.poll();
+            Shard shard = head.shard;
+            Transaction tx;
+            double nextPriority;
+            shard.lock.lock();
             try {
-                // 读取前N个高优先级交易
-                Iterator<Transaction> iterator = shard.txSet.iterator();
-                while (remaining > 0 && iterator.hasNext()) {
-                    toRemove.add(iterator.next());
-                    remaining--;
-                }
-                // 验证乐观读是否有效（无写入干扰）
-                if (!shard.lock.validate(stamp)) {
-                    stamp = shard.lock.readLock(); // 升级为悲观读锁
-                    try {
-                        iterator = shard.txSet.iterator();
-                        toRemove.clear();
-                        while (remaining > 0 && iterator.hasNext()) {
-                            toRemove.add(iterator.next());
-                            remaining--;
-                        }
-                    } finally {
-                        shard.lock.unlockRead(stamp);
-                    }
-                }
+                tx = shard.heap.poll();
+                nextPriority = shard.heap.peekPriority();
             } finally {
-                // 批量删除（悲观写锁）
-                if (!toRemove.isEmpty()) {
-                    stamp = shard.lock.writeLock();
-                    try {
-                        int removed = 0;
-                        long bytesRemoved = 0;
-                        for (Transaction tx : toRemove) {
-                            if (shard.txSet.remove(tx)) { // 确保存在再删除
-                                removed++;
-                                bytesRemoved += tx.getSize(); // 使用缓存的大小
-                            }
-                        }
-                        // 批量更新统计（减少原子操作次数）
-                        if (removed > 0) {
-                            shard.count.addAndGet(-removed);
-                            shard.bytes.addAndGet(-bytesRemoved);
-                            totalTx.addAndGet(-removed);
-                            totalBytes.addAndGet(-bytesRemoved);
-                            result.addAll(toRemove.subList(0, removed));
-                        }
-                    } finally {
-                        shard.lock.unlockWrite(stamp);
-                    }
-                }
+                shard.lock.unlock();
+            }
+            if (nextPriority != Double.NEGATIVE_INFINITY) {
+                head.priority = nextPriority;
+                heads.add(head);
             }
+            if (tx == null) {
+                continue;
+            }
+            if (!admitToBatch(LockedTransaction.of(tx), accountCounts, hotAccounts)) {
+                deferred.add(tx);
+                continue;
+            }
+            int txSize = tx.getSize();
+            shard.count.decrementAndGet();
+            shard.bytes.addAndGet(-txSize);
+            bytesRemoved += txSize;
+            result.add(tx);
         }
 
-        log.debug("Selected {} top transactions from pool", result.size());
+        // 批量更新全局统计（减少原子操作次数）
+        if (!result.isEmpty()) {
+            totalTx.addAndGet(-result.size());
+            totalBytes.addAndGet(-bytesRemoved);
+        }
+        restoreDeferred(deferred);
+        deferredCount.add(deferred.size());
+        lastDeferred = deferred.size();
+        lastHotAccounts = hotAccounts.size();
+        log.debug("Selected {} top transactions from pool, deferred {} on {} hot accounts",
+                result.size(), deferred.size(), hotAccounts.size());
         return result;
     }
 
     /**
-     * 添加交易（原子化容量控制+无锁判断）
+     * 交易的所有可写账户在本批中都未达到上限时选入并计数，否则不选入
+     */
+    private static boolean admitToBatch(LockedTransaction tx, Key32Map<int[]> accountCounts, Key32Set hotAccounts) {
+        for (Key32 account : tx.writes) {
+            int[] count = accountCounts.get(account);
+            if (count != null && count[0] >= ACCOUNT_BATCH_LIMIT) {
+                hotAccounts.add(account);
+                return false;
+            }
+        }
+        for (Key32 account : tx.writes) {
+            accountCounts.computeIfAbsent(account, k -> new int[1])[0]++;
+        }
+        return true;
+    }
+
+    /**
+     * 未选入的交易放回原分片（计数未扣减；期间同ID交易已重新写入时丢弃本实例并扣减计数）
+     * 交易不在堆中期间时间轮槽位可能已到期（清理时在堆中找不到而跳过），因此放回前在分片锁内检查是否已过期，
+     * 已过期的直接丢弃：清理任务删除时同样持有分片锁，锁内读取的时间一定晚于那次到期
+     */
+    private void restoreDeferred(List<Transaction> deferred) {
+        int expired = 0;
+        for (Transaction tx : deferred) {
+            Shard shard = shards[getShardIndex(tx)];
+            boolean restored;
+            boolean isExpired;
+            shard.lock.lock();
+            try {
+                isExpired = System.currentTimeMillis() >= expiryDeadline(tx);
+                restored = !isExpired && shard.heap.offer(tx);
+            } finally {
+                shard.lock.unlock();
+            }
+            if (!restored) {
+                int txSize = tx.getSize();
+                shard.count.decrementAndGet();
+                shard.bytes.addAndGet(-txSize);
+                totalTx.decrementAndGet();
+                totalBytes.addAndGet(-txSize);
+            }
+            if (isExpired) {
+                TransactionStatusResolver.addStatus(tx, TransactionStatusResolver.DROPPED);
+                expired++;
+            }
+        }
+        expiredCount.add(expired);
+    }
+
+    private static double peekPriority(Shard shard) {
+        shard.lock.lock();
+        try {
+            return shard.heap.peekPriority();
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * k路归并中的分片游标（按分片当前堆顶优先级排序）
+     */
+    private static final class ShardHead implements Comparable<ShardHead> {
+        final Shard shard;
+        double priority;
+
+        ShardHead(Shard shard, double priority) {
+            this.shard = shard;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(ShardHead o) {
+            return Double.compare(o.priority, priority);
+        }
+    }
+
+    /**
+     * 提交交易：只做轻量检查后写入提交队列，由写入线程批量放入分片
+     * 队列满返回 BUSY（背压，客户端稍后重试），缓冲池满返回 POOL_FULL（丢弃），
+     * 同一txId已在提交队列或缓冲池中返回 DUPLICATE
      */
     @Override
-    public boolean addTransaction(Transaction transaction) {
-        if (transaction == null) {
-            log.warn("Attempt to add null transaction");
-            return false;
+    public SubmitStatus submit(Transaction transaction) {
+        if (transaction == null || transaction.getSignatures() == null || transaction.getSignatures().isEmpty()) {
+            log.warn("Attempt to submit invalid transaction");
+            return SubmitStatus.INVALID;
+        }
+        if (!running) {
+            return SubmitStatus.CLOSED;
+        }
+        // 队列中尚未写入的交易也计入容量，避免队列排空后缓冲池超限
+        if (totalTx.get() + ingress.size() >= MAX_CAPACITY) {
+            droppedCount.increment();
+            TransactionStatusResolver.addStatus(transaction, TransactionStatusResolver.DROPPED);
+            return SubmitStatus.POOL_FULL;
+        }
+        Key32 txId = Key32.of(transaction.getTxId());
+        if (!pendingIngress.add(txId)) {
+            return SubmitStatus.DUPLICATE;
+        }
+        if (heapContains(txId)) {
+            pendingIngress.remove(txId);
+            return SubmitStatus.DUPLICATE;
         }
-        //轻度校验快速失败 TODO
         TransactionStatusResolver.addStatus(transaction, TransactionStatusResolver.UNSUBMITTED);
         transaction.setSubmitTime(System.currentTimeMillis());
+        if (!ingress.offer(transaction)) {
+            pendingIngress.remove(txId);
+            busyCount.increment();
+            return SubmitStatus.BUSY;
+        }
+        acceptedCount.increment();
+        return SubmitStatus.ACCEPTED;
+    }
+
+    /**
+     * 添加交易（经提交队列异步写入）
+     * @return 是否进入提交队列
+     */
+    @Override
+    public boolean addTransaction(Transaction transaction) {
+        return submit(transaction) == SubmitStatus.ACCEPTED;
+    }
+
+    @Override
+    public int getPendingSubmitCount() {
+        return ingress == null ? 0 : ingress.size();
+    }
+
+    /**
+     * 提交队列、过期与本地手续费市场统计：已接受 / 队列满拒绝 / 缓冲池满丢弃 / 过期 / 热点账户未选入
+     */
+    public Map<String, Long> getIngressStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("accepted", acceptedCount.sum());
+        stats.put("busy", busyCount.sum());
+        stats.put("dropped", droppedCount.sum());
+        stats.put("pending", (long) getPendingSubmitCount());
+        stats.put("expired", expiredCount.sum());
+        stats.put("expiredLastTick", (long) lastExpiredPerTick);
+        stats.put("deferred", deferredCount.sum());
+        stats.put("deferredLastSelection", (long) lastDeferred);
+        stats.put("hotAccountsLastSelection", (long) lastHotAccounts);
+        return stats;
+    }
+
+    /**
+     * 写入线程处理提交队列中的一笔交易：写入分片（或丢弃）后才移出待写入集合，
+     * 期间 contains 始终能看到该交易
+     */
+    private void insertPending(Transaction transaction) {
+        try {
+            insert(transaction);
+        } finally {
+            pendingIngress.remove(Key32.of(transaction.getTxId()));
+        }
+    }
+
+    /**
+     * 写入分片（原子化容量控制+无锁判断），仅由写入线程调用
+     */
+    private boolean insert(Transaction transaction) {
         int txSize = transaction.getSize();
         int shardIndex = getShardIndex(transaction);
         Shard shard = shards[shardIndex];
@@ -198,6 +440,8 @@ public class SubmitPoolImpl implements SubmitPool {
         // 1. 原子判断全局容量（先判断再尝试添加，减少锁竞争）
         if (totalTx.get() >= MAX_CAPACITY || totalBytes.addAndGet(txSize) > MAX_SIZE) {
             totalBytes.addAndGet(-txSize); // 回滚
+            droppedCount.increment();
+            TransactionStatusResolver.addStatus(transaction, TransactionStatusResolver.DROPPED);
             log.debug("Global capacity exceeded, cannot add transaction {}", transaction.getTxIdStr());
             return false;
         }
@@ -206,18 +450,29 @@ public class SubmitPoolImpl implements SubmitPool {
         if (shard.count.get() >= SEGMENT_CAPACITY || shard.bytes.addAndGet(txSize) > SEGMENT_SIZE) {
             shard.bytes.addAndGet(-txSize); // 回滚
             totalBytes.addAndGet(-txSize);  // 回滚全局
+            droppedCount.increment();
+            TransactionStatusResolver.addStatus(transaction, TransactionStatusResolver.DROPPED);
             log.debug("Shard {} capacity exceeded, cannot add transaction {}", shardIndex, transaction.getTxIdStr());
             return false;
         }
 
-        // 3. 无锁添加（ConcurrentSkipListSet的add是原子操作）
-        boolean added = shard.txSet.add(transaction);
+        // 3. 入堆（堆内按txId去重）
+        boolean added;
+        shard.lock.lock();
+        try {
+            added = shard.heap.offer(transaction);
+        } finally {
+            shard.lock.unlock();
+        }
         if (added) {
             // 添加成功：更新计数
             shard.count.incrementAndGet();
             totalTx.incrementAndGet();
-            log.trace("Added transaction {} to shard {}, current shard count: {}",
-                    transaction.getTxIdStr(), shardIndex, shard.count.get());
+            scheduleExpiry(transaction);
+            if (log.isTraceEnabled()) {
+                log.trace("Added transaction {} to shard {}, current shard count: {}",
+                        transaction.getTxIdStr(), shardIndex, shard.count.get());
+            }
             TransactionStatusResolver.addStatus(transaction, TransactionStatusResolver.SUBMITTED);
             return true;
         } else {
@@ -231,67 +486,59 @@ public class SubmitPoolImpl implements SubmitPool {
     }
 
     /**
-     * 清除过期交易（批量扫描+乐观读）
+     * 登记过期时间：submitTime + 过期时间之后（与 Transaction.isExpired 一致，超过才算过期）
+     */
+    private void scheduleExpiry(Transaction transaction) {
+        expiryLock.lock();
+        try {
+            expiryWheel.schedule(transaction, expiryDeadline(transaction));
+        } finally {
+            expiryLock.unlock();
+        }
+    }
+
+    private static long expiryDeadline(Transaction transaction) {
+        return transaction.getSubmitTime() + TX_EXPIRE_SECONDS + 1;
+    }
+
+    /**
+     * 清除过期交易：推进时间轮到 currentTime，只处理到期槽位中的交易
+     * 已被选出或删除的交易仍留在时间轮中，到期时在分片索引中找不到（或已是同ID的新交易），直接跳过
      */
     @Override
     public int cleanExpiredTransactions(long currentTime) {
-        int totalRemoved = 0;
-
-        for (int i = 0; i < SHARD_COUNT; i++) {
-            Shard shard = shards[i];
-            long stamp = shard.lock.tryOptimisticRead();
-            List<Transaction> expired = new ArrayList<>();
+        List<Transaction> due = new ArrayList<>();
+        expiryLock.lock();
+        try {
+            expiryWheel.advance(currentTime, due::add);
+        } finally {
+            expiryLock.unlock();
+        }
 
+        int totalRemoved = 0;
+        for (Transaction tx : due) {
+            Shard shard = shards[getShardIndex(tx)];
+            boolean removed;
+            shard.lock.lock();
             try {
-                // 乐观读扫描过期交易
-                List<Transaction> finalExpired = expired;
-                shard.txSet.forEach(tx -> {
-                    if (tx.isExpired(currentTime)) {
-                        finalExpired.add(tx);
-                    }
-                });
-                // 验证乐观读有效性
-                if (!shard.lock.validate(stamp)) {
-                    stamp = shard.lock.readLock();
-                    try {
-                        expired = shard.txSet.stream()
-                                .filter(tx -> tx.isExpired(currentTime))
-                                .collect(Collectors.toList());
-                    } finally {
-                        shard.lock.unlockRead(stamp);
-                    }
-                }
+                removed = shard.heap.remove(Key32.of(tx.getTxId()), tx);
             } finally {
-                // 批量删除过期交易
-                if (!expired.isEmpty()) {
-                    stamp = shard.lock.writeLock();
-                    try {
-                        int removed = 0;
-                        long bytesRemoved = 0;
-                        for (Transaction tx : expired) {
-                            if (shard.txSet.remove(tx)) {
-                                removed++;
-                                bytesRemoved += tx.getSize();
-                            }
-                        }
-                        if (removed > 0) {
-                            shard.count.addAndGet(-removed);
-                            shard.bytes.addAndGet(-bytesRemoved);
-                            totalTx.addAndGet(-removed);
-                            totalBytes.addAndGet(-bytesRemoved);
-                            totalRemoved += removed;
-                        }
-                    } finally {
-                        shard.lock.unlockWrite(stamp);
-                    }
-                }
+                shard.lock.unlock();
             }
-
-            if (!expired.isEmpty()) {
-                log.debug("Shard {} removed {} expired transactions", i, expired.size());
+            if (!removed) {
+                continue;
             }
+            int txSize = tx.getSize();
+            shard.count.decrementAndGet();
+            shard.bytes.addAndGet(-txSize);
+            totalTx.decrementAndGet();
+            totalBytes.addAndGet(-txSize);
+            TransactionStatusResolver.addStatus(tx, TransactionStatusResolver.DROPPED);
+            totalRemoved++;
         }
 
+        expiredCount.add(totalRemoved);
+        lastExpiredPerTick = totalRemoved;
         log.debug("Total expired transactions removed: {}", totalRemoved);
         return totalRemoved;
     }
@@ -308,123 +555,92 @@ public class SubmitPoolImpl implements SubmitPool {
 
 
     /**
-     * 根据交易ID查找交易
+     * 根据交易ID查找交易（分片内索引 O(1)）
      * @param txId 交易ID字符串
      * @return 找到的交易，未找到则返回null
      */
     @Override
     public Transaction findTransactionByTxId(String txId) {
-        if (txId == null || txId.isEmpty()) {
-            log.warn("查找交易失败：交易ID为空");
+        Key32 key = parseTxId(txId);
+        if (key == null) {
+            log.warn("查找交易失败：交易ID无效 {}", txId);
             return null;
         }
+        Shard shard = shards[shardOf(key)];
+        shard.lock.lock();
+        try {
+            return shard.heap.get(key);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
 
-        // 计算目标分片索引（复用哈希算法）
-        int shardIndex = getShardIndexByTxId(txId);
-        Shard shard = shards[shardIndex];
+    /**
+     * 交易是否在缓冲池中（包括提交队列中尚未写入分片的交易；分片内索引 O(1)）
+     */
+    @Override
+    public boolean contains(Key32 txId) {
+        return pendingIngress.contains(txId) || heapContains(txId);
+    }
 
-        long stamp = shard.lock.tryOptimisticRead();
+    private boolean heapContains(Key32 txId) {
+        Shard shard = shards[shardOf(txId)];
+        shard.lock.lock();
         try {
-            // 遍历分片内交易，匹配txId
-            for (Transaction tx : shard.txSet) {
-                if (txId.equals(tx.getTxIdStr())) {
-                    return tx;
-                }
-            }
-            // 验证乐观读有效性，无效则升级为悲观读
-            if (!shard.lock.validate(stamp)) {
-                stamp = shard.lock.readLock();
-                try {
-                    for (Transaction tx : shard.txSet) {
-                        if (txId.equals(tx.getTxIdStr())) {
-                            return tx;
-                        }
-                    }
-                } finally {
-                    shard.lock.unlockRead(stamp);
-                }
-            }
-        } catch (Exception e) {
-            log.error("查找交易ID[{}]失败", txId, e);
+            return shard.heap.get(txId) != null;
+        } finally {
+            shard.lock.unlock();
         }
-        return null;
     }
 
     /**
-     * 根据交易ID删除交易
+     * 根据交易ID删除交易（索引定位后从堆中删除 O(log n)）
      * @param txId 交易ID字符串
      * @return 成功删除返回true，否则返回false
      */
     @Override
     public boolean removeTransactionByTxId(String txId) {
-        if (txId == null || txId.isEmpty()) {
-            log.warn("删除交易失败：交易ID为空");
+        Key32 key = parseTxId(txId);
+        if (key == null) {
+            log.warn("删除交易失败：交易ID无效 {}", txId);
             return false;
         }
-
-        // 计算目标分片索引（复用哈希算法）
-        int shardIndex = getShardIndexByTxId(txId);
+        int shardIndex = shardOf(key);
         Shard shard = shards[shardIndex];
-
-        // 先尝试乐观读定位交易
-        long stamp = shard.lock.tryOptimisticRead();
-        Transaction targetTx = null;
+        Transaction removed;
+        shard.lock.lock();
         try {
-            for (Transaction tx : shard.txSet) {
-                if (txId.equals(tx.getTxIdStr())) {
-                    targetTx = tx;
-                    break;
-                }
-            }
-            // 验证乐观读有效性，无效则升级为悲观读重新查找
-            if (!shard.lock.validate(stamp)) {
-                stamp = shard.lock.readLock();
-                try {
-                    for (Transaction tx : shard.txSet) {
-                        if (txId.equals(tx.getTxIdStr())) {
-                            targetTx = tx;
-                            break;
-                        }
-                    }
-                } finally {
-                    shard.lock.unlockRead(stamp);
-                }
-            }
-        } catch (Exception e) {
-            log.error("查找待删除交易ID[{}]失败", txId, e);
-            return false;
+            removed = shard.heap.remove(key);
+        } finally {
+            shard.lock.unlock();
         }
-
-        // 若找到交易，执行删除（需悲观写锁）
-        if (targetTx != null) {
-            stamp = shard.lock.writeLock();
-            try {
-                // 再次检查交易是否存在（防止并发删除）
-                if (shard.txSet.remove(targetTx)) {
-                    int txSize = targetTx.getSize();
-                    // 更新分片和全局统计
-                    shard.count.decrementAndGet();
-                    shard.bytes.addAndGet(-txSize);
-                    totalTx.decrementAndGet();
-                    totalBytes.addAndGet(-txSize);
-                    log.debug("删除交易成功，ID:{}，分片:{}", txId, shardIndex);
-                    return true;
-                }
-            } finally {
-                shard.lock.unlockWrite(stamp);
-            }
+        if (removed == null) {
+            log.debug("未找到交易或已被删除，ID:{}，分片:{}", txId, shardIndex);
+            return false;
         }
-
-        log.debug("未找到交易或已被删除，ID:{}，分片:{}", txId, shardIndex);
-        return false;
+        int txSize = removed.getSize();
+        // 更新分片和全局统计
+        shard.count.decrementAndGet();
+        shard.bytes.addAndGet(-txSize);
+        totalTx.decrementAndGet();
+        totalBytes.addAndGet(-txSize);
+        log.debug("删除交易成功，ID:{}，分片:{}", txId, shardIndex);
+        return true;
     }
 
     /**
-     * 根据交易ID字符串计算分片索引（复用MurmurHash算法）
+     * 解析十六进制交易ID（长度或字符无效返回null）
      */
-    private int getShardIndexByTxId(String txId) {
-        int hash = Hashing.murmur3_32_fixed().hashString(txId, StandardCharsets.UTF_8).asInt();
-        return Math.abs(hash) % SHARD_COUNT;
+    private static Key32 parseTxId(String txId) {
+        if (txId == null || txId.length() != Key32.LENGTH * 2) {
+            return null;
+        }
+        for (int i = 0; i < txId.length(); i++) {
+            if (Character.digit(txId.charAt(i), 16) < 0) {
+                return null;
+            }
+        }
+        return Key32.of(ByteUtils.hexToBytes(txId));
     }
 
     /**
@@ -432,6 +648,16 @@ public class SubmitPoolImpl implements SubmitPool {
      */
     @PreDestroy
     public void destroy() {
+        running = false;
+        if (ingressThread != null) {
+            ingress.wakeup();
+            try {
+                ingressThread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.info("Submit ingress thread stopped, pending: {}", ingress.size());
+        }
         if (cleanupScheduler != null) {
             cleanupScheduler.shutdown();
             log.info("Expired transaction cleanup scheduler shutdown");
@@ -1,25 +1,171 @@
 package com.bit.solana.txpool.impl;
 
 import com.bit.solana.structure.tx.Transaction;
+import com.bit.solana.txpool.ScheduleStats;
 import com.bit.solana.txpool.TransactionProcessor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
+/**
+ * 无冲突交易并行化：按账户读写集合分批（AccountLockScheduler），
+ * 批次之间串行，批次内部拆分为小任务交给工作窃取线程池并行执行，执行每笔交易前获取账户读写锁（AccountLockTable）
+ */
+@Slf4j
 @Component
 public class TransactionProcessorImpl implements TransactionProcessor {
+    // 单批最大交易数（超出的交易顺延到下一批）
+    private static final int MAX_BATCH_SIZE = 1 << 12;
+    // 拆分到不超过该数量的交易后直接顺序执行
+    private static final int SPLIT_THRESHOLD = 16;
+
+    private final AccountLockTable lockTable = new AccountLockTable();
+    // 执行线程池（工作窃取算法）
+    private volatile ForkJoinPool executePool;
+    private volatile ScheduleStats lastStats = ScheduleStats.EMPTY;
+
     @Override
     public int processTransactions(List<Transaction> transactions) {
-        return 0;
+        return processTransactions(transactions, tx -> true);
     }
 
     @Override
-    public void start() {
+    public int processTransactions(List<Transaction> transactions, Predicate<Transaction> executor) {
+        if (transactions == null || transactions.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<List<LockedTransaction>> batches = AccountLockScheduler.schedule(transactions, MAX_BATCH_SIZE);
+
+        Execution execution = new Execution(executor);
+        ForkJoinPool pool = executePool;
+        int maxBatchSize = 0;
+        for (List<LockedTransaction> batch : batches) {
+            maxBatchSize = Math.max(maxBatchSize, batch.size());
+            if (pool == null || batch.size() <= SPLIT_THRESHOLD) {
+                execution.run(batch, 0, batch.size());
+            } else {
+                pool.invoke(new BatchTask(execution, batch, 0, batch.size()));
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        int succeeded = execution.succeeded.intValue();
+        ScheduleStats stats = new ScheduleStats(
+                transactions.size(),
+                succeeded,
+                batches.size(),
+                maxBatchSize,
+                elapsed == 0 ? 0 : (double) execution.busyNanos.sum() / elapsed,
+                execution.lockWaitNanos.sum() / 1000,
+                elapsed / 1000);
+        lastStats = stats;
+        log.debug("交易分批执行完成: 交易{}笔 成功{}笔 批次{} 最大批次{} 并行度{} 锁等待{}us 耗时{}us",
+                stats.transactions(), stats.succeeded(), stats.batches(), stats.maxBatchSize(),
+                String.format("%.2f", stats.parallelism()), stats.lockWaitMicros(), stats.elapsedMicros());
+        return succeeded;
+    }
 
+    @Override
+    public ScheduleStats getLastStats() {
+        return lastStats;
+    }
+
+    @PostConstruct
+    @Override
+    public synchronized void start() {
+        if (executePool != null) {
+            return;
+        }
+        executePool = new ForkJoinPool(
+                Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                (t, e) -> log.error("交易执行线程异常", e),
+                false
+        );
+        log.info("交易处理器已启动，并行线程数: {}", executePool.getParallelism());
     }
 
+    @PreDestroy
     @Override
-    public void stop() {
+    public synchronized void stop() {
+        ForkJoinPool pool = executePool;
+        if (pool == null) {
+            return;
+        }
+        // 停止后调用方在当前线程顺序执行
+        executePool = null;
+        pool.shutdown();
+        log.info("交易处理器已停止");
+    }
+
+    /**
+     * 一次调用的执行上下文与统计
+     */
+    private final class Execution {
+        final Predicate<Transaction> executor;
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder busyNanos = new LongAdder();
+        final LongAdder lockWaitNanos = new LongAdder();
+
+        Execution(Predicate<Transaction> executor) {
+            this.executor = executor;
+        }
+
+        void run(List<LockedTransaction> batch, int from, int to) {
+            for (int i = from; i < to; i++) {
+                execute(batch.get(i));
+            }
+        }
+
+        private void execute(LockedTransaction tx) {
+            long start = System.nanoTime();
+            long waited = lockTable.lock(tx);
+            try {
+                if (executor.test(tx.tx)) {
+                    succeeded.increment();
+                }
+            } catch (Exception e) {
+                log.error("交易执行异常: {}", tx.tx.getTxIdStr(), e);
+            } finally {
+                lockTable.unlock(tx);
+                lockWaitNanos.add(waited);
+                busyNanos.add(System.nanoTime() - start - waited);
+            }
+        }
+    }
+
+    /**
+     * 批次内并行任务：对半拆分，空闲线程窃取未执行的一半
+     */
+    private static final class BatchTask extends RecursiveAction {
+        private final Execution execution;
+        private final List<LockedTransaction> batch;
+        private final int from;
+        private final int to;
+
+        BatchTask(Execution execution, List<LockedTransaction> batch, int from, int to) {
+            this.execution = execution;
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
 
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                execution.run(batch, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchTask(execution, batch, from, mid), new BatchTask(execution, batch, mid, to));
+        }
     }
 }
@@ -0,0 +1,173 @@
+package com.bit.solana.txpool.impl;
+
+import com.bit.solana.common.Key32;
+import com.bit.solana.common.Key32Map;
+import com.bit.solana.structure.tx.Transaction;
+import com.bit.solana.util.TxUtils;
+
+import java.util.Arrays;
+
+/**
+ * 按优先级排序的索引大顶堆（交易池分片内部结构）
+ * 优先级为每字节/每计算单元手续费（TxUtils.priority），入堆时计算一次；
+ * 堆顶为优先级最高的交易（相同按 txId 无符号字节序，保证顺序确定）；
+ * 另维护 txId -> 堆节点 的索引：按 txId 查找 O(1)，按 txId 删除 O(log n)，不需要遍历或重新搜索
+ * 非线程安全，由分片锁保护
+ */
+final class TxFeeHeap {
+    private static final int MIN_CAPACITY = 16;
+
+    private Node[] heap;
+    private int size;
+    private final Key32Map<Node> index;
+
+    TxFeeHeap(int expectedSize) {
+        this.heap = new Node[Math.max(MIN_CAPACITY, expectedSize)];
+        this.index = new Key32Map<>(expectedSize);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return txId 已存在返回false
+     */
+    boolean offer(Transaction tx) {
+        Key32 key = Key32.of(tx.getTxId());
+        if (index.containsKey(key)) {
+            return false;
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length << 1);
+        }
+        Node node = new Node(key, tx);
+        index.put(key, node);
+        node.position = size;
+        heap[size++] = node;
+        siftUp(node.position);
+        return true;
+    }
+
+    Transaction peek() {
+        return size == 0 ? null : heap[0].tx;
+    }
+
+    /**
+     * 堆顶交易的优先级（堆为空返回 Double.NEGATIVE_INFINITY）
+     */
+    double peekPriority() {
+        return size == 0 ? Double.NEGATIVE_INFINITY : heap[0].priority;
+    }
+
+    Transaction poll() {
+        return size == 0 ? null : removeAt(0);
+    }
+
+    Transaction get(Key32 txId) {
+        Node node = index.get(txId);
+        return node == null ? null : node.tx;
+    }
+
+    Transaction remove(Key32 txId) {
+        Node node = index.get(txId);
+        return node == null ? null : removeAt(node.position);
+    }
+
+    /**
+     * 仅当堆中该 txId 对应的正是 expected 这个实例时删除（过期回调使用，避免误删同ID的新交易）
+     */
+    boolean remove(Key32 txId, Transaction expected) {
+        Node node = index.get(txId);
+        if (node == null || node.tx != expected) {
+            return false;
+        }
+        removeAt(node.position);
+        return true;
+    }
+
+    private Transaction removeAt(int position) {
+        Node node = heap[position];
+        index.remove(node.key);
+        int last = --size;
+        if (position != last) {
+            Node moved = heap[last];
+            heap[position] = moved;
+            moved.position = position;
+            heap[last] = null;
+            // 末尾节点移入后可能需要上浮或下沉
+            siftDown(position);
+            if (heap[position] == moved) {
+                siftUp(position);
+            }
+        } else {
+            heap[last] = null;
+        }
+        return node.tx;
+    }
+
+    private void siftUp(int position) {
+        Node node = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            Node p = heap[parent];
+            if (!higher(node, p)) {
+                break;
+            }
+            heap[position] = p;
+            p.position = position;
+            position = parent;
+        }
+        heap[position] = node;
+        node.position = position;
+    }
+
+    private void siftDown(int position) {
+        Node node = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = (position << 1) + 1;
+            int right = child + 1;
+            if (right < size && higher(heap[right], heap[child])) {
+                child = right;
+            }
+            Node c = heap[child];
+            if (!higher(c, node)) {
+                break;
+            }
+            heap[position] = c;
+            c.position = position;
+            position = child;
+        }
+        heap[position] = node;
+        node.position = position;
+    }
+
+    /**
+     * a 是否排在 b 之前：优先级高者优先，相同按 txId 升序
+     */
+    private static boolean higher(Node a, Node b) {
+        if (a.priority != b.priority) {
+            return a.priority > b.priority;
+        }
+        return a.key.compareTo(b.key) < 0;
+    }
+
+    private static final class Node {
+        final Key32 key;
+        final Transaction tx;
+        // 入堆时的优先级快照（交易在池中时手续费与大小不变）
+        final double priority;
+        int position;
+
+        Node(Key32 key, Transaction tx) {
+            this.key = key;
+            this.tx = tx;
+            this.priority = TxUtils.priority(tx);
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package com.bit.solana.txpool.impl;
 
+import com.bit.solana.blockchain.BlockChain;
 import com.bit.solana.common.BlockHash;
+import com.bit.solana.config.SystemConfig;
+import com.bit.solana.common.Key32;
+import com.bit.solana.common.Key32Map;
+import com.bit.solana.common.TimingWheel;
 import com.bit.solana.common.TransactionHash;
 import com.bit.solana.structure.poh.POHRecord;
 import com.bit.solana.poh.POHService;
 import com.bit.solana.result.Result;
 import com.bit.solana.structure.account.AccountMeta;
-import com.bit.solana.structure.bloom.AccountConflictBloom;
+import com.bit.solana.structure.block.Block;
 import com.bit.solana.structure.tx.*;
 import com.bit.solana.txpool.SubmitPool;
+import com.bit.solana.txpool.ScheduleStats;
+import com.bit.solana.txpool.SubmitStatus;
+import com.bit.solana.txpool.TransactionProcessor;
 import com.bit.solana.txpool.TxPool;
 import com.bit.solana.util.ByteUtils;
+import com.bit.solana.util.TxUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.CacheStats;
@@ -29,6 +40,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.bit.solana.util.ByteUtils.bytesToHex;
 import static com.bit.solana.util.ByteUtils.hexToBytes;
@@ -53,10 +65,19 @@ public class TxPoolImpl implements TxPool {
     private static final long CHECK_TIMEOUT_INTERVAL = 100;
     // 最大交易池大小，防止内存溢出
     private static final int MAX_POOL_SIZE = 1_000_000;
-    // 清理过期交易的间隔时间
-    private static final long CLEANUP_INTERVAL = 5_000;
-    // 交易过期时间（ms）- 基于recentBlockhash的有效性
-    private static final long TX_EXPIRE_SECONDS = 400;
+    // 清理过期交易的间隔时间（每次只推进时间轮，处理到期槽位）
+    private static final long CLEANUP_INTERVAL = 50;
+    // 过期时间轮刻度（ms）
+    private static final long EXPIRY_TICK_MS = 10;
+    // recentBlockhash 有效期：300个slot，每个slot约400ms
+    private static final long BLOCKHASH_MAX_AGE_MS = 300 * 400L;
+    // 已打包交易ID的最大保留数（只需覆盖 recentBlockhash 有效期，更早的交易会被区块哈希检查拒绝）
+    private static final int MAX_PACKED_TX_IDS = 1 << 21;
+    // 单个账户在池中的待处理写交易上限（热点账户的交易超出后拒绝入池，避免单个账户占满交易池）
+    private static final int MAX_PENDING_WRITES_PER_ACCOUNT = 1 << 10;
+    // 交易池分片数（2的幂）
+    private static final int SHARD_BITS = 4;
+    private static final int SHARD_COUNT = 1 << SHARD_BITS;
 
 
     // ==================== 核心组件 ====================
@@ -64,6 +85,15 @@ public class TxPoolImpl implements TxPool {
     private POHService pohService;
     @Autowired
     private SubmitPool submitPool;
+    @Autowired
+    private BlockChain blockChain;
+    @Autowired
+    private TransactionProcessor transactionProcessor;
+    @Autowired(required = false)
+    private SystemConfig config;
+
+    // 交易验证流水线：预检 -> 验签 -> 去重/重放 -> recentBlockhash -> 写入提交队列
+    private TxVerifyPipeline verifyPipeline;
 
     // 处理线程池（工作窃取算法）
     private ForkJoinPool processPool;
@@ -71,26 +101,38 @@ public class TxPoolImpl implements TxPool {
     private ScheduledExecutorService timeoutChecker;
     // 清理过期交易定时器
     private ScheduledExecutorService cleanupScheduler;
+    // 拉取缓冲池交易定时器
+    private ScheduledExecutorService fetchScheduler;
     // TPS统计定时器
     private ScheduledExecutorService tpsStatScheduler;
 
 
     // 交易分组（groupId -> 交易组，groupId通常为sender账户）
-    private final ConcurrentMap<byte[], TransactionGroup> txGroups = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key32, TransactionGroup> txGroups = new ConcurrentHashMap<>();
 
     // ==================== 数据存储 ====================
     // 处理中交易追踪（原子操作，线程安全）
     private final ConcurrentHashMap<String, Transaction> processingTxs = new ConcurrentHashMap<>();
-    // 交易池分片（每个分片独立锁）
-    private final List<Map<byte[], Transaction>> txShards = new ArrayList<>();
+    // 交易池分片（每个分片独立锁：访问分片时 synchronized(分片)）
+    private final List<Key32Map<Transaction>> txShards = new ArrayList<>(SHARD_COUNT);
     // 交易组分片（按groupId哈希分片）
-    private final List<ConcurrentMap<byte[], TransactionGroup>> groupShards = new ArrayList<>();
-    // 双花检查：已处理的交易ID，防止重复处理
-    private final Set<byte[]> processedTxIds = ConcurrentHashMap.newKeySet();
-    // 账户冲突布隆过滤器，用于快速检测潜在的账户冲突
-    private final AccountConflictBloom accountConflictBloom = AccountConflictBloom.createEmpty();
+    private final List<ConcurrentMap<Key32, TransactionGroup>> groupShards = new ArrayList<>(SHARD_COUNT);
+    // 双花检查：已打包的交易ID（打包后从交易池删除时登记，保留 recentBlockhash 有效期，有上限）
+    private final Cache<Key32, Boolean> processedTxIds = Caffeine.newBuilder()
+            .maximumSize(MAX_PACKED_TX_IDS)
+            .expireAfterWrite(BLOCKHASH_MAX_AGE_MS, TimeUnit.MILLISECONDS)
+            .build();
+    // 池中交易的账户引用计数（账户 -> 可写/只读引用数），入池时检查热点账户的待处理写交易数
+    private final PendingAccountIndex pendingAccounts = new PendingAccountIndex(SHARD_BITS);
     // 交易池大小计数器
     private final AtomicInteger poolSize = new AtomicInteger(0);
+    // 过期时间轮：到期时间为 recentBlockhash 失效时间（提交队列的400ms TTL只约束排队，不约束池中交易），到期后经分片索引删除
+    private TimingWheel<Transaction> expiryWheel;
+    private final ReentrantLock expiryLock = new ReentrantLock();
+    // recentBlockhash -> 失效时间（ms），未知区块不缓存
+    private final Cache<Key32, Long> blockhashDeadlines = Caffeine.newBuilder()
+            .maximumSize(1024)
+            .build();
 
     // 并行处理线程池（工作窃取算法，适合大量小任务）
     private final ExecutorService processingPool = new ForkJoinPool(
@@ -107,6 +149,10 @@ public class TxPoolImpl implements TxPool {
     private final LongAdder processedCount = new LongAdder();
     /** 超时交易总数 */
     private final LongAdder timeoutCount = new LongAdder();
+    /** 过期交易总数 */
+    private final LongAdder expiredCount = new LongAdder();
+    /** 最近一次清理过期的交易数 */
+    private volatile int lastExpiredPerTick;
     /** 失败交易总数 */
     private final LongAdder failedCount = new LongAdder();
     /** 当前TPS（每秒滑动窗口） */
@@ -122,9 +168,22 @@ public class TxPoolImpl implements TxPool {
     @PostConstruct
     public void init(){
         // 初始化分片
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            txShards.add(new Key32Map<>(TARGET_POOL_SIZE / SHARD_COUNT));
+            groupShards.add(new ConcurrentHashMap<>());
+        }
+        expiryWheel = new TimingWheel<>(EXPIRY_TICK_MS, System.currentTimeMillis());
 
         // 初始化线程池
         initExecutors();
+        // 启动验证流水线
+        verifyPipeline = new TxVerifyPipeline(
+                config == null ? null : config.getVerifyStages(),
+                this::preVerify,
+                this::isReplayed,
+                this::checkBlockhash,
+                this::submitToPool);
+        verifyPipeline.start();
         // 启动定时器任务
         startScheduledTasks();
     }
@@ -167,6 +226,15 @@ public class TxPoolImpl implements TxPool {
             }
         }, CLEANUP_INTERVAL, CLEANUP_INTERVAL, TimeUnit.MILLISECONDS);
 
+        // 启动拉取缓冲池交易任务（单线程，上一次处理完成后才开始下一次）
+        fetchScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                processTransactions();
+            } catch (Exception e) {
+                log.error("拉取缓冲池交易任务异常", e);
+            }
+        }, FETCH_INTERVAL_MS, FETCH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
         // 启动TPS统计任务
         tpsStatScheduler.scheduleAtFixedRate(() -> {
             try {
@@ -201,10 +269,71 @@ public class TxPoolImpl implements TxPool {
     }
 
     /**
-     * 清理过期交易
+     * 清理过期交易：推进时间轮，只处理到期槽位中的交易
+     * 已被打包或删除的交易仍留在时间轮中，到期时分片中已找不到（或已是同ID的新交易），直接跳过
      */
     private void cleanupExpiredTransactions() {
+        List<Transaction> due = new ArrayList<>();
+        expiryLock.lock();
+        try {
+            expiryWheel.advance(System.currentTimeMillis(), due::add);
+        } finally {
+            expiryLock.unlock();
+        }
+        int removed = 0;
+        for (Transaction tx : due) {
+            Key32 txId = Key32.of(tx.getTxId());
+            Key32Map<Transaction> shard = shardOf(txId);
+            synchronized (shard) {
+                if (shard.get(txId) != tx) {
+                    continue;
+                }
+                shard.remove(txId);
+            }
+            poolSize.decrementAndGet();
+            pendingAccounts.remove(LockedTransaction.of(tx));
+            TransactionStatusResolver.addStatus(tx, TransactionStatusResolver.DROPPED);
+            removed++;
+        }
+        expiredCount.add(removed);
+        lastExpiredPerTick = removed;
+        if (removed > 0) {
+            log.debug("清理过期交易 {} 笔", removed);
+        }
+    }
 
+    /**
+     * 登记过期时间：recentBlockhash 失效时间（本地没有该区块时按入池时间 + 有效期兜底，保证一定会过期）
+     */
+    private void scheduleExpiry(Transaction tx) {
+        long deadline = tx.getRecentBlockhash() == null ? Long.MAX_VALUE : blockhashDeadline(tx.getRecentBlockhash());
+        if (deadline == Long.MAX_VALUE) {
+            deadline = System.currentTimeMillis() + BLOCKHASH_MAX_AGE_MS;
+        }
+        expiryLock.lock();
+        try {
+            expiryWheel.schedule(tx, deadline);
+        } finally {
+            expiryLock.unlock();
+        }
+    }
+
+    /**
+     * recentBlockhash 失效时间：所在区块的出块时间 + 有效期；本地没有该区块时返回 Long.MAX_VALUE（调用方按不存在处理）
+     */
+    private long blockhashDeadline(BlockHash blockhash) {
+        Key32 key = blockhash.toKey();
+        Long cached = blockhashDeadlines.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Block block = blockChain.getBlockByHash(blockhash.getValue());
+        if (block == null || block.getHeader() == null || block.getHeader().getBlockTime() <= 0) {
+            return Long.MAX_VALUE;
+        }
+        long deadline = block.getHeader().getBlockTime() + BLOCKHASH_MAX_AGE_MS;
+        blockhashDeadlines.put(key, deadline);
+        return deadline;
     }
 
     /**
@@ -263,6 +392,13 @@ public class TxPoolImpl implements TxPool {
             return thread;
         });
 
+        // 拉取缓冲池交易定时器
+        fetchScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "tx-fetch-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
         // TPS统计定时器
         tpsStatScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread thread = new Thread(r, "tx-tps-stat");
@@ -280,22 +416,64 @@ public class TxPoolImpl implements TxPool {
 
     @Override
     public CompletableFuture<Boolean> submitTransaction(Transaction transaction) {
-        return null;
+        return verifyPipeline.submit(transaction).thenApply(Result::isSuccess);
     }
 
     @Override
     public List<CompletableFuture<Boolean>> batchSubmitTransactions(List<Transaction> transactions) {
-        return List.of();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            futures.add(submitTransaction(transaction));
+        }
+        return futures;
     }
 
+    /**
+     * 池中优先级（每字节/每计算单元手续费）最高的 maxCount 笔交易（不删除，区块上链后再删除）
+     */
     @Override
     public List<Transaction> getPendingTransactions(int maxCount) {
-        return List.of();
+        if (maxCount <= 0) {
+            return List.of();
+        }
+        // 小顶堆保留优先级最高的 maxCount 笔，每笔交易的优先级只计算一次
+        PriorityQueue<RankedTransaction> top = new PriorityQueue<>(Math.min(maxCount, TARGET_POOL_SIZE),
+                Comparator.comparingDouble(RankedTransaction::priority));
+        for (Key32Map<Transaction> shard : txShards) {
+            synchronized (shard) {
+                for (Transaction tx : shard.values()) {
+                    double priority = TxUtils.priority(tx);
+                    if (top.size() < maxCount) {
+                        top.add(new RankedTransaction(tx, priority));
+                    } else if (priority > top.peek().priority()) {
+                        top.poll();
+                        top.add(new RankedTransaction(tx, priority));
+                    }
+                }
+            }
+        }
+        List<RankedTransaction> ranked = new ArrayList<>(top);
+        ranked.sort(Comparator.comparingDouble(RankedTransaction::priority).reversed());
+        List<Transaction> result = new ArrayList<>(ranked.size());
+        for (RankedTransaction item : ranked) {
+            result.add(item.tx());
+        }
+        return result;
     }
 
+    private record RankedTransaction(Transaction tx, double priority) {
+    }
+
+    /**
+     * 删除已打包交易：先登记到已打包集合再从交易池删除，期间重新提交的同一交易始终能被重放检查拒绝
+     */
     @Override
     public void removeProcessedTransactions(List<String> transactionIds) {
-
+        for (String txId : transactionIds) {
+            byte[] id = hexToBytes(txId);
+            processedTxIds.put(Key32.of(id), Boolean.TRUE);
+            removeTransaction(id);
+        }
     }
 
     @Override
@@ -322,6 +500,22 @@ public class TxPoolImpl implements TxPool {
         poolInfo.put("maxSize", MAX_POOL_SIZE);
         poolInfo.put("currentTps", currentTps.get());
         poolInfo.put("processingTransactions", processingTxs.size());
+        poolInfo.put("pendingSubmit", submitPool.getPendingSubmitCount());
+        poolInfo.put("expired", expiredCount.sum());
+        poolInfo.put("expiredLastTick", lastExpiredPerTick);
+        poolInfo.put("pendingAccounts", pendingAccounts.size());
+        ScheduleStats schedule = transactionProcessor.getLastStats();
+        Map<String, Object> scheduleInfo = new HashMap<>();
+        scheduleInfo.put("transactions", schedule.transactions());
+        scheduleInfo.put("succeeded", schedule.succeeded());
+        scheduleInfo.put("batches", schedule.batches());
+        scheduleInfo.put("maxBatchSize", schedule.maxBatchSize());
+        scheduleInfo.put("avgBatchSize", schedule.avgBatchSize());
+        scheduleInfo.put("parallelism", schedule.parallelism());
+        scheduleInfo.put("lockWaitMicros", schedule.lockWaitMicros());
+        scheduleInfo.put("elapsedMicros", schedule.elapsedMicros());
+        poolInfo.put("lastSchedule", scheduleInfo);
+        poolInfo.put("verifyPipeline", verifyPipeline.getStats());
 
 
 
@@ -347,34 +541,36 @@ public class TxPoolImpl implements TxPool {
         status.append("    总处理成功: ").append(processedCount.sum()).append("\n");
         status.append("    总失败: ").append(failedCount.sum()).append("\n");
         status.append("    总超时: ").append(timeoutCount.sum()).append("\n");
+        status.append("    总过期: ").append(expiredCount.sum()).append("（最近一次清理 ").append(lastExpiredPerTick).append("）\n");
+        ScheduleStats schedule = transactionProcessor.getLastStats();
+        status.append("  最近一次分批执行: \n");
+        status.append("    交易/成功: ").append(schedule.transactions()).append("/").append(schedule.succeeded()).append("\n");
+        status.append("    批次数: ").append(schedule.batches()).append("（最大批次 ").append(schedule.maxBatchSize()).append("）\n");
+        status.append("    并行度: ").append(String.format("%.2f", schedule.parallelism())).append("\n");
+        status.append("    锁等待: ").append(schedule.lockWaitMicros()).append("us / 总耗时 ").append(schedule.elapsedMicros()).append("us\n");
+        status.append("  验证流水线: \n");
+        status.append(verifyPipeline.summary("    "));
         return Result.OK(status.toString());
     }
 
 
 
     /**
-     * 异步验证 + 预验证
-     * 轻量预验证（格式、签名合法性）在addTransaction时同步快速完成，过滤明显无效的交易。
-     * 重量级验证（余额检查、双花检测）交给线程池异步执行，验证通过后再正式加入交易池。
+     * 经验证流水线验证交易（预检 -> 验签 -> 去重/重放 -> recentBlockhash），通过后写入提交队列
+     * 流水线入口队列满时立即返回繁忙；等待结果不超过 TIMEOUT_MILLIS（超时的交易仍会继续验证）
      */
     @Override
     public Result<String> verifyTransaction(Transaction tx)  {
-        // 1. 轻量预验证（同步，快速失败）
-        Result<String> preCheck = preVerify(tx);
-        if (!preCheck.isSuccess()) {
-            return preCheck;
-        }
-        // 2. 异步执行重量级验证
-        CompletableFuture<Result<String>> future = new CompletableFuture<>();
+        CompletableFuture<Result<String>> future = verifyPipeline.submit(tx);
         try {
-
-
-
-
             // 等待验证结果，但设置超时
             return future.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
         } catch (TimeoutException e) {
+            timeoutCount.increment();
             return Result.error("交易验证超时");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.error("交易验证被中断");
         } catch (Exception e) {
             return Result.error("交易验证失败: " + e.getMessage());
         }
@@ -383,25 +579,41 @@ public class TxPoolImpl implements TxPool {
 
 
     /**
-     * 带超时控制的添加交易
+     * 带超时控制的添加交易（经验证流水线）
      */
     @Override
     public Result<String> addTransaction(Transaction tx) {
-        // 1. 预验证
-        Result<String> preCheck = preVerify(tx);
-        if (!preCheck.isSuccess()) {
-            return preCheck;
-        }
-        try {
-
-
-
-            // 3. 提交计数器增加
-            submittedCount.increment();
-
-
+        return verifyTransaction(tx);
+    }
 
-            return Result.OK("交易已接受，等待处理");
+    /**
+     * 验证流水线最后一步：写入提交队列（不阻塞）
+     */
+    private Result<String> submitToPool(Transaction tx) {
+        try {
+            SubmitStatus status = submitPool.submit(tx);
+            switch (status) {
+                case ACCEPTED -> {
+                    // 提交计数器增加
+                    submittedCount.increment();
+                    return Result.OK("交易已接受，等待处理");
+                }
+                case BUSY -> {
+                    return Result.error(Result.SC_SERVICE_UNAVAILABLE_503, "交易提交繁忙，请稍后重试");
+                }
+                case POOL_FULL -> {
+                    return Result.error(Result.SC_SERVICE_UNAVAILABLE_503, "交易池已满，交易被丢弃");
+                }
+                case CLOSED -> {
+                    return Result.error(Result.SC_SERVICE_UNAVAILABLE_503, "交易池已关闭");
+                }
+                case DUPLICATE -> {
+                    return Result.error("交易已在缓冲池中，请勿重复提交");
+                }
+                default -> {
+                    return Result.error("无效交易");
+                }
+            }
         } catch (Exception e) {
             log.error("添加交易失败", e);
             return Result.error("添加交易失败: " + e.getMessage());
@@ -423,15 +635,32 @@ public class TxPoolImpl implements TxPool {
             byte[] txId = tx.getTxId();
             String txIdHex = bytesToHex(txId);
 
-            // 检查是否已存在相同交易
-
-
             // 获取发送者账户（费用支付者）
             byte[] sender = tx.getSender();
             if (sender == null) {
                 return Result.error("无法确定交易发送者");
             }
 
+            // 已打包的交易（在验证期间被打包，或重放检查之后才打包）不再入池
+            Key32 key = Key32.of(txId);
+            if (isPacked(key)) {
+                return Result.error("交易已处理，可能存在双花");
+            }
+
+            // 检查所写账户的待处理交易数（入池在账户锁内执行，同一可写账户的入池是串行的）
+            LockedTransaction locked = LockedTransaction.of(tx);
+            if (hasTooManyPendingWrites(locked)) {
+                return Result.error("账户待处理交易过多，请稍后重试");
+            }
+
+            // 检查是否已存在相同交易（不存在则写入分片）
+            Key32Map<Transaction> shard = shardOf(key);
+            synchronized (shard) {
+                if (shard.putIfAbsent(key, tx) != null) {
+                    return Result.error("交易已存在");
+                }
+            }
+
 
 
 
@@ -443,9 +672,10 @@ public class TxPoolImpl implements TxPool {
 
             // 增加交易池计数
             poolSize.incrementAndGet();
+            scheduleExpiry(tx);
 
-            // 更新账户冲突布隆过滤器
-            updateAccountConflictBloom(tx);
+            // 更新账户引用计数
+            pendingAccounts.add(locked);
 
             log.debug("交易已添加到池: {}", txIdHex);
             return Result.OK(txIdHex);
@@ -460,7 +690,18 @@ public class TxPoolImpl implements TxPool {
      * 从交易池中移除交易
      */
     private boolean removeTransaction(byte[] txId) {
-
+        Key32 key = Key32.of(txId);
+        Key32Map<Transaction> shard = shardOf(key);
+        Transaction removed;
+        synchronized (shard) {
+            removed = shard.remove(key);
+        }
+        if (removed == null) {
+            return false;
+        }
+        // 时间轮中的登记不需要删除，到期时找不到即跳过
+        poolSize.decrementAndGet();
+        pendingAccounts.remove(LockedTransaction.of(removed));
         return true;
     }
 
@@ -472,13 +713,6 @@ public class TxPoolImpl implements TxPool {
     }
 
 
-    /**
-     * 更新账户冲突布隆过滤器
-     */
-    private void updateAccountConflictBloom(Transaction tx) {
-
-    }
-
     /**
      * 内部处理交易的逻辑
      */
@@ -547,38 +781,33 @@ public class TxPoolImpl implements TxPool {
 
 
     /**
-     * 不同组 无冲突 可并行
+     * 从缓冲池取出手续费最高的一批交易，按账户读写集合分成无冲突批次并行重度校验，通过的交易加入交易池
+     * 访问同一可写账户的交易按手续费顺序串行校验（余额检查依赖前一笔的结果）
      */
     @Override
     public void processTransactions() {
-        // 1. 从所有分片收集待处理的交易组（过滤空组）
-        List<TransactionGroup> groups = groupShards.stream()
-                .flatMap(shard -> shard.values().stream())
-                .filter(group -> !group.getTransactions().isEmpty())
-                .toList();
-
-        if (groups.isEmpty()) {
+        List<Transaction> candidates = submitPool.selectAndRemoveTopTransactions();
+        if (candidates.isEmpty()) {
             return;
         }
-        log.debug("开始处理交易组，共 {} 个组", groups.size());
-        // 2. 并行处理无冲突的交易组
-        groups.parallelStream().forEach(group -> {
-
-
-
-        });
+        transactionProcessor.processTransactions(candidates, this::admitTransaction);
     }
 
-
     /**
-     * 处理单个交易组（组内交易串行处理）
-     * @param group
+     * 重度校验单笔交易并加入交易池（执行时已持有该交易涉及账户的读写锁）
      */
-    private void processGroup(TransactionGroup group) {
-        // 按POH时间戳排序组内交易（确保顺序性）
-        // 串行处理组内交易
-        // 交易验证（签名校验、余额检查等）
-
+    private boolean admitTransaction(Transaction tx) {
+        if (!processTransactionInternal(tx)) {
+            failedCount.increment();
+            return false;
+        }
+        Result<String> result = addTransactionToPool(tx);
+        if (!result.isSuccess()) {
+            failedCount.increment();
+            return false;
+        }
+        processedCount.increment();
+        return true;
     }
 
 
@@ -646,11 +875,11 @@ public class TxPoolImpl implements TxPool {
             }
 
             // 2. 检查双花
-            if (processedTxIds.contains(tx.getTxId())) {
+            if (isPacked(Key32.of(tx.getTxId()))) {
                 return Result.error("交易已处理，可能存在双花");
             }
 
-            // 3. 检查账户冲突（使用布隆过滤器快速判断）
+            // 3. 检查账户冲突（账户引用计数，精确判断）
             if (hasAccountConflicts(tx)) {
                 return Result.error("交易存在账户冲突");
             }
@@ -674,77 +903,65 @@ public class TxPoolImpl implements TxPool {
 
 
     /**
-     * 实际签名验证逻辑（被缓存加载器调用）
+     * 验证交易签名（Ed25519，与验证流水线验签阶段相同）
      */
-    private boolean verifySignatureInternal(String signatureKey) {
-        try {
-            // 解码签名
-            byte[] signature = Base64.getDecoder().decode(signatureKey);
+    private boolean verifySignatures(Transaction tx) {
+        return TxVerifyPipeline.verifySignatures(tx);
+    }
 
-            // TODO: 实现实际的签名验证逻辑
-            // 1. 获取对应的公钥
-            // 2. 使用公钥验证签名
-            // 这里仅做示例，返回true
+    /**
+     * 交易是否已打包、已在交易池或仍在缓冲池中（含提交队列中尚未写入分片的交易，重放检查）
+     * 从缓冲池取出到入池之间的交易查不到，入池时再检查一次已打包集合与分片
+     */
+    private boolean isReplayed(Key32 txId) {
+        if (isPacked(txId)) {
             return true;
-        } catch (Exception e) {
-            log.error("验证签名失败", e);
-            return false;
         }
+        Key32Map<Transaction> shard = shardOf(txId);
+        synchronized (shard) {
+            if (shard.containsKey(txId)) {
+                return true;
+            }
+        }
+        return submitPool.contains(txId);
     }
 
+    private boolean isPacked(Key32 txId) {
+        return processedTxIds.getIfPresent(txId) != null;
+    }
 
     /**
-     * 验证交易签名（使用缓存）
+     * 所写账户中是否有待处理写交易已达上限的账户
      */
-    private boolean verifySignatures(Transaction tx) {
-        try {
-
-
-
-            return true;
-        } catch (Exception e) {
-            log.error("验证签名失败", e);
-            return false;
+    private boolean hasTooManyPendingWrites(LockedTransaction tx) {
+        for (Key32 account : tx.writes) {
+            if (pendingAccounts.writers(account) >= MAX_PENDING_WRITES_PER_ACCOUNT) {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
      * 检查是否存在账户冲突
      */
     private boolean hasAccountConflicts(Transaction tx) {
-        if (tx.getAccounts() == null) {
-            return false;
-        }
+        // 只查询交易自身涉及的账户
+        return pendingAccounts.conflicts(LockedTransaction.of(tx));
+    }
 
-        // 检查交易涉及的可写账户是否已在布隆过滤器中
-        for (AccountMeta account : tx.getAccounts()) {
-            if (account.isWritable() && accountConflictBloom.mightContain(account.getPublicKey())) {
-                // 可能存在冲突，需要进一步精确检查
-                if (hasExactAccountConflict(tx, account.getPublicKey())) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    /**
+     * 交易所在分片（取键哈希的高位：低位用于分片内开放寻址定位，两者不能重叠）
+     */
+    private Key32Map<Transaction> shardOf(Key32 txId) {
+        return txShards.get(txId.hashCode() >>> (Integer.SIZE - SHARD_BITS));
     }
 
     /**
-     * 精确检查账户冲突
+     * 交易组所在分片
      */
-    private boolean hasExactAccountConflict(Transaction tx, byte[] accountPubKey) {
-        // 遍历所有分片检查是否有涉及该账户的未处理交易
-        for (Map<byte[], Transaction> shard : txShards) {
-            for (Transaction existingTx : shard.values()) {
-                if (existingTx.getAccounts() != null) {
-                    for (AccountMeta existingAccount : existingTx.getAccounts()) {
-                        if (existingAccount.isWritable() && Arrays.equals(existingAccount.getPublicKey(), accountPubKey)) {
-                            return true; // 发现精确冲突
-                        }
-                    }
-                }
-            }
-        }
-        return false;
+    private ConcurrentMap<Key32, TransactionGroup> groupShardOf(Key32 groupId) {
+        return groupShards.get(groupId.hashCode() >>> (Integer.SIZE - SHARD_BITS));
     }
 
     /**
@@ -760,13 +977,30 @@ public class TxPoolImpl implements TxPool {
     }
 
     /**
-     * 检查区块哈希是否过期
+     * 检查区块哈希是否无效（本地不存在或已过期）
      */
     private boolean isBlockhashExpired(BlockHash blockhash) {
-        // TODO: 实现实际的区块哈希过期检查
-        // 1. 获取当前最新区块哈希
-        // 2. 检查交易中的区块哈希是否在有效期内（通常为300个slot）
-        return false; // 示例返回false，表示未过期
+        // 有效期为300个slot（与过期时间轮使用同一失效时间）
+        if (blockhash == null) {
+            return true;
+        }
+        long deadline = blockhashDeadline(blockhash);
+        return deadline == Long.MAX_VALUE || deadline < System.currentTimeMillis();
+    }
+
+    /**
+     * 验证流水线 recentBlockhash 阶段：本地没有该区块（BlockhashNotFound）或已过期的交易拒绝
+     */
+    private Result<String> checkBlockhash(Transaction tx) {
+        BlockHash blockhash = tx.getRecentBlockhash();
+        long deadline = blockhash == null ? Long.MAX_VALUE : blockhashDeadline(blockhash);
+        if (deadline == Long.MAX_VALUE) {
+            return Result.error("区块哈希不存在（BlockhashNotFound）");
+        }
+        if (deadline < System.currentTimeMillis()) {
+            return Result.error("区块哈希已过期，交易无效");
+        }
+        return Result.OK();
     }
 
 
@@ -777,6 +1011,11 @@ public class TxPoolImpl implements TxPool {
     public void destroy() {
         log.info("开始关闭交易池...");
 
+        // 停止验证流水线（未完成的验证以失败结束）
+        if (verifyPipeline != null) {
+            verifyPipeline.stop();
+        }
+
         // 关闭线程池
         if (processPool != null) {
             processPool.shutdown();
@@ -790,6 +1029,10 @@ public class TxPoolImpl implements TxPool {
             cleanupScheduler.shutdown();
         }
 
+        if (fetchScheduler != null) {
+            fetchScheduler.shutdown();
+        }
+
         if (tpsStatScheduler != null) {
             tpsStatScheduler.shutdown();
         }
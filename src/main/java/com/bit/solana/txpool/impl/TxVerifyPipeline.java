@@ -0,0 +1,326 @@
+package com.bit.solana.txpool.impl;
+
+import com.bit.solana.common.Key32;
+import com.bit.solana.common.LatencyHistogram;
+import com.bit.solana.common.PipelineStage;
+import com.bit.solana.result.Result;
+import com.bit.solana.structure.account.AccountMeta;
+import com.bit.solana.structure.tx.Signature;
+import com.bit.solana.structure.tx.Transaction;
+import com.bit.solana.txpool.VerifyStageProfile;
+import com.bit.solana.util.SolanaEd25519Signer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 交易验证流水线：预检 -> Ed25519验签 -> 去重/重放检查 -> recentBlockhash 检查 -> 写入提交队列
+ * 每个阶段有独立的有界队列和工作线程（线程数、批大小、队列长度可在 system.verify-stages.<阶段名> 中配置），
+ * 入口队列满时立即返回繁忙，阶段之间下游队列满时上游阻塞（背压）；
+ * 每个阶段统计队列深度、排队延迟与批处理耗时，另统计端到端延迟，压测时排队延迟先上升的阶段即为瓶颈
+ */
+@Slf4j
+final class TxVerifyPipeline {
+    // Ed25519 签名长度
+    private static final int SIGNATURE_LENGTH = 64;
+
+    /**
+     * 流水线阶段及默认配置（验签最耗CPU，默认按CPU核数分配线程，其余阶段单线程即可）
+     */
+    enum Stage {
+        PRECHECK("precheck", 1, 1 << 8, 1 << 14),
+        SIG_VERIFY("sig-verify", Runtime.getRuntime().availableProcessors(), 1 << 6, 1 << 14),
+        DEDUP("dedup", 1, 1 << 8, 1 << 13),
+        BLOCKHASH("blockhash", 1, 1 << 8, 1 << 13),
+        ADMIT("admit", 1, 1 << 8, 1 << 13);
+
+        final String key;
+        final int threads;
+        final int batchSize;
+        final int queueSize;
+
+        Stage(String key, int threads, int batchSize, int queueSize) {
+            this.key = key;
+            this.threads = threads;
+            this.batchSize = batchSize;
+            this.queueSize = queueSize;
+        }
+    }
+
+    /**
+     * 流经流水线的验证任务
+     */
+    static final class VerifyTask {
+        final Transaction tx;
+        final CompletableFuture<Result<String>> future = new CompletableFuture<>();
+        final long startNanos = System.nanoTime();
+        // 预检通过后设置
+        Key32 txId;
+        // 是否已登记到验证中集合（完成时需要移除）
+        boolean inFlight;
+
+        VerifyTask(Transaction tx) {
+            this.tx = tx;
+        }
+    }
+
+    private final Function<Transaction, Result<String>> precheck;
+    private final Predicate<Key32> replayed;
+    private final Function<Transaction, Result<String>> blockhashCheck;
+    private final Function<Transaction, Result<String>> admit;
+
+    private final PipelineStage<VerifyTask>[] stages;
+    // 验证中的交易ID：同一交易重复提交时只验证一次
+    private final Set<Key32> inFlight = ConcurrentHashMap.newKeySet();
+    // 提交 -> 得到结果
+    private final LatencyHistogram endToEnd = new LatencyHistogram();
+    private final LongAdder acceptedCount = new LongAdder();
+    private final LongAdder busyCount = new LongAdder();
+    // 各阶段拒绝数（按 Stage.ordinal）
+    private final LongAdder[] rejectedCounts = new LongAdder[Stage.values().length];
+    private volatile boolean running;
+
+    /**
+     * @param profiles         阶段名 -> 配置覆盖（可为空）
+     * @param precheck         轻量结构检查
+     * @param replayed         交易ID是否已处理或已在交易池中
+     * @param blockhashCheck   recentBlockhash 检查（本地不存在或已过期时失败）
+     * @param admit            写入提交队列
+     */
+    @SuppressWarnings("unchecked")
+    TxVerifyPipeline(Map<String, VerifyStageProfile> profiles,
+                     Function<Transaction, Result<String>> precheck,
+                     Predicate<Key32> replayed,
+                     Function<Transaction, Result<String>> blockhashCheck,
+                     Function<Transaction, Result<String>> admit) {
+        this.precheck = precheck;
+        this.replayed = replayed;
+        this.blockhashCheck = blockhashCheck;
+        this.admit = admit;
+        Stage[] values = Stage.values();
+        this.stages = new PipelineStage[values.length];
+        for (Stage stage : values) {
+            rejectedCounts[stage.ordinal()] = new LongAdder();
+            VerifyStageProfile profile = profiles == null ? null : profiles.get(stage.key);
+            int threads = profile != null && profile.getThreads() != null ? profile.getThreads() : stage.threads;
+            int batchSize = profile != null && profile.getBatchSize() != null ? profile.getBatchSize() : stage.batchSize;
+            int queueSize = profile != null && profile.getQueueSize() != null ? profile.getQueueSize() : stage.queueSize;
+            stages[stage.ordinal()] = new PipelineStage<>("tx-verify-" + stage.key, threads, batchSize, queueSize,
+                    batch -> handle(stage, batch),
+                    (task, e) -> complete(task, stage, Result.error("交易验证失败: " + e.getMessage())));
+        }
+    }
+
+    void start() {
+        running = true;
+        for (PipelineStage<VerifyTask> stage : stages) {
+            stage.start();
+        }
+        StringBuilder config = new StringBuilder();
+        for (PipelineStage<VerifyTask> stage : stages) {
+            Map<String, Object> stats = stage.getStats();
+            config.append(' ').append(stage.getName()).append('[')
+                    .append(stats.get("threads")).append('/').append(stats.get("batchSize")).append('/')
+                    .append(stats.get("queueCapacity")).append(']');
+        }
+        log.info("交易验证流水线已启动（线程数/批大小/队列长度）:{}", config);
+    }
+
+    /**
+     * 按流水线顺序停止（上游先停，下游仍可处理已转交的任务），未处理的任务以失败结束
+     */
+    void stop() {
+        running = false;
+        for (PipelineStage<VerifyTask> stage : stages) {
+            stage.stop();
+        }
+        log.info("交易验证流水线已停止");
+    }
+
+    /**
+     * 提交交易进行验证（不阻塞）：入口队列满时立即以繁忙结束
+     */
+    CompletableFuture<Result<String>> submit(Transaction tx) {
+        VerifyTask task = new VerifyTask(tx);
+        if (!running) {
+            task.future.complete(Result.error(Result.SC_SERVICE_UNAVAILABLE_503, "交易池已关闭"));
+        } else if (!stages[Stage.PRECHECK.ordinal()].offer(task)) {
+            busyCount.increment();
+            task.future.complete(Result.error(Result.SC_SERVICE_UNAVAILABLE_503, "交易验证繁忙，请稍后重试"));
+        }
+        return task.future;
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            Map<String, Object> stageStats = stages[stage.ordinal()].getStats();
+            stageStats.put("rejected", rejectedCounts[stage.ordinal()].sum());
+            stats.put(stage.key, stageStats);
+        }
+        stats.put("endToEnd", endToEnd.snapshot());
+        stats.put("accepted", acceptedCount.sum());
+        stats.put("busy", busyCount.sum());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+
+    /**
+     * 各阶段队列深度与延迟（每个阶段一行，用于状态文本）
+     */
+    String summary(String indent) {
+        StringBuilder summary = new StringBuilder();
+        for (Stage stage : Stage.values()) {
+            PipelineStage<VerifyTask> pipelineStage = stages[stage.ordinal()];
+            summary.append(indent).append(stage.key).append(": 队列 ")
+                    .append(pipelineStage.getQueueDepth()).append('/').append(pipelineStage.getQueueCapacity())
+                    .append("，排队p99 ").append(pipelineStage.getQueueLatency().getPercentileMicros(99)).append("us")
+                    .append("，批耗时p99 ").append(pipelineStage.getBatchLatency().getPercentileMicros(99)).append("us")
+                    .append("，利用率 ").append(String.format("%.2f", pipelineStage.getUtilization()))
+                    .append("，拒绝 ").append(rejectedCounts[stage.ordinal()].sum())
+                    .append("\n");
+        }
+        summary.append(indent).append("端到端: p50 ").append(endToEnd.getPercentileMicros(50))
+                .append("us，p99 ").append(endToEnd.getPercentileMicros(99))
+                .append("us，通过 ").append(acceptedCount.sum())
+                .append("，繁忙 ").append(busyCount.sum()).append("\n");
+        return summary.toString();
+    }
+
+    /**
+     * 逐笔处理一批任务：单笔异常只结束该笔，不影响同批其他交易
+     * 停止时转交下游被中断：只结束当前及之后尚未转交的任务，已转交的任务由下游阶段结束
+     * （不能交给阶段的 onFailure 整批结束，否则下游仍会写入已告知调用方失败的交易）
+     */
+    private void handle(Stage stage, List<VerifyTask> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            VerifyTask task = batch.get(i);
+            try {
+                process(stage, task);
+            } catch (RuntimeException e) {
+                log.warn("交易验证异常，阶段: {}", stage.key, e);
+                complete(task, stage, Result.error("交易验证失败: " + e.getMessage()));
+            } catch (InterruptedException e) {
+                Result<String> closed = Result.error(Result.SC_SERVICE_UNAVAILABLE_503, "交易池已关闭");
+                for (int j = i; j < batch.size(); j++) {
+                    complete(batch.get(j), stage, closed);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void process(Stage stage, VerifyTask task) throws InterruptedException {
+        // 已结束的任务（已返回失败）不再继续处理
+        if (task.future.isDone()) {
+            return;
+        }
+        switch (stage) {
+            case PRECHECK -> {
+                Result<String> result = precheck.apply(task.tx);
+                if (!result.isSuccess()) {
+                    complete(task, stage, result);
+                    return;
+                }
+                task.txId = Key32.of(task.tx.getTxId());
+                forward(stage, task);
+            }
+            case SIG_VERIFY -> {
+                if (verifySignatures(task.tx)) {
+                    forward(stage, task);
+                } else {
+                    complete(task, stage, Result.error("签名验证失败"));
+                }
+            }
+            case DEDUP -> {
+                if (!inFlight.add(task.txId)) {
+                    complete(task, stage, Result.error("交易正在验证中，请勿重复提交"));
+                    return;
+                }
+                task.inFlight = true;
+                if (replayed.test(task.txId)) {
+                    complete(task, stage, Result.error("交易已处理，可能存在双花"));
+                    return;
+                }
+                forward(stage, task);
+            }
+            case BLOCKHASH -> {
+                Result<String> result = blockhashCheck.apply(task.tx);
+                if (result.isSuccess()) {
+                    forward(stage, task);
+                } else {
+                    complete(task, stage, result);
+                }
+            }
+            case ADMIT -> complete(task, stage, admit.apply(task.tx));
+        }
+    }
+
+    /**
+     * 转交下一阶段（下游队列满时阻塞）
+     */
+    private void forward(Stage stage, VerifyTask task) throws InterruptedException {
+        stages[stage.ordinal() + 1].put(task);
+    }
+
+    /**
+     * 结束任务：只有第一次结束生效（停止时队列中剩余的任务可能与处理中的任务重复结束）
+     */
+    private void complete(VerifyTask task, Stage stage, Result<String> result) {
+        if (!task.future.complete(result)) {
+            return;
+        }
+        if (task.inFlight) {
+            inFlight.remove(task.txId);
+        }
+        endToEnd.record(System.nanoTime() - task.startNanos);
+        if (result.isSuccess()) {
+            acceptedCount.increment();
+        } else {
+            rejectedCounts[stage.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Ed25519 验签：第 i 个签名对应账户列表中第 i 个签名账户，签名数必须与签名账户数一致
+     * 签名数据（buildSignData）每笔交易只构建一次
+     */
+    static boolean verifySignatures(Transaction tx) {
+        List<Signature> signatures = tx.getSignatures();
+        List<AccountMeta> accounts = tx.getAccounts();
+        if (signatures == null || signatures.isEmpty() || accounts == null) {
+            return false;
+        }
+        try {
+            byte[] message = tx.buildSignData();
+            int index = 0;
+            for (AccountMeta account : accounts) {
+                if (!account.isSigner()) {
+                    continue;
+                }
+                if (index >= signatures.size()) {
+                    return false;
+                }
+                byte[] signature = signatures.get(index++).getValue();
+                if (signature == null || signature.length != SIGNATURE_LENGTH
+                        || !SolanaEd25519Signer.fastVerify(account.getPublicKey(), message, signature)) {
+                    return false;
+                }
+            }
+            return index == signatures.size();
+        } catch (Exception e) {
+            // 公钥不是合法的曲线点等
+            log.debug("交易验签异常: {}", e.getMessage());
+            return false;
+        }
+    }
+}
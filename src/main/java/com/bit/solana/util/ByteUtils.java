@@ -24,6 +24,31 @@ public class ByteUtils {
         return ByteBuffer.wrap(bytes).getLong();
     }
 
+    /**
+     * long 转 8 字节大端（高位在前），字节序与数值大小一致，可直接作为有序键（如区块高度）
+     * 仅适用于非负数
+     */
+    public static byte[] longToBytesBE(long value) {
+        byte[] bytes = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+
+    /**
+     * 8 字节大端转 long
+     * @param offset 起始偏移
+     */
+    public static long bytesToLongBE(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
     /**
      * 字节数组转十六进制字符串
      */
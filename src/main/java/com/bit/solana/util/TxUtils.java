@@ -1,9 +1,77 @@
 package com.bit.solana.util;
 
+import com.bit.solana.common.ByteHash32;
+import com.bit.solana.structure.account.AccountMeta;
+import com.bit.solana.structure.block.BlockBody;
+import com.bit.solana.structure.tx.Instruction;
+import com.bit.solana.structure.tx.Signature;
 import com.bit.solana.structure.tx.Transaction;
 
+import java.util.List;
+
 public class TxUtils {
+    /**
+     * 单区块计算单元上限（与 Solana 单区块 48M CU 一致）
+     */
+    public static final long MAX_BLOCK_COMPUTE_UNITS = 48_000_000L;
+
+    // 计算单元估算：签名验证、每条指令的基础开销、指令数据、可写账户（加锁+写回）、只读账户（加载）
+    private static final int CU_PER_SIGNATURE = 1_000;
+    private static final int CU_PER_INSTRUCTION = 1_000;
+    private static final int CU_PER_DATA_BYTE = 1;
+    private static final int CU_PER_WRITABLE_ACCOUNT = 300;
+    private static final int CU_PER_READONLY_ACCOUNT = 100;
+
+    /**
+     * 交易序列化后的字节数（即 Transaction.serialize() 的长度，由交易缓存）
+     */
     public static long getSerializedSize(Transaction transaction) {
-        return 0;
+        return transaction.getSize();
+    }
+
+    /**
+     * 估算交易消耗的计算单元（交易中没有声明计算预算，按结构线性估算）
+     */
+    public static long estimateComputeUnits(Transaction transaction) {
+        long units = 0;
+        List<Signature> signatures = transaction.getSignatures();
+        if (signatures != null) {
+            units += (long) signatures.size() * CU_PER_SIGNATURE;
+        }
+        List<Instruction> instructions = transaction.getInstructions();
+        if (instructions != null) {
+            for (Instruction instruction : instructions) {
+                units += CU_PER_INSTRUCTION;
+                if (instruction.getData() != null) {
+                    units += (long) instruction.getData().length * CU_PER_DATA_BYTE;
+                }
+            }
+        }
+        List<AccountMeta> accounts = transaction.getAccounts();
+        if (accounts != null) {
+            for (AccountMeta account : accounts) {
+                units += account.isWritable() ? CU_PER_WRITABLE_ACCOUNT : CU_PER_READONLY_ACCOUNT;
+            }
+        }
+        return Math.max(1, units);
+    }
+
+    /**
+     * 交易优先级：手续费 / 交易占用的区块资源比例
+     * 区块同时受字节数（含32字节交易哈希）和计算单元限制，取两者中占比较大的一项，
+     * 即按每字节或每计算单元手续费排序（以较紧的资源为准），大交易不能只靠手续费总额排到前面
+     */
+    public static double priority(Transaction transaction) {
+        double byteShare = (double) (transaction.getSize() + ByteHash32.HASH_LENGTH) / BlockBody.MAX_BODY_SIZE;
+        double computeShare = (double) estimateComputeUnits(transaction) / MAX_BLOCK_COMPUTE_UNITS;
+        return transaction.getFee() / Math.max(byteShare, computeShare);
+    }
+
+    /**
+     * 按优先级比较
+     * @return a 优先级更高返回正数
+     */
+    public static int comparePriority(Transaction a, Transaction b) {
+        return Double.compare(priority(a), priority(b));
     }
 }
@@ -0,0 +1,208 @@
+package com.bit.solana;
+
+import com.bit.solana.common.BlockHash;
+import com.bit.solana.common.ByteHash32;
+import com.bit.solana.common.Key32;
+import com.bit.solana.common.PoHHash;
+import com.bit.solana.common.StateRootHash;
+import com.bit.solana.common.TransactionHash;
+import com.bit.solana.structure.account.AccountMeta;
+import com.bit.solana.structure.block.BlockHeader;
+import com.bit.solana.structure.tx.Instruction;
+import com.bit.solana.structure.tx.Transaction;
+import com.google.protobuf.ByteString;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 出块时32字节哈希相关的分配量对比：旧写法（构造时生成十六进制串、每次读取拷贝数组、ByteString.copyFrom）
+ * 与当前 ByteHash32（延迟十六进制、writeTo/toByteString/toKey 不拷贝、热点公钥驻留）
+ * 模拟一个 5000 笔交易的区块：反序列化账户公钥、写出签名数据、按公钥分组、计算交易哈希列表、生成区块头 protobuf
+ * 分配量取自当前线程 ThreadMXBean.getCurrentThreadAllocatedBytes（HotSpot）
+ * 参数：[交易数量，默认5000] [热点公钥数量，默认64]
+ */
+public class ByteHashAllocationBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURE_ROUNDS = 20;
+    private static final int ACCOUNTS_PER_TX = 4;
+
+    public static void main(String[] args) throws Exception {
+        int txCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int hotKeys = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        byte[][][] accountKeys = randomAccountKeys(txCount, hotKeys);
+        byte[] recentBlockhash = randomBytes(new Random(7));
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            buildLegacy(accountKeys, recentBlockhash);
+            buildCurrent(accountKeys, recentBlockhash);
+        }
+
+        System.out.printf("%-10s %-16s %-16s %-12s%n", "mode", "alloc/block(KB)", "alloc/tx(B)", "time(ms)");
+        report("legacy", txCount, () -> buildLegacy(accountKeys, recentBlockhash));
+        report("current", txCount, () -> buildCurrent(accountKeys, recentBlockhash));
+    }
+
+    private static void report(String mode, int txCount, Build build) throws IOException {
+        long allocated = 0;
+        long elapsed = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long startBytes = allocatedBytes();
+            long start = System.nanoTime();
+            build.run();
+            elapsed += System.nanoTime() - start;
+            allocated += allocatedBytes() - startBytes;
+        }
+        long perBlock = allocated / MEASURE_ROUNDS;
+        System.out.printf("%-10s %-16.1f %-16d %-12.2f%n", mode, perBlock / 1024.0, perBlock / txCount,
+                elapsed / MEASURE_ROUNDS / 1_000_000.0);
+    }
+
+    /**
+     * 当前实现：公钥驻留、直接写内部数组、按 Key32 分组、哈希直接包装为 ByteString
+     */
+    private static long buildCurrent(byte[][][] accountKeys, byte[] recentBlockhash) throws IOException {
+        BlockHash blockhash = BlockHash.fromBytes(recentBlockhash);
+        Map<Key32, Integer> writableCounts = new HashMap<>();
+        List<TransactionHash> txHashes = new ArrayList<>(accountKeys.length);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(256);
+        DataOutputStream dos = new DataOutputStream(baos);
+        for (byte[][] keys : accountKeys) {
+            Transaction tx = newTransaction(keys, blockhash);
+            baos.reset();
+            for (AccountMeta account : tx.getAccounts()) {
+                account.getPubkey().writeTo(dos);
+                writableCounts.merge(account.getPubkey().toKey(), 1, Integer::sum);
+            }
+            tx.getRecentBlockhash().writeTo(dos);
+            txHashes.add(TransactionHash.fromBytes(Arrays.copyOf(baos.toByteArray(), ByteHash32.HASH_LENGTH)));
+        }
+        BlockHeader header = newHeader(blockhash, txHashes.size());
+        return header.toProto().getSerializedSize() + writableCounts.size() + txHashes.size();
+    }
+
+    /**
+     * 旧写法：每个公钥新建实例并立即生成十六进制串，读取时拷贝数组，按十六进制串分组，ByteString.copyFrom
+     */
+    private static long buildLegacy(byte[][][] accountKeys, byte[] recentBlockhash) throws IOException {
+        LegacyHash blockhash = new LegacyHash(recentBlockhash);
+        Map<String, Integer> writableCounts = new HashMap<>();
+        List<LegacyHash> txHashes = new ArrayList<>(accountKeys.length);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(256);
+        DataOutputStream dos = new DataOutputStream(baos);
+        for (byte[][] keys : accountKeys) {
+            List<LegacyHash> accounts = new ArrayList<>(keys.length);
+            for (byte[] key : keys) {
+                accounts.add(new LegacyHash(key));
+            }
+            baos.reset();
+            for (LegacyHash account : accounts) {
+                dos.write(account.getValue());
+                writableCounts.merge(account.getHexValue(), 1, Integer::sum);
+            }
+            dos.write(blockhash.getValue());
+            txHashes.add(new LegacyHash(Arrays.copyOf(baos.toByteArray(), ByteHash32.HASH_LENGTH)));
+        }
+        ByteString previous = ByteString.copyFrom(blockhash.getValue());
+        long hashesSize = txHashes.stream().mapToLong(hash -> hash.getValue().length).sum();
+        return previous.size() + hashesSize + writableCounts.size();
+    }
+
+    private static Transaction newTransaction(byte[][] keys, BlockHash blockhash) {
+        Transaction tx = new Transaction();
+        List<AccountMeta> accounts = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            AccountMeta account = new AccountMeta();
+            account.setPublicKey(keys[i]);
+            account.setSigner(i == 0);
+            account.setWritable(i < 2);
+            accounts.add(account);
+        }
+        tx.setAccounts(accounts);
+        Instruction instruction = new Instruction();
+        instruction.setProgramIdIndex(keys.length - 1);
+        instruction.setAccounts(List.of(0, 1));
+        instruction.setData(new byte[0]);
+        tx.setInstructions(List.of(instruction));
+        tx.setRecentBlockhash(blockhash);
+        return tx;
+    }
+
+    private static BlockHeader newHeader(BlockHash previous, int txCount) {
+        BlockHeader header = new BlockHeader();
+        header.setPreviousBlockHash(previous);
+        header.setStateRoot(new StateRootHash(new byte[ByteHash32.HASH_LENGTH]));
+        header.setPoHHash(new PoHHash(new byte[ByteHash32.HASH_LENGTH]));
+        header.setTransactionsCount(txCount);
+        return header;
+    }
+
+    /**
+     * 每笔交易：付款人随机，其余账户从热点公钥中选取（系统程序、热门合约等）
+     */
+    private static byte[][][] randomAccountKeys(int txCount, int hotKeys) {
+        Random random = new Random(42);
+        byte[][] hot = new byte[hotKeys][];
+        for (int i = 0; i < hotKeys; i++) {
+            hot[i] = randomBytes(random);
+        }
+        byte[][][] result = new byte[txCount][ACCOUNTS_PER_TX][];
+        for (int i = 0; i < txCount; i++) {
+            result[i][0] = randomBytes(random);
+            for (int j = 1; j < ACCOUNTS_PER_TX; j++) {
+                result[i][j] = hot[random.nextInt(hotKeys)].clone();
+            }
+        }
+        return result;
+    }
+
+    private static byte[] randomBytes(Random random) {
+        byte[] bytes = new byte[ByteHash32.HASH_LENGTH];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    @FunctionalInterface
+    private interface Build {
+        long run() throws IOException;
+    }
+
+    /**
+     * 旧版 ByteHash32 的行为：构造时拷贝并生成十六进制串，getValue 每次拷贝
+     */
+    private static final class LegacyHash {
+        private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+        private final byte[] value;
+        private final String hexValue;
+
+        private LegacyHash(byte[] value) {
+            this.value = Arrays.copyOf(value, ByteHash32.HASH_LENGTH);
+            StringBuilder sb = new StringBuilder(ByteHash32.HASH_LENGTH * 2);
+            for (byte b : this.value) {
+                sb.append(HEX_CHARS[(b >>> 4) & 0x0F]).append(HEX_CHARS[b & 0x0F]);
+            }
+            this.hexValue = sb.toString();
+        }
+
+        private byte[] getValue() {
+            return Arrays.copyOf(value, ByteHash32.HASH_LENGTH);
+        }
+
+        private String getHexValue() {
+            return hexValue;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.bit.solana;
+
+import com.bit.solana.config.SystemConfig;
+import com.bit.solana.database.rocksDb.ColumnFamilyProfile;
+import com.bit.solana.database.rocksDb.RTable;
+import com.bit.solana.database.rocksDb.RocksDb;
+import com.bit.solana.database.rocksDb.TableEnum;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.FlushOptions;
+import org.rocksdb.RocksDB;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 区块表键值分离（blob文件）开启/关闭对比：写放大与 put 延迟 p50/p99
+ * 写入 64KB~1.4MB 的区块记录（一半可压缩），其中30%为覆盖写，产生压缩与blob垃圾回收
+ * 写放大 = (刷盘 + 压缩写入SST + 写入blob) / 用户写入字节，取自该列族 cfstats
+ * 参数：[区块数量，默认1000]
+ */
+public class RocksDbBlobBenchmark {
+
+    private static final int MIN_VALUE_SIZE = 64 * 1024;
+    private static final int MAX_VALUE_SIZE = 1400 * 1024;
+    private static final double OVERWRITE_RATIO = 0.3;
+    private static final long IDLE_TIMEOUT_MS = 120_000;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        System.out.printf("%-10s %-12s %-12s %-12s %-12s %-14s %-14s%n",
+                "blob", "user(MB)", "write amp", "p50(us)", "p99(us)", "sst(MB)", "blob(MB)");
+        run(false, count);
+        run(true, count);
+    }
+
+    private static void run(boolean blobFiles, int count) throws Exception {
+        Path dir = Files.createTempDirectory("rocksdb-blob");
+        SystemConfig config = new SystemConfig();
+        config.setPath(dir.toString());
+        ColumnFamilyProfile override = new ColumnFamilyProfile();
+        override.setBlobFiles(blobFiles);
+        config.setTableProfiles(Map.of(TableEnum.BLOCK.getColumnFamilyName(), override));
+        RocksDb dataBase = new RocksDb();
+        if (!dataBase.createDatabase(config)) {
+            throw new IllegalStateException("数据库创建失败: " + dir);
+        }
+        RocksDB raw = dataBase.getDb();
+        ColumnFamilyHandle cf = RTable.getColumnFamilyHandle(TableEnum.BLOCK);
+        Random random = new Random(42);
+
+        long[] latencies = new long[count];
+        long userBytes = 0;
+        int written = 0;
+        for (int i = 0; i < count; i++) {
+            // 覆盖写随机选择已写入的区块
+            int id = written > 0 && random.nextDouble() < OVERWRITE_RATIO ? random.nextInt(written) : written++;
+            byte[] key = key(id);
+            byte[] value = value(random);
+            long t0 = System.nanoTime();
+            raw.put(cf, key, value);
+            latencies[i] = System.nanoTime() - t0;
+            userBytes += key.length + value.length;
+        }
+
+        try (FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true)) {
+            raw.flush(flushOptions, cf);
+        }
+        waitForCompactions(raw, cf);
+
+        Map<String, String> cfStats = raw.getMapProperty(cf, "rocksdb.cfstats");
+        double writeGb = parse(cfStats.get("compaction.Sum.WriteGB")) + parse(cfStats.get("compaction.Sum.WblobGB"));
+        double writeAmp = writeGb * 1024 * 1024 * 1024 / userBytes;
+        long sstBytes = raw.getLongProperty(cf, "rocksdb.live-sst-files-size");
+        long blobBytes = raw.getLongProperty(cf, "rocksdb.live-blob-file-size");
+
+        Arrays.sort(latencies);
+        System.out.printf("%-10s %-12.1f %-12.2f %-12.1f %-12.1f %-14.1f %-14.1f%n",
+                blobFiles ? "on" : "off",
+                userBytes / 1024.0 / 1024,
+                writeAmp,
+                latencies[count / 2] / 1000.0,
+                latencies[(int) (count * 0.99)] / 1000.0,
+                sstBytes / 1024.0 / 1024,
+                blobBytes / 1024.0 / 1024);
+        dataBase.closeDatabase();
+        deleteRecursively(dir);
+    }
+
+    /**
+     * 等待后台刷盘与压缩结束，写放大才包含全部压缩IO
+     */
+    private static void waitForCompactions(RocksDB raw, ColumnFamilyHandle cf) throws Exception {
+        long deadline = System.currentTimeMillis() + IDLE_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (raw.getLongProperty("rocksdb.num-running-compactions") == 0
+                    && raw.getLongProperty(cf, "rocksdb.compaction-pending") == 0
+                    && raw.getLongProperty(cf, "rocksdb.num-running-flushes") == 0) {
+                return;
+            }
+            Thread.sleep(200);
+        }
+        System.out.println("等待压缩结束超时，写放大可能偏低");
+    }
+
+    private static double parse(String gb) {
+        return gb == null || gb.isEmpty() ? 0 : Double.parseDouble(gb);
+    }
+
+    private static byte[] key(int id) {
+        // 与区块表一致的32字节哈希键
+        return ByteBuffer.allocate(32).putInt(28, id).array();
+    }
+
+    /**
+     * 前一半随机字节（不可压缩，类似签名/哈希），后一半重复模式（可压缩，类似指令数据）
+     */
+    private static byte[] value(Random random) {
+        byte[] value = new byte[MIN_VALUE_SIZE + random.nextInt(MAX_VALUE_SIZE - MIN_VALUE_SIZE)];
+        byte[] head = new byte[value.length / 2];
+        random.nextBytes(head);
+        System.arraycopy(head, 0, value, 0, head.length);
+        for (int i = head.length; i < value.length; i++) {
+            value[i] = (byte) (i % 64);
+        }
+        return value;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted((a, b) -> b.getNameCount() - a.getNameCount()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.bit.solana;
+
+import com.bit.solana.config.SystemConfig;
+import com.bit.solana.database.rocksDb.RTable;
+import com.bit.solana.database.rocksDb.RocksDb;
+import com.bit.solana.database.rocksDb.TableEnum;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * 逐键 get 与 MultiGet 批量读取对比（100 / 1k / 10k 键）
+ * 每轮测量前清空应用缓存，保证两种方式都真正访问RocksDB
+ */
+public class RocksDbMultiGetBenchmark {
+
+    private static final int KEY_SPACE = 200_000;
+    private static final int VALUE_SIZE = 128;
+    private static final int[] BATCH_SIZES = {100, 1_000, 10_000};
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURE_ROUNDS = 100;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("rocksdb-multiget");
+        SystemConfig config = new SystemConfig();
+        config.setPath(dir.toString());
+        RocksDb dataBase = new RocksDb();
+        if (!dataBase.createDatabase(config)) {
+            throw new IllegalStateException("数据库创建失败: " + dir);
+        }
+        preload(dataBase);
+
+        RocksDB raw = dataBase.getDb();
+        ColumnFamilyHandle cf = RTable.getColumnFamilyHandle(TableEnum.ACCOUNT);
+        Random random = new Random(42);
+
+        System.out.printf("%-8s %-16s %-16s %-8s%n", "keys", "loop get(us)", "multiGet(us)", "speedup");
+        for (int size : BATCH_SIZES) {
+            byte[][] keys = new byte[size][];
+            for (int i = 0; i < size; i++) {
+                keys[i] = key(random.nextInt(KEY_SPACE));
+            }
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                loopGet(raw, cf, keys);
+                dataBase.clearCache(TableEnum.ACCOUNT);
+                dataBase.batchGet(TableEnum.ACCOUNT, keys);
+            }
+
+            long loopNanos = 0;
+            long multiNanos = 0;
+            for (int i = 0; i < MEASURE_ROUNDS; i++) {
+                long t0 = System.nanoTime();
+                loopGet(raw, cf, keys);
+                loopNanos += System.nanoTime() - t0;
+
+                dataBase.clearCache(TableEnum.ACCOUNT);
+                long t1 = System.nanoTime();
+                dataBase.batchGet(TableEnum.ACCOUNT, keys);
+                multiNanos += System.nanoTime() - t1;
+            }
+            double loopUs = loopNanos / 1000.0 / MEASURE_ROUNDS;
+            double multiUs = multiNanos / 1000.0 / MEASURE_ROUNDS;
+            System.out.printf("%-8d %-16.1f %-16.1f %-8.2f%n", size, loopUs, multiUs, loopUs / multiUs);
+        }
+        dataBase.closeDatabase();
+        deleteRecursively(dir);
+    }
+
+    private static int loopGet(RocksDB raw, ColumnFamilyHandle cf, byte[][] keys) throws Exception {
+        int found = 0;
+        for (byte[] key : keys) {
+            if (raw.get(cf, key) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static void preload(RocksDb dataBase) {
+        int batch = 1000;
+        for (int start = 0; start < KEY_SPACE; start += batch) {
+            byte[][] keys = new byte[batch][];
+            byte[][] values = new byte[batch][];
+            for (int i = 0; i < batch; i++) {
+                keys[i] = key(start + i);
+                values[i] = new byte[VALUE_SIZE];
+            }
+            dataBase.batchInsert(TableEnum.ACCOUNT, keys, values);
+        }
+        dataBase.clearCache(TableEnum.ACCOUNT);
+        dataBase.compact(null, null);
+    }
+
+    private static byte[] key(int i) {
+        byte[] key = new byte[32];
+        key[0] = (byte) (i >>> 24);
+        key[1] = (byte) (i >>> 16);
+        key[2] = (byte) (i >>> 8);
+        key[3] = (byte) i;
+        return key;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted((a, b) -> b.getNameCount() - a.getNameCount()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
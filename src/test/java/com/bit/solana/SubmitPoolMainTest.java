@@ -7,7 +7,6 @@ import com.bit.solana.structure.tx.Signature;
 import com.bit.solana.structure.tx.Transaction;
 import com.bit.solana.structure.tx.TransactionStatusResolver;
 import com.bit.solana.txpool.impl.SubmitPoolImpl;
-import com.bit.solana.util.Sha;
 import org.springframework.util.Assert;
 
 import java.util.ArrayList;
@@ -195,13 +194,9 @@ public class SubmitPoolMainTest {
         tx.setInstructions(instructions);
 
         // 随机区块哈希
-        int i = random.nextInt(1000);
-        String abc = "abc" + i;
-        byte[] bytes = Sha.applySHA256(abc.getBytes());
-        BlockHash blockHash = new BlockHash(bytes);
         byte[] hash = new byte[32];
         random.nextBytes(hash);
-        blockHash.setValue(hash);
+        BlockHash blockHash = new BlockHash(hash);
         tx.setRecentBlockhash(blockHash);
 
         // 随机手续费
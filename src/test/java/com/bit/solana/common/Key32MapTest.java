@@ -0,0 +1,147 @@
+package com.bit.solana.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Key32 判等/排序，Key32Map 线性探测与删除后移补位（含跨越数组末尾的探测链）
+ */
+public class Key32MapTest {
+    // 默认容量16，不超过8个条目时不会扩容
+    private static final int MASK = 15;
+
+    @Test
+    void keyRoundTripAndOrder() {
+        Random random = new Random(1);
+        byte[] a = new byte[32];
+        byte[] b = new byte[32];
+        for (int i = 0; i < 1000; i++) {
+            random.nextBytes(a);
+            random.nextBytes(b);
+            Key32 ka = Key32.of(a);
+            assertArrayEquals(a, ka.toBytes());
+            assertTrue(ka.contentEquals(a));
+            assertEquals(ka, Key32.of(a.clone()));
+            assertEquals(ka.hashCode(), Key32.of(a.clone()).hashCode());
+            assertEquals(Integer.signum(Arrays.compareUnsigned(a, b)), Integer.signum(ka.compareTo(Key32.of(b))));
+        }
+        assertThrows(IllegalArgumentException.class, () -> Key32.of(new byte[31]));
+    }
+
+    @Test
+    void removeShiftsWrappedProbeChain() {
+        Random random = new Random(2);
+        // 三个键落在最后一个槽位，探测链绕回数组开头；再各放一个落在槽位0与槽位1的键
+        Key32 a = keyWithSlot(15, random);
+        Key32 b = keyWithSlot(15, random);
+        Key32 c = keyWithSlot(15, random);
+        Key32 d = keyWithSlot(0, random);
+        Key32 e = keyWithSlot(1, random);
+        Key32Map<String> map = new Key32Map<>();
+        map.put(a, "a");
+        map.put(b, "b");
+        map.put(c, "c");
+        map.put(d, "d");
+        map.put(e, "e");
+
+        assertEquals("a", map.remove(a));
+        assertNull(map.get(a));
+        assertEquals("b", map.get(b));
+        assertEquals("c", map.get(c));
+        assertEquals("d", map.get(d));
+        assertEquals("e", map.get(e));
+
+        // 删除链中间的键，后面的键仍能找到
+        assertEquals("d", map.remove(d));
+        assertEquals("b", map.get(b));
+        assertEquals("c", map.get(c));
+        assertEquals("e", map.get(e));
+        assertEquals(3, map.size());
+
+        // 删除后空出的槽位可以再次写入
+        assertNull(map.putIfAbsent(a, "a2"));
+        assertEquals("a2", map.get(a));
+        assertEquals(4, map.size());
+    }
+
+    @Test
+    void keyNotMovedBeforeItsHomeSlot() {
+        Random random = new Random(3);
+        // x 在槽位3，y 的起始槽位是4（紧跟在 x 后面但不属于同一条链），删除 x 后 y 不能前移到槽位3
+        Key32 x = keyWithSlot(3, random);
+        Key32 y = keyWithSlot(4, random);
+        Key32Map<Integer> map = new Key32Map<>();
+        map.put(x, 1);
+        map.put(y, 2);
+        map.remove(x);
+        assertEquals(2, (int) map.get(y));
+        assertFalse(map.containsKey(x));
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(4);
+        // 键空间很小，插入、覆盖、删除反复落在相同的键上
+        List<Key32> keySpace = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            keySpace.add(randomKey(random));
+        }
+        Key32Map<Integer> map = new Key32Map<>();
+        Map<Key32, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            Key32 key = keySpace.get(random.nextInt(keySpace.size()));
+            switch (random.nextInt(4)) {
+                case 0 -> assertEquals(expected.put(key, i), map.put(key, i));
+                case 1 -> assertEquals(expected.putIfAbsent(key, i), map.putIfAbsent(key, i));
+                case 2 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (Key32 key : keySpace) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        Map<Key32, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    void computeIfAbsentAndClear() {
+        Random random = new Random(5);
+        Key32 key = randomKey(random);
+        Key32Map<int[]> map = new Key32Map<>(4);
+        map.computeIfAbsent(key, k -> new int[1])[0]++;
+        map.computeIfAbsent(key, k -> new int[1])[0]++;
+        assertEquals(2, map.get(key)[0]);
+        // 工厂返回 null 不写入
+        assertNull(map.computeIfAbsent(randomKey(random), k -> null));
+        assertEquals(1, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(key));
+    }
+
+    private static Key32 keyWithSlot(int slot, Random random) {
+        while (true) {
+            Key32 key = randomKey(random);
+            if ((key.hashCode() & MASK) == slot) {
+                return key;
+            }
+        }
+    }
+
+    private static Key32 randomKey(Random random) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Key32.of(bytes);
+    }
+}
@@ -0,0 +1,113 @@
+package com.bit.solana.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 多生产者单消费者环形队列：容量取整、队列满拒绝写入、跨越数组末尾的顺序，以及多生产者并发写入不丢不重
+ */
+public class MpscRingBufferTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwo() {
+        assertEquals(8, new MpscRingBuffer<Integer>(5, WaitStrategy.PARK).capacity());
+        assertEquals(8, new MpscRingBuffer<Integer>(8, WaitStrategy.PARK).capacity());
+        assertEquals(1024, new MpscRingBuffer<Integer>(1000, null).capacity());
+    }
+
+    @Test
+    void offerFailsWhenFullAndResumesAfterDrain() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4, WaitStrategy.BUSY_SPIN);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(4, ring.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, ring.drain(drained::add, 2));
+        assertEquals(List.of(0, 1), drained);
+        assertEquals(2, ring.size());
+
+        // 空出的槽位可以继续写入，序号跨越数组末尾后仍按写入顺序取出
+        assertTrue(ring.offer(4));
+        assertTrue(ring.offer(5));
+        assertFalse(ring.offer(6));
+        drained.clear();
+        assertEquals(4, ring.drain(drained::add, 100));
+        assertEquals(List.of(2, 3, 4, 5), drained);
+        assertEquals(0, ring.drain(drained::add, 100));
+        assertEquals(0, ring.size());
+        assertThrows(NullPointerException.class, () -> ring.offer(null));
+    }
+
+    @Test
+    void awaitTimesOutWhenEmpty() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4, WaitStrategy.PARK);
+        assertFalse(ring.await(TimeUnit.MILLISECONDS.toNanos(5)));
+        ring.offer(1);
+        assertTrue(ring.await(TimeUnit.MILLISECONDS.toNanos(5)));
+    }
+
+    @Test
+    void concurrentProducersDeliverEveryElementOnceInProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 100_000;
+        // 容量远小于总量，生产者会频繁遇到队列满并重试
+        MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(256, WaitStrategy.PARK);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    long[] element = {producer, i};
+                    while (!ring.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // 每个生产者内部的写入顺序必须保持
+        int[] nextExpected = new int[producers];
+        AtomicReference<String> failure = new AtomicReference<>();
+        start.countDown();
+        long received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < (long) producers * perProducer && System.nanoTime() < deadline) {
+            ring.await(TimeUnit.MILLISECONDS.toNanos(10));
+            received += ring.drain(element -> {
+                int producer = (int) element[0];
+                if (element[1] != nextExpected[producer]) {
+                    failure.compareAndSet(null, "生产者 " + producer + " 期望 " + nextExpected[producer] + " 实际 " + element[1]);
+                }
+                nextExpected[producer] = (int) element[1] + 1;
+            }, 64);
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        assertNull(failure.get());
+        assertEquals((long) producers * perProducer, received);
+        for (int p = 0; p < producers; p++) {
+            assertEquals(perProducer, nextExpected[p]);
+        }
+        assertEquals(0, ring.size());
+    }
+}
@@ -0,0 +1,90 @@
+package com.bit.solana.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分层时间轮：到期时刻的取整、逐层下放后准时到期，以及超出最高层范围的元素
+ */
+public class TimingWheelTest {
+    private static final long TICK_MS = 10;
+    // 4层 × 64槽 能覆盖的 tick 数
+    private static final long RANGE_TICKS = 1L << 24;
+
+    @Test
+    void expiresOnFirstTickNotBeforeDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, 1000);
+        wheel.schedule("a", 1015);
+        // 已过期的元素在下一个 tick 到期
+        wheel.schedule("past", 500);
+        assertEquals(2, wheel.size());
+
+        List<String> expired = new ArrayList<>();
+        assertEquals(1, wheel.advance(1010, expired::add));
+        assertEquals(List.of("past"), expired);
+        // 1015 向上取整到 1020
+        assertEquals(0, wheel.advance(1019, expired::add));
+        assertEquals(1, wheel.advance(1020, expired::add));
+        assertEquals(List.of("past", "a"), expired);
+        assertEquals(0, wheel.size());
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(0, 0));
+    }
+
+    @Test
+    void cascadedEntriesExpireOnTheirTick() {
+        Random random = new Random(7);
+        long start = 123_456;
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, start);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        // 到期时间分布在各层：第0层（<64）、第1层（<4096）、第2层（<262144）、第3层
+        long[] spans = {64, 1L << 12, 1L << 18, 1L << 22};
+        int id = 0;
+        for (long span : spans) {
+            for (int i = 0; i < 500; i++) {
+                long deadline = start + 1 + (long) (random.nextDouble() * span);
+                deadlines.put(id, deadline);
+                wheel.schedule(id++, deadline);
+            }
+        }
+
+        long now = start;
+        long end = start + (1L << 22) + 1;
+        while (now < end) {
+            // 推进步长随机，覆盖单 tick 推进与一次跨越多个高层槽位的推进
+            long previous = now;
+            now = Math.min(end, now + 1 + random.nextInt(random.nextBoolean() ? 3 : 5000));
+            long current = now;
+            wheel.advance(current, element -> {
+                long deadline = deadlines.remove(element);
+                assertTrue(deadline > previous && deadline <= current,
+                        "元素 " + element + " 到期时刻 " + deadline + " 不在 (" + previous + ", " + current + "]");
+            });
+        }
+        assertTrue(deadlines.isEmpty(), "未到期: " + deadlines.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void entryBeyondTopLevelIsReplaced() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        long far = RANGE_TICKS + RANGE_TICKS / 2 + 17;
+        wheel.schedule("far", far);
+        wheel.schedule("near", 100);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(100, expired::add);
+        assertEquals(List.of("near"), expired);
+        // 绕过最高层一圈时不能提前到期
+        assertEquals(0, wheel.advance(far - 1, expired::add));
+        assertEquals(1, wheel.size());
+        assertEquals(1, wheel.advance(far, expired::add));
+        assertEquals(List.of("near", "far"), expired);
+    }
+}
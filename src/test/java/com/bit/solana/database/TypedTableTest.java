@@ -0,0 +1,131 @@
+package com.bit.solana.database;
+
+import com.bit.solana.common.BlockHash;
+import com.bit.solana.config.SystemConfig;
+import com.bit.solana.database.codec.Codec;
+import com.bit.solana.database.codec.Codecs;
+import com.bit.solana.database.rocksDb.RocksDb;
+import com.bit.solana.database.rocksDb.TableEnum;
+import com.bit.solana.proto.Structure;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 编解码器往返与字节序，TypedTable 的读写、解码缓存与范围扫描
+ */
+public class TypedTableTest {
+
+    private static final Codec<String> UTF8 = Codecs.of(s -> s.getBytes(StandardCharsets.UTF_8),
+            b -> new String(b, StandardCharsets.UTF_8));
+
+    @TempDir
+    Path dir;
+
+    private RocksDb db;
+
+    @AfterEach
+    void tearDown() {
+        if (db != null) {
+            db.closeDatabase();
+        }
+    }
+
+    @Test
+    void bigEndianLongKeepsNumericOrder() {
+        long[] values = {0, 1, 255, 256, 1L << 32, Long.MAX_VALUE};
+        for (int i = 0; i < values.length; i++) {
+            byte[] encoded = Codecs.BIG_ENDIAN_LONG.encode(values[i]);
+            assertEquals(8, encoded.length);
+            assertEquals(values[i], Codecs.BIG_ENDIAN_LONG.decode(encoded));
+            if (i > 0) {
+                byte[] previous = Codecs.BIG_ENDIAN_LONG.encode(values[i - 1]);
+                assertTrue(Arrays.compareUnsigned(previous, encoded) < 0, "字节序与数值序不一致: " + values[i]);
+            }
+        }
+    }
+
+    @Test
+    void bufferDecodeReadsFromPosition() {
+        ByteBuffer buffer = ByteBuffer.allocate(12);
+        buffer.putInt(7).putLong(123456789L).flip();
+        buffer.position(4);
+        assertEquals(123456789L, Codecs.BIG_ENDIAN_LONG.decode(buffer));
+        // 解码不移动缓冲区位置
+        assertEquals(4, buffer.position());
+    }
+
+    @Test
+    void hashProtobufAndAdapterRoundTrip() {
+        byte[] bytes = new byte[32];
+        Arrays.fill(bytes, (byte) 7);
+        Codec<BlockHash> hashCodec = Codecs.hash32(BlockHash::fromBytes);
+        assertEquals(new BlockHash(bytes), hashCodec.decode(hashCodec.encode(new BlockHash(bytes))));
+
+        Codec<Structure.ProtoPeer> peerCodec = Codecs.protobuf(Structure.ProtoPeer.parser());
+        Structure.ProtoPeer peer = Structure.ProtoPeer.newBuilder().setAddress("127.0.0.1").setPort(8333).build();
+        byte[] encoded = peerCodec.encode(peer);
+        assertEquals(peer, peerCodec.decode(encoded));
+        assertEquals(peer, peerCodec.decode(ByteBuffer.wrap(encoded)));
+
+        assertEquals("区块", UTF8.decode(UTF8.encode("区块")));
+    }
+
+    @Test
+    void decodedCacheFollowsRawValue() {
+        db = open();
+        TypedTable<Long, String> table = new TypedTable<>(db, TableEnum.CHAIN, Codecs.BIG_ENDIAN_LONG, UTF8, 1 << 16);
+        table.put(1L, "a");
+        String first = table.get(1L);
+        assertEquals("a", first);
+        // 原始字节未变：返回缓存的解码结果
+        assertSame(first, table.get(1L));
+
+        // 绕过 TypedTable 直接写入：解码缓存失效
+        db.insert(TableEnum.CHAIN, Codecs.BIG_ENDIAN_LONG.encode(1L), "b".getBytes(StandardCharsets.UTF_8));
+        assertEquals("b", table.get(1L));
+
+        table.delete(1L);
+        assertNull(table.get(1L));
+        assertFalse(table.isExist(1L));
+    }
+
+    @Test
+    void rangeAndKeyScan() {
+        db = open();
+        TypedTable<Long, byte[]> table = new TypedTable<>(db, TableEnum.BLOCK_HEIGHT, Codecs.BIG_ENDIAN_LONG, Codecs.BYTES, 0);
+        for (long height = 0; height < 10; height++) {
+            table.put(height, new byte[]{(byte) height});
+        }
+
+        List<TypedTable.Entry<Long, byte[]>> range = table.range(3L, 7L, 100);
+        assertEquals(List.of(3L, 4L, 5L, 6L), range.stream().map(TypedTable.Entry::getKey).collect(Collectors.toList()));
+        assertArrayEquals(new byte[]{5}, range.get(2).getValue());
+        assertEquals(2, table.range(null, null, 2).size());
+
+        try (Stream<Long> keys = table.keys(8L, null)) {
+            assertEquals(List.of(8L, 9L), keys.collect(Collectors.toList()));
+        }
+        List<byte[]> values = table.getAll(List.of(1L, 42L));
+        assertArrayEquals(new byte[]{1}, values.get(0));
+        assertNull(values.get(1));
+    }
+
+    private RocksDb open() {
+        SystemConfig config = new SystemConfig();
+        config.setPath(dir.toString());
+        RocksDb rocksDb = new RocksDb();
+        assertTrue(rocksDb.createDatabase(config));
+        return rocksDb;
+    }
+}
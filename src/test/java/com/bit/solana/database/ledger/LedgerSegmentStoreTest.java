@@ -0,0 +1,140 @@
+package com.bit.solana.database.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 账本段文件：跨段追加、重启恢复（索引文件缺失、尾部记录损坏）与按段裁剪
+ */
+public class LedgerSegmentStoreTest {
+    // 每条记录 16 字节头 + 100 字节数据，每段放 4 条
+    private static final int DATA_SIZE = 100;
+    private static final int RECORD_SIZE = 16 + DATA_SIZE;
+    private static final int SEGMENT_SIZE = RECORD_SIZE * 4 + 40;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendAcrossSegmentsAndReopen() {
+        try (LedgerSegmentStore store = open()) {
+            appendRange(store, 0, 10);
+            assertEquals(0, store.getLowestHeight());
+            assertEquals(9, store.getHighestHeight());
+            assertArrayEquals(block(5), store.read(5));
+        }
+        assertTrue(Files.exists(segment(2)));
+
+        try (LedgerSegmentStore store = open()) {
+            assertEquals(0, store.getLowestHeight());
+            assertEquals(9, store.getHighestHeight());
+            for (int h = 0; h < 10; h++) {
+                assertArrayEquals(block(h), store.read(h), "高度 " + h);
+            }
+            assertNull(store.read(10));
+            // 恢复后继续追加到当前段
+            store.append(10, block(10));
+            assertArrayEquals(block(10), store.read(10));
+        }
+    }
+
+    @Test
+    void rebuildsMissingIndexOfSealedSegment() throws IOException {
+        try (LedgerSegmentStore store = open()) {
+            appendRange(store, 0, 10);
+        }
+        Files.delete(index(0));
+
+        try (LedgerSegmentStore store = open()) {
+            for (int h = 0; h < 4; h++) {
+                assertArrayEquals(block(h), store.read(h), "高度 " + h);
+            }
+        }
+        // 扫描后重写索引文件
+        assertEquals(4L * 12, Files.size(index(0)));
+    }
+
+    @Test
+    void truncatesTornTailRecord() throws IOException {
+        try (LedgerSegmentStore store = open()) {
+            appendRange(store, 0, 10);
+        }
+        // 高度9是第2段的第2条记录，破坏其数据使CRC不符（模拟崩溃时写了一半）
+        try (RandomAccessFile raf = new RandomAccessFile(segment(2).toFile(), "rw")) {
+            raf.seek(RECORD_SIZE + 16 + 5);
+            raf.write(0x5A ^ raf.read());
+        }
+
+        try (LedgerSegmentStore store = open()) {
+            assertEquals(8, store.getHighestHeight());
+            assertFalse(store.contains(9));
+            // 从截断处继续写，覆盖损坏的记录
+            store.append(9, block(90));
+        }
+        try (LedgerSegmentStore store = open()) {
+            assertEquals(9, store.getHighestHeight());
+            assertArrayEquals(block(90), store.read(9));
+            assertArrayEquals(block(8), store.read(8));
+        }
+    }
+
+    @Test
+    void deleteBelowRemovesWholeSealedSegments() {
+        try (LedgerSegmentStore store = open()) {
+            appendRange(store, 0, 10);
+            // 第0段（0~3）与第1段（4~7）全部低于9，第2段为当前写入段不删除
+            assertEquals(2, store.deleteBelow(9));
+            assertEquals(8, store.getLowestHeight());
+            assertNull(store.read(7));
+            assertArrayEquals(block(8), store.read(8));
+        }
+        assertFalse(Files.exists(segment(0)));
+        assertFalse(Files.exists(index(1)));
+
+        try (LedgerSegmentStore store = open()) {
+            assertEquals(8, store.getLowestHeight());
+            assertEquals(9, store.getHighestHeight());
+        }
+    }
+
+    @Test
+    void rejectsOversizedRecord() {
+        try (LedgerSegmentStore store = open()) {
+            assertThrows(IllegalArgumentException.class, () -> store.append(0, new byte[SEGMENT_SIZE]));
+            assertThrows(IllegalArgumentException.class, () -> store.append(0, new byte[0]));
+        }
+    }
+
+    private LedgerSegmentStore open() {
+        return new LedgerSegmentStore(dir, SEGMENT_SIZE, false);
+    }
+
+    private static void appendRange(LedgerSegmentStore store, int from, int to) {
+        for (int h = from; h < to; h++) {
+            store.append(h, block(h));
+        }
+    }
+
+    private static byte[] block(int seed) {
+        byte[] data = new byte[DATA_SIZE];
+        Arrays.fill(data, (byte) seed);
+        data[0] = (byte) (seed >>> 8);
+        return data;
+    }
+
+    private Path segment(int id) {
+        return dir.resolve(String.format("segment-%08d.seg", id));
+    }
+
+    private Path index(int id) {
+        return dir.resolve(String.format("segment-%08d.idx", id));
+    }
+}
@@ -0,0 +1,135 @@
+package com.bit.solana.database.rocksDb;
+
+import com.bit.solana.config.SystemConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 精确计数器：写入、覆盖、删除与批内重复键的计数增量，范围删除后的后台修正
+ */
+public class TableCountersTest {
+
+    @TempDir
+    Path dir;
+
+    private RocksDb db;
+
+    @AfterEach
+    void tearDown() {
+        if (db != null) {
+            db.closeDatabase();
+        }
+    }
+
+    @Test
+    void insertOverwriteAndDelete() {
+        db = open();
+        db.insert(TableEnum.BLOCK, key(1), value(1));
+        db.insert(TableEnum.BLOCK, key(2), value(2));
+        assertEquals(2, db.count(TableEnum.BLOCK, CountMode.EXACT));
+
+        // 覆盖已有键不改变计数
+        db.update(TableEnum.BLOCK, key(1), value(3));
+        assertEquals(2, db.count(TableEnum.BLOCK, CountMode.EXACT));
+
+        // 删除不存在的键不改变计数
+        db.delete(TableEnum.BLOCK, key(9));
+        assertEquals(2, db.count(TableEnum.BLOCK, CountMode.EXACT));
+
+        db.delete(TableEnum.BLOCK, key(1));
+        assertEquals(1, db.count(TableEnum.BLOCK, CountMode.EXACT));
+        assertEquals(db.count(TableEnum.BLOCK, CountMode.SCAN), db.count(TableEnum.BLOCK, CountMode.EXACT));
+    }
+
+    @Test
+    void duplicateKeysInOneBatchCountOnce() {
+        db = open();
+        db.batchInsert(TableEnum.BLOCK,
+                new byte[][]{key(1), key(1), key(2)},
+                new byte[][]{value(1), value(2), value(3)});
+        assertEquals(2, db.count(TableEnum.BLOCK, CountMode.EXACT));
+
+        // 同一批次内先写后删：净增量为0
+        assertTrue(db.dataTransaction(List.of(
+                new RocksDb.DbOperation(TableEnum.BLOCK, key(3), value(3), RocksDb.DbOperation.OpType.INSERT),
+                new RocksDb.DbOperation(TableEnum.BLOCK, key(3), null, RocksDb.DbOperation.OpType.DELETE))));
+        assertEquals(2, db.count(TableEnum.BLOCK, CountMode.EXACT));
+        assertEquals(2, db.count(TableEnum.BLOCK, CountMode.SCAN));
+    }
+
+    @Test
+    void countersStayOutOfBusinessTables() {
+        db = open();
+        db.insert(TableEnum.BLOCK, key(1), value(1));
+        assertEquals(1, db.count(TableEnum.BLOCK, CountMode.EXACT));
+        // 计数器保存在默认列族，CHAIN 表扫描看不到
+        assertEquals(0, db.count(TableEnum.CHAIN, CountMode.SCAN));
+    }
+
+    @Test
+    void exactRejectedForUncountedTables() {
+        db = open();
+        db.insert(TableEnum.ACCOUNT, key(1), value(1));
+        // ACCOUNT 不维护计数器，EXACT 不能静默退化为全表扫描
+        assertThrows(IllegalArgumentException.class, () -> db.count(TableEnum.ACCOUNT, CountMode.EXACT));
+        assertEquals(1, db.count(TableEnum.ACCOUNT, CountMode.SCAN));
+    }
+
+    @Test
+    void rangeDeleteRepairsExactCountInBackground() throws InterruptedException {
+        db = open();
+        for (int i = 0; i < 10; i++) {
+            db.insert(TableEnum.BLOCK, key(i), value(i));
+        }
+        db.batchDeleteRange(TableEnum.BLOCK, key(0), key(4));
+        // 修正期间的写入照常累加到计数器
+        db.insert(TableEnum.BLOCK, key(20), value(20));
+        assertEquals(7, db.count(TableEnum.BLOCK, CountMode.SCAN));
+
+        // 不需要重启，后台修正完成后精确计数与扫描结果一致
+        assertEquals(7, awaitExactCount(7));
+        db.insert(TableEnum.BLOCK, key(0), value(0));
+        assertEquals(8, db.count(TableEnum.BLOCK, CountMode.EXACT));
+
+        // 修正结果已持久化，重启后不需要重新统计
+        db.closeDatabase();
+        db = open();
+        assertEquals(8, db.count(TableEnum.BLOCK, CountMode.EXACT));
+    }
+
+    private long awaitExactCount(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        long count = db.count(TableEnum.BLOCK, CountMode.EXACT);
+        while (count != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            count = db.count(TableEnum.BLOCK, CountMode.EXACT);
+        }
+        return count;
+    }
+
+    private RocksDb open() {
+        SystemConfig config = new SystemConfig();
+        config.setPath(dir.toString());
+        RocksDb rocksDb = new RocksDb();
+        assertTrue(rocksDb.createDatabase(config));
+        return rocksDb;
+    }
+
+    // 32字节键，首字节递增保证范围删除的区间
+    private static byte[] key(int i) {
+        byte[] key = new byte[32];
+        key[0] = (byte) i;
+        key[31] = 1;
+        return key;
+    }
+
+    private static byte[] value(int i) {
+        return new byte[]{(byte) i, 1, 2, 3};
+    }
+}
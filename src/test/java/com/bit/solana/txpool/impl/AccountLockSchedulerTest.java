@@ -0,0 +1,162 @@
+package com.bit.solana.txpool.impl;
+
+import com.bit.solana.common.Key32;
+import com.bit.solana.common.PubkeyHash;
+import com.bit.solana.structure.account.AccountMeta;
+import com.bit.solana.structure.tx.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 账户锁调度：读-读共享批次、读写/写写冲突按传入顺序分到后面的批次、批次满时顺延，以及随机交易下批内无冲突
+ */
+public class AccountLockSchedulerTest {
+
+    @Test
+    void readersShareBatchAndWriterWaits() {
+        Transaction read1 = tx(read(1));
+        Transaction read2 = tx(read(1));
+        Transaction write = tx(write(1));
+        Transaction readAfterWrite = tx(read(1));
+        Transaction independent = tx(write(2));
+
+        List<List<LockedTransaction>> batches = AccountLockScheduler.schedule(
+                List.of(read1, read2, write, readAfterWrite, independent), 64);
+
+        assertEquals(3, batches.size());
+        // 与前面的交易都不冲突，放入最靠前的批次
+        assertEquals(List.of(read1, read2, independent), txs(batches.get(0)));
+        assertEquals(List.of(write), txs(batches.get(1)));
+        assertEquals(List.of(readAfterWrite), txs(batches.get(2)));
+    }
+
+    @Test
+    void writableAndReadonlySameAccountCountsAsWrite() {
+        Transaction both = tx(read(1), write(1), read(1));
+        LockedTransaction locked = LockedTransaction.of(both);
+        assertEquals(1, locked.writes.length);
+        assertEquals(0, locked.reads.length);
+
+        Transaction reader = tx(read(1));
+        List<List<LockedTransaction>> batches = AccountLockScheduler.schedule(List.of(both, reader), 64);
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    void fullBatchSpillsToNext() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            transactions.add(tx(write(i)));
+        }
+        List<List<LockedTransaction>> batches = AccountLockScheduler.schedule(transactions, 2);
+        assertEquals(3, batches.size());
+        assertEquals(transactions.subList(0, 2), txs(batches.get(0)));
+        assertEquals(transactions.subList(2, 4), txs(batches.get(1)));
+        assertEquals(transactions.subList(4, 5), txs(batches.get(2)));
+    }
+
+    @Test
+    void randomTransactionsHaveNoConflictsWithinBatchAndKeepOrder() {
+        Random random = new Random(21);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int accounts = 1 + random.nextInt(4);
+            AccountMeta[] metas = new AccountMeta[accounts];
+            for (int a = 0; a < accounts; a++) {
+                // 账户空间小，冲突频繁
+                int account = random.nextInt(40);
+                metas[a] = random.nextInt(3) == 0 ? write(account) : read(account);
+            }
+            transactions.add(tx(metas));
+        }
+        int maxBatchSize = 16;
+        List<List<LockedTransaction>> batches = AccountLockScheduler.schedule(transactions, maxBatchSize);
+
+        Map<Transaction, Integer> batchOf = new IdentityHashMap<>();
+        for (int b = 0; b < batches.size(); b++) {
+            List<LockedTransaction> batch = batches.get(b);
+            assertFalse(batch.isEmpty());
+            assertTrue(batch.size() <= maxBatchSize);
+            for (int i = 0; i < batch.size(); i++) {
+                assertNull(batchOf.put(batch.get(i).tx, b), "交易重复调度");
+                for (int j = i + 1; j < batch.size(); j++) {
+                    assertFalse(conflict(batch.get(i), batch.get(j)), "批次 " + b + " 内存在冲突");
+                }
+            }
+        }
+        assertEquals(transactions.size(), batchOf.size());
+
+        // 冲突交易的执行顺序与传入顺序一致
+        List<LockedTransaction> locked = new ArrayList<>();
+        for (Transaction tx : transactions) {
+            locked.add(LockedTransaction.of(tx));
+        }
+        for (int i = 0; i < locked.size(); i++) {
+            for (int j = i + 1; j < locked.size(); j++) {
+                if (conflict(locked.get(i), locked.get(j))) {
+                    assertTrue(batchOf.get(transactions.get(i)) < batchOf.get(transactions.get(j)),
+                            "交易 " + i + " 与 " + j + " 冲突但顺序颠倒");
+                }
+            }
+        }
+    }
+
+    private static boolean conflict(LockedTransaction a, LockedTransaction b) {
+        for (Key32 key : a.writes) {
+            if (contains(b.writes, key) || contains(b.reads, key)) {
+                return true;
+            }
+        }
+        for (Key32 key : a.reads) {
+            if (contains(b.writes, key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(Key32[] keys, Key32 key) {
+        for (Key32 k : keys) {
+            if (k.equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Transaction> txs(List<LockedTransaction> batch) {
+        List<Transaction> result = new ArrayList<>();
+        for (LockedTransaction locked : batch) {
+            result.add(locked.tx);
+        }
+        return result;
+    }
+
+    private static Transaction tx(AccountMeta... accounts) {
+        Transaction tx = new Transaction();
+        tx.setAccounts(List.of(accounts));
+        return tx;
+    }
+
+    private static AccountMeta write(int account) {
+        return new AccountMeta(pubkey(account), true, true);
+    }
+
+    private static AccountMeta read(int account) {
+        return new AccountMeta(pubkey(account), false, false);
+    }
+
+    private static PubkeyHash pubkey(int account) {
+        byte[] bytes = new byte[32];
+        bytes[0] = (byte) account;
+        bytes[31] = (byte) 0xA5;
+        return new PubkeyHash(bytes);
+    }
+}
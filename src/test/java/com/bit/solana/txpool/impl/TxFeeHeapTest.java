@@ -0,0 +1,115 @@
+package com.bit.solana.txpool.impl;
+
+import com.bit.solana.common.Key32;
+import com.bit.solana.structure.tx.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 手续费堆：按优先级（相同按 txId）出堆的顺序，按 txId 删除任意位置的节点后堆序保持不变
+ */
+public class TxFeeHeapTest {
+    // 大小相同，优先级与手续费成正比
+    private static final long TX_SIZE = 200;
+
+    // 与堆内排序一致：手续费高者在前，相同按 txId 无符号字节序升序
+    private static final Comparator<Transaction> ORDER = Comparator
+            .comparingLong(Transaction::getFee).reversed()
+            .thenComparing(tx -> Key32.of(tx.getTxId()));
+
+    @Test
+    void pollsInPriorityOrderWithTxIdTieBreak() {
+        Random random = new Random(11);
+        TxFeeHeap heap = new TxFeeHeap(4);
+        List<Transaction> all = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            // 手续费只取少数几个值，制造大量同优先级的交易
+            Transaction tx = tx(random, 1000 * (1 + random.nextInt(5)));
+            all.add(tx);
+            assertTrue(heap.offer(tx));
+        }
+        assertEquals(100, heap.size());
+        all.sort(ORDER);
+        for (Transaction expected : all) {
+            assertSame(expected, heap.peek());
+            assertSame(expected, heap.poll());
+        }
+        assertTrue(heap.isEmpty());
+        assertNull(heap.poll());
+        assertEquals(Double.NEGATIVE_INFINITY, heap.peekPriority());
+    }
+
+    @Test
+    void removeFromAnyPositionKeepsHeapOrder() {
+        Random random = new Random(12);
+        TxFeeHeap heap = new TxFeeHeap(16);
+        TreeSet<Transaction> expected = new TreeSet<>(ORDER);
+        List<Transaction> live = new ArrayList<>();
+        for (int round = 0; round < 20_000; round++) {
+            int op = random.nextInt(10);
+            if (op < 5 || live.isEmpty()) {
+                Transaction tx = tx(random, 1 + random.nextInt(50));
+                assertTrue(heap.offer(tx));
+                expected.add(tx);
+                live.add(tx);
+            } else if (op < 9) {
+                // 按 txId 删除：被删节点可能在堆顶、中间或叶子，末尾节点移入后需要上浮或下沉
+                Transaction tx = live.remove(random.nextInt(live.size()));
+                assertSame(tx, heap.remove(Key32.of(tx.getTxId())));
+                expected.remove(tx);
+            } else {
+                Transaction top = heap.poll();
+                assertSame(expected.pollFirst(), top);
+                live.remove(top);
+            }
+            assertEquals(expected.size(), heap.size());
+            if (!expected.isEmpty()) {
+                assertSame(expected.first(), heap.peek());
+            }
+        }
+        while (!expected.isEmpty()) {
+            assertSame(expected.pollFirst(), heap.poll());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void duplicateAndConditionalRemove() {
+        Random random = new Random(13);
+        TxFeeHeap heap = new TxFeeHeap(16);
+        Transaction tx = tx(random, 100);
+        Key32 txId = Key32.of(tx.getTxId());
+        assertTrue(heap.offer(tx));
+
+        // 同ID的另一个实例：不能重复入堆，也不能按实例删除已在堆中的交易
+        Transaction same = new Transaction();
+        same.setTxId(tx.getTxId().clone());
+        same.setSize(TX_SIZE);
+        same.setFee(500);
+        assertFalse(heap.offer(same));
+        assertFalse(heap.remove(txId, same));
+        assertSame(tx, heap.get(txId));
+
+        assertTrue(heap.remove(txId, tx));
+        assertNull(heap.get(txId));
+        assertNull(heap.remove(txId));
+        assertTrue(heap.isEmpty());
+    }
+
+    private static Transaction tx(Random random, long fee) {
+        byte[] txId = new byte[32];
+        random.nextBytes(txId);
+        Transaction tx = new Transaction();
+        tx.setTxId(txId);
+        tx.setSize(TX_SIZE);
+        tx.setFee(fee);
+        return tx;
+    }
+}